@@ -1,14 +1,27 @@
+import controller.BatchRunner;
 import controller.Controller;
+import controller.GameOptions;
 import exceptions.MazeMalformedException;
 import exceptions.MazeSizeMissmatchException;
 import io.FileLoader;
+import io.LoaderType;
+import io.MazeConverter;
 import model.GameEnv;
 import view.TextViewer;
 import view.GuiViewer;
 import view.GuiPanel;
 import model.Solver;
+import model.SearchType;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * the class which launches the maze game application and
@@ -20,29 +33,150 @@ public class Launcher {
      * the main method of maze game takes arguments to
      * determine whether to run in GUI or text mode
      * and which maze file to load
-     * @param args 1 or 2 strings in an array:
+     * @param args 1 or 2 strings in an array, optionally preceded by options:
      *             If 1 string is provided it is the file path
      *             which will play in text mode.
      *             If 2 strings are provided the first is GUI
      *             and the second is the file path to be played
      *             in GUI mode.
+     *             The option --solver=NAME chooses the search strategy
+     *             by the name of a model.SearchType, e.g. bfs, astar or jps.
+     *             The option --cache=DIR stores solutions in the given
+     *             directory and reuses them when the same maze is solved again.
+     *             The option --time-limit=MS stops the autosolver after the given
+     *             number of milliseconds, using the best path found so far.
+     *             The option --stats prints the statistics of the search as one line of JSON.
+     *             The option --off-heap stores the walls of the maze outside the Java heap.
+     *             The option --loader=NAME chooses how the maze file is read (text, mapped or parallel),
+     *             files ending in .mzb are always read as binary mazes.
+     *             If the first string is CONVERT the maze file given by the second
+     *             is converted into the file given by the third: text into the
+     *             binary .mzb format, or a .mzb file back into text. The option
+     *             --indexes also stores the precomputed data of the maze in the binary file.
+     *             If the first string is BATCH every maze in the directories, globs
+     *             or files given by the following strings is loaded and solved without
+     *             a game, and a record for each is written as CSV or JSONL. The option
+     *             --threads=N chooses the number of solver threads, --output=FILE the
+     *             file the records are written to instead of the terminal, and
+     *             --format=NAME the format (csv or jsonl, by default chosen by the
+     *             extension of the output file). When the records are written to the
+     *             terminal the summary and any errors are printed to the error stream.
      */
     public static void main(String[] args) throws FileNotFoundException,
             MazeSizeMissmatchException, MazeMalformedException, IllegalArgumentException {
         String filename = "";
         boolean isGui = false;
-        if (args.length > 2) {
+        GameOptions options = new GameOptions();
+        boolean indexes = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String output = null;
+        BatchRunner.Format format = null;
+        List<String> positional = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--solver=")) {
+                options.setSearchType(SearchType.fromName(arg.substring("--solver=".length())));
+            } else if (arg.startsWith("--cache=")) {
+                options.setCacheDirectory(Path.of(arg.substring("--cache=".length())));
+            } else if (arg.equals("--stats")) {
+                options.setPrintStats(true);
+            } else if (arg.equals("--indexes")) {
+                indexes = true;
+            } else if (arg.equals("--off-heap")) {
+                options.setOffHeap(true);
+            } else if (arg.startsWith("--loader=")) {
+                options.setLoaderType(LoaderType.fromName(arg.substring("--loader=".length())));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--output=")) {
+                output = arg.substring("--output=".length());
+            } else if (arg.startsWith("--format=")) {
+                format = BatchRunner.Format.fromName(arg.substring("--format=".length()));
+            } else if (arg.startsWith("--time-limit=")) {
+                options.setTimeLimit(Long.parseLong(arg.substring("--time-limit=".length())));
+            } else if (arg.startsWith("--")) {
+                System.out.println("invalid option " + arg);
+                return;
+            } else {
+                positional.add(arg);
+            }
+        }
+        if (!positional.isEmpty() && positional.get(0).equals("CONVERT")) {
+            if (positional.size() != 3) {
+                System.out.println("invalid arguments");
+                return;
+            }
+            try {
+                MazeConverter.convert(positional.get(1), positional.get(2), indexes);
+            } catch (IOException e) {
+                System.out.println("//!// IOException: " + e.getMessage());
+                return;
+            }
+            System.out.println("converted " + positional.get(1) + " to " + positional.get(2));
+            return;
+        }
+        if (!positional.isEmpty() && positional.get(0).equals("BATCH")) {
+            if (positional.size() < 2) {
+                System.out.println("invalid arguments");
+                return;
+            }
+            runBatch(positional.subList(1, positional.size()), options, threads, output,
+                    format != null ? format : BatchRunner.Format.forFile(output));
+            return;
+        }
+        if (positional.isEmpty() || positional.size() > 2) {
             System.out.println("invalid arguments");
             return;
         }
-        if (args[0].equals("GUI")) {
+        if (positional.get(0).equals("GUI")) {
             //gui stuff
             isGui = true;
-            filename = args[1];
+            filename = positional.get(1);
         } else {
-            filename = args[0];
+            filename = positional.get(0);
         }
         System.out.println("Oh no! Sir Wobbleton has gotten stuck in a maze!");
-        Controller controller = new Controller(filename, isGui);
+        Controller controller = new Controller(filename, isGui, options);
+    }
+
+    /**
+     * loads and solves every maze given by the patterns and prints the summary of the batch
+     * @param patterns directories, globs or files of mazes
+     * @param options the settings which choose the loader, the storage of the walls and the solver
+     * @param threads the number of solver threads
+     * @param output the file the records are written to, or null for the terminal
+     * @param format the format of the records
+     */
+    private static void runBatch(List<String> patterns, GameOptions options, int threads, String output,
+                                 BatchRunner.Format format) throws FileNotFoundException {
+        try {
+            List<Path> mazes = new ArrayList<>();
+            for (String pattern : patterns) {
+                mazes.addAll(BatchRunner.findMazes(pattern));
+            }
+            if (output != null) {
+                BatchRunner.Summary summary;
+                try (Writer out = Files.newBufferedWriter(Path.of(output))) {
+                    summary = new BatchRunner(options, threads).run(mazes, out, format);
+                }
+                System.out.println(summary);
+                return;
+            }
+            // the loaders print their errors to System.out, which is pointed at the error
+            // stream while the records are written to the terminal, so the records can be parsed
+            PrintStream records = System.out;
+            System.setOut(System.err);
+            try {
+                // the terminal is flushed but must stay open
+                System.err.println(new BatchRunner(options, threads).run(mazes, new OutputStreamWriter(records), format));
+            } finally {
+                System.setOut(records);
+            }
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            System.out.println("//!// IOException: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,597 @@
+package controller;
+
+import io.LoaderType;
+import model.GameEnv;
+import model.GameState;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * a class which loads, validates and solves a whole batch of mazes without
+ * a game loop, writing one record for every maze.
+ * <p>
+ * The mazes flow through a pipeline of bounded queues. Loading waits on the
+ * disk, so every file is loaded on a thread of its own: a virtual thread
+ * where the runtime has them, otherwise a thread from a cached pool. The
+ * loaded mazes are validated and solved by a fixed pool of solver threads,
+ * and the results are written in the order they finish. Only a few mazes
+ * are held in memory at once, however many are in the batch, as loading
+ * waits while the queue of loaded mazes is full.
+ * </p>
+ * <p>
+ * A maze which cannot be loaded or solved is recorded with the type of the
+ * exception, it does not stop the batch.
+ * </p>
+ */
+public class BatchRunner {
+    /**
+     * the number of mazes each solver thread may have waiting in a queue
+     */
+    private static final int QUEUED_PER_SOLVER = 2;
+
+    /**
+     * the outcomes of a maze in a batch
+     */
+    public enum Status {
+        /**
+         * a path from the start to the exit was found
+         */
+        SOLVED,
+        /**
+         * the exit cannot be reached from the start
+         */
+        UNSOLVABLE,
+        /**
+         * the maze was loaded but has no start or no exit
+         */
+        INVALID,
+        /**
+         * the maze could not be loaded or the search failed
+         */
+        ERROR
+    }
+
+    /**
+     * the formats the records of a batch can be written in
+     */
+    public enum Format {
+        /**
+         * comma separated values with a header line
+         */
+        CSV,
+        /**
+         * one JSON object on every line
+         */
+        JSONL;
+
+        /**
+         * returns the format to write the given file in, JSONL for files
+         * ending in .jsonl and CSV for every other file
+         * @param filename the path to the file the records are written to
+         * @return the format of the file
+         */
+        public static Format forFile(String filename) {
+            return filename != null && filename.endsWith(".jsonl") ? JSONL : CSV;
+        }
+
+        /**
+         * returns the format with the given name, ignoring case
+         * @param name the name of the format, "csv" or "jsonl"
+         * @return the matching format
+         * @throws IllegalArgumentException if there is no format with the given name
+         */
+        public static Format fromName(String name) throws IllegalArgumentException {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("unknown format: " + name);
+        }
+    }
+
+    /**
+     * the settings which choose how the mazes are loaded and solved
+     */
+    private final GameOptions options;
+    /**
+     * the number of threads which validate and solve mazes
+     */
+    private final int solverThreads;
+    /**
+     * the capacity of each queue, which is also the number of mazes loaded at once
+     */
+    private final int capacity;
+
+    /**
+     * constructs a new runner which loads and solves mazes as the options say
+     * @param options the settings which choose the loader, the storage of the walls and the solver
+     * @param solverThreads the number of threads which validate and solve mazes
+     * @throws IllegalArgumentException if there is not at least one solver thread
+     */
+    public BatchRunner(GameOptions options, int solverThreads) throws IllegalArgumentException {
+        if (solverThreads < 1) {
+            throw new IllegalArgumentException("at least one solver thread is needed");
+        }
+        this.options = options;
+        this.solverThreads = solverThreads;
+        this.capacity = solverThreads * QUEUED_PER_SOLVER;
+    }
+
+    /**
+     * finds the maze files given by a path: every file in a directory, the
+     * files matching a glob such as "mazes/*.txt", or a single file.
+     * Hidden files are left out and the files are sorted by name.
+     * @param pattern the path to a directory, a glob or a file
+     * @return the paths of the maze files
+     * @throws FileNotFoundException if nothing exists at the path
+     * @throws IOException if the directory cannot be read
+     */
+    public static List<Path> findMazes(String pattern) throws IOException {
+        int slash = Math.max(pattern.lastIndexOf('/'), pattern.lastIndexOf(File.separatorChar));
+        String name = pattern.substring(slash + 1);
+        Path directory;
+        String glob;
+        if (name.matches(".*[*?\\[{].*")) {
+            directory = Path.of(slash < 0 ? "." : pattern.substring(0, slash + 1));
+            glob = name;
+        } else if (Files.isDirectory(Path.of(pattern))) {
+            directory = Path.of(pattern);
+            glob = "*";
+        } else if (Files.exists(Path.of(pattern))) {
+            return List.of(Path.of(pattern));
+        } else {
+            System.out.println("//!// FileNotFoundException: " + pattern + " does not exist");
+            throw new FileNotFoundException(pattern);
+        }
+        List<Path> mazes = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file) && !file.getFileName().toString().startsWith(".")) {
+                    mazes.add(file);
+                }
+            }
+        }
+        mazes.sort(null);
+        return mazes;
+    }
+
+    /**
+     * loads, validates and solves every maze, writing a record for each as soon as it is finished
+     * @param mazes the paths of the maze files
+     * @param out where the records are written, it is flushed but not closed
+     * @param format the format of the records
+     * @return the counts, throughput and latencies of the batch
+     * @throws IOException if the records cannot be written
+     * @throws InterruptedException if the thread is interrupted while waiting for results
+     */
+    public Summary run(List<Path> mazes, Writer out, Format format) throws IOException, InterruptedException {
+        BlockingQueue<Loaded> loaded = new ArrayBlockingQueue<>(this.capacity);
+        BlockingQueue<Result> results = new ArrayBlockingQueue<>(this.capacity);
+        ExecutorService loaders = loaderExecutor();
+        ExecutorService solvers = Executors.newFixedThreadPool(this.solverThreads);
+        long start = System.nanoTime();
+        try {
+            Semaphore loading = new Semaphore(this.capacity);
+            loaders.execute(() -> this.loadAll(mazes, loaders, loading, loaded));
+            for (int i = 0; i < this.solverThreads; i++) {
+                solvers.execute(() -> this.solveAll(loaded, results));
+            }
+            if (format == Format.CSV) {
+                out.write(Result.CSV_HEADER);
+                out.write('\n');
+            }
+            Summary summary = new Summary();
+            // every maze gives exactly one result, even if it fails to load
+            for (int i = 0; i < mazes.size(); i++) {
+                Result result = results.take();
+                out.write(format == Format.CSV ? result.toCsv() : result.toJson());
+                out.write('\n');
+                summary.add(result);
+            }
+            out.flush();
+            summary.finish(System.nanoTime() - start);
+            return summary;
+        } finally {
+            // the solvers are waiting for mazes which will never come
+            loaders.shutdownNow();
+            solvers.shutdownNow();
+        }
+    }
+
+    /**
+     * starts loading every maze, waiting before each while as many mazes are loaded as the queue holds
+     */
+    private void loadAll(List<Path> mazes, Executor loaders, Semaphore loading, BlockingQueue<Loaded> loaded) {
+        try {
+            for (Path maze : mazes) {
+                loading.acquire();
+                try {
+                    loaders.execute(() -> {
+                        try {
+                            loaded.put(this.load(maze));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            loading.release();
+                        }
+                    });
+                } catch (Throwable e) {
+                    // e.g. no thread could be started, the maze still gets its record
+                    loading.release();
+                    loaded.put(new Loaded(maze, null, e, System.nanoTime(), 0));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * loads a maze, keeping the exception instead if it cannot be loaded.
+     * Every throwable is kept, as a maze without a result would leave run waiting for it forever.
+     */
+    private Loaded load(Path maze) {
+        long start = System.nanoTime();
+        String filename = maze.toString();
+        try {
+            GameEnv gameEnv = LoaderType.forFile(filename, this.options.getLoaderType()).create()
+                    .loadEnv(filename, this.options.isOffHeap());
+            return new Loaded(maze, gameEnv, null, start, System.nanoTime() - start);
+        } catch (Throwable e) {
+            return new Loaded(maze, null, e, start, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * validates and solves loaded mazes until the batch is finished and the thread is interrupted
+     */
+    private void solveAll(BlockingQueue<Loaded> loaded, BlockingQueue<Result> results) {
+        try {
+            while (true) {
+                results.put(this.solve(loaded.take()));
+            }
+        } catch (InterruptedException e) {
+            // the batch is finished
+        }
+    }
+
+    /**
+     * validates and solves a loaded maze
+     */
+    private Result solve(Loaded maze) {
+        if (maze.error != null) {
+            return new Result(maze.path, Status.ERROR, -1, maze.loadNanos, 0, 0,
+                    System.nanoTime() - maze.start, maze.error.getClass().getSimpleName());
+        }
+        long validateNanos = 0;
+        long solveNanos = 0;
+        try {
+            GameEnv gameEnv = maze.gameEnv;
+            long start = System.nanoTime();
+            GameState initState = gameEnv.getInitState();
+            Status status = null;
+            if (gameEnv.getTile(initState.getRow(), initState.getCol()) != GameEnv.START_POINT
+                    || gameEnv.getTile(gameEnv.getExitRow(), gameEnv.getExitCol()) != GameEnv.END_POINT) {
+                status = Status.INVALID;
+            } else if (gameEnv.canCheckSolvable() && !gameEnv.isSolvable()) {
+                // mazes too large for the connectivity index or kept off the heap are left to the search
+                status = Status.UNSOLVABLE;
+            }
+            validateNanos = System.nanoTime() - start;
+            int pathLength = -1;
+            if (status == null) {
+                start = System.nanoTime();
+                List<Character> solution = this.options.getSearchType().create(gameEnv).search(initState);
+                solveNanos = System.nanoTime() - start;
+                status = solution.isEmpty() ? Status.UNSOLVABLE : Status.SOLVED;
+                pathLength = solution.isEmpty() ? -1 : solution.size();
+            }
+            return new Result(maze.path, status, pathLength, maze.loadNanos, validateNanos, solveNanos,
+                    System.nanoTime() - maze.start, null);
+        } catch (Throwable e) {
+            return new Result(maze.path, Status.ERROR, -1, maze.loadNanos, validateNanos, solveNanos,
+                    System.nanoTime() - maze.start, e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * returns an executor which runs every task on a virtual thread, or on
+     * a cached pool of threads where the runtime has no virtual threads
+     */
+    private static ExecutorService loaderExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * a maze which has been loaded, or the exception thrown while loading it
+     */
+    private static final class Loaded {
+        /**
+         * the path of the maze file
+         */
+        private final Path path;
+        /**
+         * the environment of the maze, or null if it could not be loaded
+         */
+        private final GameEnv gameEnv;
+        /**
+         * the exception thrown while loading, or null
+         */
+        private final Throwable error;
+        /**
+         * the time loading started, from System.nanoTime
+         */
+        private final long start;
+        /**
+         * the time loading took in nanoseconds
+         */
+        private final long loadNanos;
+
+        /**
+         * constructs a loaded maze
+         */
+        Loaded(Path path, GameEnv gameEnv, Throwable error, long start, long loadNanos) {
+            this.path = path;
+            this.gameEnv = gameEnv;
+            this.error = error;
+            this.start = start;
+            this.loadNanos = loadNanos;
+        }
+    }
+
+    /**
+     * the record of one maze in a batch
+     */
+    public static final class Result {
+        /**
+         * the first line of a CSV file of records
+         */
+        static final String CSV_HEADER =
+                "file,status,pathLength,loadNanos,validateNanos,solveNanos,latencyNanos,errorType";
+
+        /**
+         * the path of the maze file
+         */
+        private final Path path;
+        /**
+         * the outcome of the maze
+         */
+        private final Status status;
+        /**
+         * the number of actions in the solution, or -1 if none was found
+         */
+        private final int pathLength;
+        /**
+         * the time loading took in nanoseconds
+         */
+        private final long loadNanos;
+        /**
+         * the time validation took in nanoseconds
+         */
+        private final long validateNanos;
+        /**
+         * the time the search took in nanoseconds
+         */
+        private final long solveNanos;
+        /**
+         * the time from the start of loading until the result was ready, including waits in the queues
+         */
+        private final long latencyNanos;
+        /**
+         * the simple name of the exception which failed the maze, or null
+         */
+        private final String errorType;
+
+        /**
+         * constructs the record of a maze
+         */
+        Result(Path path, Status status, int pathLength, long loadNanos, long validateNanos, long solveNanos,
+               long latencyNanos, String errorType) {
+            this.path = path;
+            this.status = status;
+            this.pathLength = pathLength;
+            this.loadNanos = loadNanos;
+            this.validateNanos = validateNanos;
+            this.solveNanos = solveNanos;
+            this.latencyNanos = latencyNanos;
+            this.errorType = errorType;
+        }
+
+        /**
+         * returns the path of the maze file
+         * @return the path
+         */
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * returns the outcome of the maze
+         * @return the status
+         */
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * returns the number of actions in the solution
+         * @return the length of the path, or -1 if none was found
+         */
+        public int getPathLength() {
+            return pathLength;
+        }
+
+        /**
+         * returns the time from the start of loading until the result was ready
+         * @return the latency in nanoseconds
+         */
+        public long getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        /**
+         * returns the simple name of the exception which failed the maze
+         * @return the type of the error, or null if there was none
+         */
+        public String getErrorType() {
+            return errorType;
+        }
+
+        /**
+         * returns the record as a line of comma separated values, without the line break
+         * @return the values in the order of the CSV header
+         */
+        public String toCsv() {
+            String file = this.path.toString();
+            if (file.matches("(?s).*[,\"\\r\\n].*")) {
+                file = '"' + file.replace("\"", "\"\"") + '"';
+            }
+            return file + ',' + this.status + ',' + this.pathLength + ',' + this.loadNanos + ','
+                    + this.validateNanos + ',' + this.solveNanos + ',' + this.latencyNanos + ','
+                    + (this.errorType == null ? "" : this.errorType);
+        }
+
+        /**
+         * returns the record as a single line of JSON
+         * @return a JSON object on one line
+         */
+        public String toJson() {
+            StringBuilder json = new StringBuilder("{\"file\":\"");
+            for (char c : this.path.toString().toCharArray()) {
+                if (c == '"' || c == '\\') {
+                    json.append('\\').append(c);
+                } else if (c < ' ') {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+            json.append("\",\"status\":\"").append(this.status).append('"');
+            json.append(",\"pathLength\":").append(this.pathLength);
+            json.append(",\"loadNanos\":").append(this.loadNanos);
+            json.append(",\"validateNanos\":").append(this.validateNanos);
+            json.append(",\"solveNanos\":").append(this.solveNanos);
+            json.append(",\"latencyNanos\":").append(this.latencyNanos);
+            json.append(",\"errorType\":").append(this.errorType == null ? "null" : '"' + this.errorType + '"');
+            return json.append('}').toString();
+        }
+
+        @Override
+        public String toString() {
+            return this.toJson();
+        }
+    }
+
+    /**
+     * the counts, throughput and latencies of a finished batch
+     */
+    public static final class Summary {
+        /**
+         * the number of mazes with each status
+         */
+        private final Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        /**
+         * the latency of every maze in nanoseconds, sorted once the batch is finished
+         */
+        private long[] latencies = new long[16];
+        /**
+         * the number of mazes in the batch
+         */
+        private int noMazes;
+        /**
+         * the time the whole batch took in nanoseconds
+         */
+        private long elapsedNanos;
+
+        /**
+         * counts the record of a maze
+         */
+        void add(Result result) {
+            this.counts.merge(result.getStatus(), 1, Integer::sum);
+            if (this.noMazes == this.latencies.length) {
+                this.latencies = Arrays.copyOf(this.latencies, this.noMazes * 2);
+            }
+            this.latencies[this.noMazes++] = result.getLatencyNanos();
+        }
+
+        /**
+         * records the time the batch took and sorts the latencies
+         */
+        void finish(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = Arrays.copyOf(this.latencies, this.noMazes);
+            Arrays.sort(this.latencies);
+        }
+
+        /**
+         * returns the number of mazes in the batch
+         * @return the number of mazes
+         */
+        public int getNoMazes() {
+            return noMazes;
+        }
+
+        /**
+         * returns the number of mazes with the given status
+         * @param status the outcome to count
+         * @return the number of mazes with that outcome
+         */
+        public int getCount(Status status) {
+            return this.counts.getOrDefault(status, 0);
+        }
+
+        /**
+         * returns the number of mazes finished per second of the batch
+         * @return the throughput in mazes per second
+         */
+        public double getThroughput() {
+            return this.elapsedNanos == 0 ? 0 : this.noMazes * 1e9 / this.elapsedNanos;
+        }
+
+        /**
+         * returns the latency which the given fraction of the mazes did not exceed
+         * @param percentile the percentile between 0 and 100, e.g. 99
+         * @return the latency in nanoseconds, or 0 for an empty batch
+         */
+        public long getLatencyPercentile(double percentile) {
+            if (this.latencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * this.latencies.length);
+            return this.latencies[Math.max(0, Math.min(this.latencies.length, rank) - 1)];
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d mazes (%d solved, %d unsolvable, %d invalid, %d errors)"
+                            + " in %.3f s, %.1f mazes/sec%nlatency p50 %.3f ms, p95 %.3f ms, p99 %.3f ms",
+                    this.noMazes, this.getCount(Status.SOLVED), this.getCount(Status.UNSOLVABLE),
+                    this.getCount(Status.INVALID), this.getCount(Status.ERROR), this.elapsedNanos / 1e9,
+                    this.getThroughput(), this.getLatencyPercentile(50) / 1e6,
+                    this.getLatencyPercentile(95) / 1e6, this.getLatencyPercentile(99) / 1e6);
+        }
+    }
+}
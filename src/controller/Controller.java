@@ -2,16 +2,29 @@ package controller;
 
 import exceptions.MazeMalformedException;
 import exceptions.MazeSizeMissmatchException;
-import io.FileLoader;
+import io.FileInterface;
+import io.LoaderType;
+import io.SolutionCache;
+import model.AsyncSolver;
+import model.DistanceField;
 import model.GameEnv;
+import model.GameSession;
 import model.GameState;
-import model.Solver;
+import model.SearchResult;
+import model.SearchStrategy;
+import model.SearchType;
 import view.GuiViewer;
 import view.TextViewer;
 
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A controller class which can use and manipulate data from the model to facilitate the view
@@ -31,23 +44,51 @@ public class Controller {
      */
     private GuiViewer guiViewer;
     /**
-     * a representation of the current state of the game
+     * the game being played, which holds its current state and the marks left on the maze
      */
-    private GameState currentState;
+    private GameSession session;
+    /**
+     * the settings which change how the maze is played and solved
+     */
+    private GameOptions options;
+    /**
+     * the cache solutions are looked up in and stored to, or null if solutions are not cached
+     */
+    private SolutionCache solutionCache;
 
     /**
-     * Creates a new instance of the Controller class
+     * Creates a new instance of the Controller class using the default options
      * @param filename a String representing the filepath for the maze text file
      * @param isGui a boolean representing whether the
      *             program should be run in GUI or text-based mode
      */
     public Controller(String filename, boolean isGui) throws FileNotFoundException,
             MazeSizeMissmatchException, MazeMalformedException, IllegalArgumentException {
-        FileLoader fl = new FileLoader();
-        char[][] maze = new char[0][];
-        maze = fl.load(filename);
-        this.gameEnv = new GameEnv(maze);
-        this.currentState = this.gameEnv.getInitState();
+        this(filename, isGui, new GameOptions());
+    }
+
+    /**
+     * Creates a new instance of the Controller class
+     * @param filename a String representing the filepath for the maze text file
+     * @param isGui a boolean representing whether the
+     *             program should be run in GUI or text-based mode
+     * @param options the settings which change how the maze is played and solved
+     */
+    public Controller(String filename, boolean isGui, GameOptions options) throws FileNotFoundException,
+            MazeSizeMissmatchException, MazeMalformedException, IllegalArgumentException {
+        this.options = options;
+        if (options.getCacheDirectory() != null) {
+            this.solutionCache = new SolutionCache(options.getCacheDirectory());
+        }
+        FileInterface fl = LoaderType.forFile(filename, options.getLoaderType()).create();
+        this.gameEnv = fl.loadEnv(filename, options.isOffHeap());
+        this.session = new GameSession(this.gameEnv);
+        // reject mazes whose exit is walled off before opening any window or searching,
+        // unless the maze is too large for the connectivity index or kept off the heap
+        if (this.gameEnv.canCheckSolvable() && !this.gameEnv.isSolvable()) {
+            System.out.println("No solutions are possible: the exit cannot be reached from the start");
+            return;
+        }
         if (isGui) {
             this.guiViewer = new GuiViewer(this.gameEnv);
             this.playGameGuiAuto();
@@ -66,11 +107,11 @@ public class Controller {
     }
 
     /**
-     * renders the given state to the GUI display
-     * @param gameState the given state to be rendered to the GUI
+     * renders the given snapshot of the game to the GUI display
+     * @param snapshot the given snapshot to be rendered to the GUI
      */
-    public void renderGui(GameState gameState) {
-        this.guiViewer.render(gameState);
+    public void renderGui(GameSession.Snapshot snapshot) {
+        this.guiViewer.render(snapshot);
     }
 
     /**
@@ -78,14 +119,14 @@ public class Controller {
      * as text in the terminal by displaying the initial state
      * and prompting the user for actions, then
      * reprinting the new state of the game. WASD keys are used to move up,
-     * left, down, right respectively
+     * left, down, right respectively and h prints a hint
      */
     public void playGameTextManual() {
-        this.renderText(currentState);
+        this.renderText(this.session.getState());
         try (Scanner scanner = new Scanner(System.in)) {
             String actionName;
             char action;
-            while (!this.gameEnv.isSolved(this.currentState)) {
+            while (!this.session.isSolved()) {
                 System.out.print("choose your action: ");
                 actionName = scanner.nextLine();
                 switch (actionName) {
@@ -93,14 +134,17 @@ public class Controller {
                     case "a" -> action = GameEnv.LEFT;
                     case "s" -> action = GameEnv.DOWN;
                     case "d" -> action = GameEnv.RIGHT;
+                    case "h" -> {
+                        this.printHint(this.session.getState());
+                        continue;
+                    }
                     default -> {
-                        System.out.println("invalid input please choose from WASD");
+                        System.out.println("invalid input please choose from WASD or h for a hint");
                         continue;
                     }
                 }
-                if (gameEnv.isValid(this.currentState, action)) {
-                    this.currentState = gameEnv.performAction(this.currentState, action);
-                    this.renderText(currentState);
+                if (this.session.move(action)) {
+                    this.renderText(this.session.getState());
                 } else {
                     System.out.println("invalid action in this state");
                 }
@@ -113,44 +157,184 @@ public class Controller {
     }
 
     /**
-     * Finds a list of actions to solve the maze from the given state.
+     * Prints the best move to make from the given state and how far away the exit is.
+     * The answer is read from the distance field of the maze so no search is needed.
+     * @param state the state to give a hint for
+     */
+    public void printHint(GameState state) {
+        DistanceField field = this.gameEnv.getDistanceField();
+        int distance = field.distanceToExit(state);
+        if (distance == DistanceField.UNREACHABLE) {
+            System.out.println("hint: the exit cannot be reached from here");
+            return;
+        }
+        String key = switch (field.bestAction(state)) {
+            case GameEnv.UP -> "w";
+            case GameEnv.LEFT -> "a";
+            case GameEnv.DOWN -> "s";
+            case GameEnv.RIGHT -> "d";
+            default -> "nothing";
+        };
+        System.out.println("hint: press " + key + ", the exit is " + distance + " moves away");
+    }
+
+    /**
+     * Finds a list of actions to solve the maze from the given state
+     * using the search strategy chosen in the options.
      * If no solution is possible it will return an empty list []
      * @param initState the state to start in when finding the solution
      * @return a list of actions which if followed from the given state, will lead to the exit
      */
     public List<Character> findSolution(GameState initState) {
-        Solver solver = new Solver(this.gameEnv);
-        return solver.searchAStar(initState);
+        return this.findSolution(initState, this.options.getSearchType());
+    }
+
+    /**
+     * Finds a list of actions to solve the maze from the given state
+     * using the given search strategy. If a cache directory was chosen the
+     * solution is read from the cache when this maze has been solved before.
+     * If no solution is possible it will return an empty list [] without searching
+     * @param initState the state to start in when finding the solution
+     * @param searchType the search strategy used to find the solution
+     * @return a list of actions which if followed from the given state, will lead to the exit
+     */
+    public List<Character> findSolution(GameState initState, SearchType searchType) {
+        if (this.gameEnv.canCheckSolvable() && !this.gameEnv.getConnectivityIndex().isReachable(initState,
+                this.gameEnv.stateAt(this.gameEnv.getExitRow(), this.gameEnv.getExitCol()))) {
+            return new ArrayList<>();
+        }
+        byte[] cacheKey = this.cacheKey(initState, searchType);
+        List<Character> cached = this.cachedSolution(cacheKey, searchType);
+        if (cached != null) {
+            return cached;
+        }
+        SearchStrategy strategy = searchType.create(this.gameEnv);
+        SearchResult result = strategy.solve(initState);
+        List<Character> solution = result.getActions();
+        if (this.options.isPrintStats()) {
+            System.out.println(searchType + " expanded " + strategy.getNodesExpanded() + " nodes");
+            System.out.println(result.getStats().toJson());
+        }
+        if (cacheKey != null) {
+            this.solutionCache.put(cacheKey, solution);
+        }
+        return solution;
+    }
+
+    /**
+     * computes the key the solution of the maze from the given state is cached under,
+     * from the walls and endpoints of the maze
+     * @param initState the state the solution starts from
+     * @param searchType the search strategy which finds the solution
+     * @return the cache key, or null if solutions are not cached
+     */
+    private byte[] cacheKey(GameState initState, SearchType searchType) {
+        if (this.solutionCache == null) {
+            return null;
+        }
+        return SolutionCache.keyOf(this.gameEnv, initState, searchType);
+    }
+
+    /**
+     * looks up a solution in the cache
+     * @param cacheKey the key of the solution, or null if solutions are not cached
+     * @param searchType the search strategy which finds the solution
+     * @return the cached solution, or null if it is not in the cache
+     */
+    private List<Character> cachedSolution(byte[] cacheKey, SearchType searchType) {
+        if (cacheKey == null) {
+            return null;
+        }
+        List<Character> cached = this.solutionCache.get(cacheKey);
+        if (cached != null) {
+            System.out.println(searchType + " solution read from the cache");
+        }
+        return cached;
+    }
+
+    /**
+     * searches for a solution in the background within the time limit of the
+     * options, printing the progress as it goes. A* runs as an anytime search
+     * which keeps the best path found when the time runs out, the other
+     * strategies give up without a path.
+     * @param initState the state to start in when finding the solution
+     * @return the actions of the solution, or null if none was found in time
+     */
+    private List<Character> solveWithinTimeLimit(GameState initState) {
+        AsyncSolver solver = new AsyncSolver(this.gameEnv);
+        solver.setTimeLimit(this.options.getTimeLimit());
+        // searches which expand whole levels at once do not report at exact multiples of the interval
+        AtomicInteger reports = new AtomicInteger();
+        solver.setProgressListener((nodesExpanded, frontierSize, bestDistance) -> {
+            if (reports.incrementAndGet() % 64 == 0) {
+                System.out.println("searched " + nodesExpanded + " nodes, " + frontierSize + " waiting"
+                        + (bestDistance == Integer.MAX_VALUE ? ""
+                        : ", closest is " + bestDistance + " moves from the exit"));
+            }
+            return true;
+        });
+        CompletableFuture<List<Character>> future;
+        if (this.options.getSearchType() == SearchType.ASTAR) {
+            future = solver.solveAnytime(initState,
+                    path -> System.out.println("found a path of " + path.size() + " moves"));
+        } else {
+            future = solver.solve(initState, this.options.getSearchType());
+        }
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            System.out.println("no solution was found within " + this.options.getTimeLimit() + " ms");
+            return null;
+        }
     }
 
     /**
      * Starts running the game in GUI format with an autosolver.
-     * The solution will be printed to the terminal and the
-     * GUI display will walk through the steps required to get from the start to exit of the maze
+     * The GUI display will walk through the steps required to get from the start
+     * to exit of the maze as soon as the first steps are known, and the whole
+     * solution will be printed to the terminal at the end. If a time limit was
+     * chosen the search runs in the background and the best path found in time is walked
      */
     public void playGameGuiAuto() {
         System.out.println("finding solution...");
         int delay = 100;
-        List<Character> solution = this.findSolution(this.currentState);
-        boolean isSolvable = true;
-        if (solution.isEmpty()) {
+        GameState initState = this.session.getState();
+        byte[] cacheKey = this.cacheKey(initState, this.options.getSearchType());
+        List<Character> known = this.cachedSolution(cacheKey, this.options.getSearchType());
+        // measuring a search needs the whole search to run before the replay starts
+        boolean searchLazily = known == null && this.options.getTimeLimit() <= 0 && !this.options.isPrintStats();
+        if (known == null && this.options.getTimeLimit() > 0) {
+            known = this.solveWithinTimeLimit(initState);
+            if (known == null) {
+                return;
+            }
+        } else if (known == null && !searchLazily) {
+            known = this.findSolution(initState);
+        }
+        Iterator<Character> actions = searchLazily
+                ? this.options.getSearchType().create(this.gameEnv).searchLazily(initState) : known.iterator();
+        if (!actions.hasNext()) {
             System.out.println("No solutions are possible");
-            isSolvable = false;
-        } else {
-            System.out.println("solution: " + solution);
+            return;
         }
-        for (char action : solution) {
-            this.currentState = gameEnv.performAction(this.currentState, action);
-            this.renderGui(this.currentState);
+        List<Character> solution = new ArrayList<>();
+        while (actions.hasNext()) {
+            char action = actions.next();
+            solution.add(action);
+            this.session.move(action);
+            this.renderGui(this.session.snapshot());
             try {
                 Thread.sleep(delay);
             } catch (Exception e) {
                 System.out.println("sleep failed");
             }
         }
-        if (isSolvable) {
-            System.out.println("You won! Sir Wobbleton has escaped the maze!!");
+        // paths found under a time limit may not be the best the strategy can find, so only full searches are cached
+        if (searchLazily && cacheKey != null) {
+            this.solutionCache.put(cacheKey, solution);
         }
+        System.out.println("solution: " + solution);
+        System.out.println("You won! Sir Wobbleton has escaped the maze!!");
     }
 
     /**
@@ -160,12 +344,11 @@ public class Controller {
      */
     public void playGameGuiManual() {
         char action = this.guiViewer.getMainPanel().getStoredAction();
-        while (!this.gameEnv.isSolved(this.currentState)) {
+        while (!this.session.isSolved()) {
             if (this.guiViewer.getMainPanel().getIsActionPending()) {
-                if (gameEnv.isValid(this.currentState, action)) {
-                    this.currentState = gameEnv.performAction(this.currentState, action);
+                if (this.session.move(action)) {
                     this.guiViewer.getMainPanel().setActionPending(false);
-                    this.renderGui(currentState);
+                    this.renderGui(this.session.snapshot());
                 } else {
                     System.out.println("invalid action in this state");
                 }
@@ -0,0 +1,133 @@
+package controller;
+
+import io.LoaderType;
+import model.SearchType;
+
+import java.nio.file.Path;
+
+/**
+ * a class holding the settings chosen on the command line which
+ * change how the controller plays and solves a maze
+ */
+public class GameOptions {
+    /**
+     * the search strategy used to find solutions
+     */
+    private SearchType searchType = SearchType.ASTAR;
+    /**
+     * the directory solutions are cached in, or null if solutions are not cached
+     */
+    private Path cacheDirectory;
+    /**
+     * the time the autosolver may search for in milliseconds, 0 for no limit
+     */
+    private long timeLimit;
+    /**
+     * whether the statistics of every search are printed as a line of JSON
+     */
+    private boolean printStats;
+    /**
+     * whether the walls of the maze are stored outside the Java heap
+     */
+    private boolean offHeap;
+    /**
+     * the way the maze file is loaded
+     */
+    private LoaderType loaderType = LoaderType.TEXT;
+
+    /**
+     * returns the search strategy used to find solutions
+     * @return the search type
+     */
+    public SearchType getSearchType() {
+        return searchType;
+    }
+
+    /**
+     * sets the search strategy used to find solutions
+     * @param searchType the new search type
+     */
+    public void setSearchType(SearchType searchType) {
+        this.searchType = searchType;
+    }
+
+    /**
+     * returns the directory solutions are cached in
+     * @return the cache directory, or null if solutions are not cached
+     */
+    public Path getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    /**
+     * sets the directory solutions are cached in
+     * @param cacheDirectory the cache directory, or null to stop caching solutions
+     */
+    public void setCacheDirectory(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * returns the time the autosolver may search for
+     * @return the time limit in milliseconds, 0 for no limit
+     */
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * sets the time the autosolver may search for
+     * @param timeLimit the time limit in milliseconds, 0 for no limit
+     */
+    public void setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * returns whether the statistics of every search are printed as a line of JSON
+     * @return true if statistics are printed
+     */
+    public boolean isPrintStats() {
+        return printStats;
+    }
+
+    /**
+     * sets whether the statistics of every search are printed as a line of JSON
+     * @param printStats true to print statistics
+     */
+    public void setPrintStats(boolean printStats) {
+        this.printStats = printStats;
+    }
+
+    /**
+     * returns whether the walls of the maze are stored outside the Java heap
+     * @return true if the walls are stored off the heap
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * sets whether the walls of the maze are stored outside the Java heap
+     * @param offHeap true to store the walls off the heap
+     */
+    public void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * returns the way the maze file is loaded
+     * @return the loader type
+     */
+    public LoaderType getLoaderType() {
+        return loaderType;
+    }
+
+    /**
+     * sets the way the maze file is loaded
+     * @param loaderType the new loader type
+     */
+    public void setLoaderType(LoaderType loaderType) {
+        this.loaderType = loaderType;
+    }
+}
@@ -0,0 +1,247 @@
+package io;
+
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+import model.ConnectivityIndex;
+import model.DistanceField;
+import model.GameEnv;
+import model.GameState;
+import model.JunctionGraph;
+import model.PrecomputedData;
+import model.WallStorage;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiFunction;
+
+/**
+ * a class which loads mazes stored in the binary .mzb format written by
+ * MazeConverter. Loading needs no parsing at all: the header is read and the
+ * walls are mapped, so a maze loads about as fast as its pages can be read.
+ * <p>
+ * All numbers are big-endian. The file starts with a header of 32 bytes:
+ * the magic number "MZB" followed by the format version in one byte, the
+ * number of rows and columns, the row and column of the start, the row and
+ * column of the exit, and the number of sections. Then comes a table with an
+ * entry of 24 bytes for every section: its type, 4 unused bytes, and the
+ * offset and length of the section in the file.
+ * </p>
+ * <p>
+ * The walls section is required and holds one bit per cell, row after row,
+ * in longs whose lowest bit is the first cell. The optional sections hold
+ * the connectivity index, the distance field towards the exit and the
+ * junction graph, as written by their write methods. They are mapped when
+ * the maze is loaded, but only read once the game first needs them, and
+ * sections of types this version does not know are skipped.
+ * </p>
+ */
+public class BinaryFileLoader implements FileInterface {
+    /**
+     * the file extension of binary maze files
+     */
+    public static final String EXTENSION = ".mzb";
+    /**
+     * the first bytes of every file, "MZB" followed by the format version
+     */
+    static final int MAGIC = 0x4d5a4201;
+    /**
+     * the number of bytes in the header
+     */
+    static final int HEADER_BYTES = 32;
+    /**
+     * the number of bytes in an entry of the section table
+     */
+    static final int SECTION_ENTRY_BYTES = 24;
+    /**
+     * the type of the section holding the walls
+     */
+    static final int WALLS = 1;
+    /**
+     * the type of the section holding the connectivity index
+     */
+    static final int COMPONENTS = 2;
+    /**
+     * the type of the section holding the distance field towards the exit
+     */
+    static final int DISTANCES = 3;
+    /**
+     * the type of the section holding the junction graph
+     */
+    static final int JUNCTIONS = 4;
+
+    /**
+     * Loads a maze from the specified binary file and converts it into a 2D character array.
+     * Paths are all shown as empty space, as only the walls are stored.
+     * @param filename The path to the maze file to be loaded.
+     * @return A 2D character array representing the loaded maze.
+     * @throws MazeMalformedException      If the file is not a binary maze file of a known version.
+     * @throws MazeSizeMissmatchException  If the sections do not match the dimensions of the maze.
+     * @throws IllegalArgumentException     For other validation errors.
+     * @throws FileNotFoundException        If the maze file is not found.
+     */
+    public char[][] load(String filename) throws MazeMalformedException,
+            MazeSizeMissmatchException, IllegalArgumentException, FileNotFoundException {
+        return this.loadEnv(filename, false).getMazeRepr();
+    }
+
+    /**
+     * Loads a maze from the specified binary file into the environment of a game.
+     * Off the heap the walls stay mapped from the file, on the heap they are copied
+     * into a bitmap. The precomputed sections are handed to the environment to be
+     * read when it first needs them.
+     * @param filename The path to the maze file to be loaded.
+     * @param offHeap  true to keep the walls outside the Java heap.
+     * @return The environment of the loaded maze.
+     * @throws MazeMalformedException      If the file is not a binary maze file of a known version.
+     * @throws MazeSizeMissmatchException  If the sections do not match the dimensions of the maze.
+     * @throws IllegalArgumentException     If the start or exit is not an open cell, or for other validation errors.
+     * @throws FileNotFoundException        If the maze file is not found.
+     */
+    @Override
+    public GameEnv loadEnv(String filename, boolean offHeap) throws MazeMalformedException,
+            MazeSizeMissmatchException, IllegalArgumentException, FileNotFoundException {
+        if (filename == null) {
+            System.out.println("//!// IllegalArgumentException: null filename not allowed");
+            throw new IllegalArgumentException("null filename not allowed");
+        }
+        // check if file exists
+        if (!new File(filename).exists()) {
+            System.out.println("//!// FileNotFoundException: file does not exist");
+            throw new FileNotFoundException();
+        }
+
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new MazeMalformedException("not a binary maze file");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            int magic = header.getInt();
+            if ((magic & ~0xFF) != (MAGIC & ~0xFF)) {
+                throw new MazeMalformedException("not a binary maze file");
+            }
+            if ((magic & 0xFF) > (MAGIC & 0xFF)) {
+                throw new MazeMalformedException("unsupported binary maze version " + (magic & 0xFF));
+            }
+            int rows = header.getInt();
+            int cols = header.getInt();
+            GameState initState = new GameState(header.getInt(), header.getInt());
+            GameState exitState = new GameState(header.getInt(), header.getInt());
+            int noSections = header.getInt();
+            // check for positive odd number of rows and columns
+            if (rows % 2 == 0 || cols % 2 == 0 || rows < 0 || cols < 0) {
+                throw new MazeMalformedException("rows/column numbers are invalid");
+            }
+            if (noSections < 0 || HEADER_BYTES + (long) noSections * SECTION_ENTRY_BYTES > size) {
+                throw new MazeMalformedException("the section table is invalid");
+            }
+            ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES,
+                    (long) noSections * SECTION_ENTRY_BYTES);
+            long[] offsets = new long[JUNCTIONS + 1];
+            long[] lengths = new long[JUNCTIONS + 1];
+            for (int i = 0; i < noSections; i++) {
+                int type = table.getInt();
+                table.getInt();
+                long offset = table.getLong();
+                long length = table.getLong();
+                if (offset < 0 || length < 0 || offset + length > size) {
+                    throw new MazeSizeMissmatchException("section " + type + " lies outside the file");
+                }
+                if (0 < type && type <= JUNCTIONS) {
+                    offsets[type] = offset;
+                    lengths[type] = length;
+                }
+            }
+            long cells = (long) rows * cols;
+            if (lengths[WALLS] != ((cells + 63) >>> 6) * Long.BYTES) {
+                throw new MazeSizeMissmatchException(
+                        "the maze dimensions do not match the provided size.");
+            }
+            WallStorage walls = WallStorage.map(channel, offsets[WALLS], rows, cols, offHeap);
+            GameEnv gameEnv = new GameEnv(walls, initState, exitState);
+            if (gameEnv.hasMoveTable()) {
+                gameEnv.setPrecomputedData(new Sections(
+                        this.mapSection(channel, offsets[COMPONENTS], lengths[COMPONENTS]),
+                        this.mapSection(channel, offsets[DISTANCES], lengths[DISTANCES]),
+                        this.mapSection(channel, offsets[JUNCTIONS], lengths[JUNCTIONS])));
+            }
+            return gameEnv;
+        } catch (IOException e) {
+            System.out.println("//!// FileNotFoundException");
+            throw new FileNotFoundException();
+        }
+    }
+
+    /**
+     * maps an optional section, which stays readable after the channel is closed
+     * @return the mapped section, or null if the file has no such section or it is too large to map
+     */
+    private ByteBuffer mapSection(FileChannel channel, long offset, long length) throws IOException {
+        if (length == 0 || length > Integer.MAX_VALUE) {
+            return null;
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+
+    /**
+     * the optional sections of a file, read the first time the game needs them
+     */
+    private static final class Sections implements PrecomputedData {
+        /**
+         * the mapped connectivity index, or null
+         */
+        private final ByteBuffer components;
+        /**
+         * the mapped distance field, or null
+         */
+        private final ByteBuffer distances;
+        /**
+         * the mapped junction graph, or null
+         */
+        private final ByteBuffer junctions;
+
+        /**
+         * constructs the sections of a file from their mappings
+         */
+        Sections(ByteBuffer components, ByteBuffer distances, ByteBuffer junctions) {
+            this.components = components;
+            this.distances = distances;
+            this.junctions = junctions;
+        }
+
+        @Override
+        public ConnectivityIndex connectivityIndex(GameEnv gameEnv) {
+            return read(gameEnv, this.components, ConnectivityIndex::read);
+        }
+
+        @Override
+        public DistanceField distanceField(GameEnv gameEnv) {
+            return read(gameEnv, this.distances, DistanceField::read);
+        }
+
+        @Override
+        public JunctionGraph junctionGraph(GameEnv gameEnv) {
+            return read(gameEnv, this.junctions, JunctionGraph::read);
+        }
+
+        /**
+         * reads a section, or returns null so the data is built from the walls
+         * if the file has no such section or it does not match the maze
+         */
+        private static <T> T read(GameEnv gameEnv, ByteBuffer section, BiFunction<GameEnv, ByteBuffer, T> reader) {
+            if (section == null) {
+                return null;
+            }
+            try {
+                return reader.apply(gameEnv, section.duplicate());
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io;
 
 import exceptions.MazeMalformedException;
 import exceptions.MazeSizeMissmatchException;
+import model.GameEnv;
 
 import java.io.FileNotFoundException;
 
@@ -44,4 +45,26 @@ public interface FileInterface {
      */
     public char[][] load(String filename) throws MazeMalformedException, MazeSizeMissmatchException, IllegalArgumentException, FileNotFoundException;
 
+    /**
+     * Loads a maze from the specified filename into the environment of a game.
+     * <p>
+     * By default the maze is loaded with {@link #load(String)} and handed to
+     * {@link GameEnv#load(char[][], boolean)}. Implementations which find the
+     * walls, the start and the exit while reading the file can override this
+     * so the maze is not scanned again.
+     * </p>
+     *
+     * @param filename The path to the maze file to be loaded.
+     * @param offHeap  true to store the walls outside the Java heap.
+     * @return The environment of the loaded maze.
+     * @throws MazeMalformedException      If the maze data is not correctly formatted.
+     * @throws MazeSizeMissmatchException  If the maze dimensions do not match the provided size.
+     * @throws IllegalArgumentException     For other validation errors.
+     * @throws FileNotFoundException        If the maze file is not found.
+     */
+    public default GameEnv loadEnv(String filename, boolean offHeap) throws MazeMalformedException,
+            MazeSizeMissmatchException, IllegalArgumentException, FileNotFoundException {
+        return GameEnv.load(this.load(filename), offHeap);
+    }
+
 }
@@ -8,13 +8,32 @@ import java.io.*;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
 
 /**
  * a class carrying functionality to process maze text files and
  * turn them into 2d char arrays for data manipulation.
  * It implements the specifications in FileInterface.
+ * <p>
+ * Files compressed with gzip or zlib are recognised by their first bytes,
+ * whatever their name, and inflated as they are parsed: the inflated bytes
+ * go through a reusable buffer straight into the maze, so nothing is
+ * written to disk and no line is turned into a string.
+ * </p>
  */
 public class FileLoader implements FileInterface {
+    /**
+     * the size of the buffer compressed mazes are inflated into, in bytes
+     */
+    private static final int BUFFER_BYTES = 1 << 18;
+    /**
+     * the buffer every thread inflates compressed mazes into, kept between loads
+     */
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_BYTES]);
+
     /**
      * a list containing all legal characters which can appear in the maze text files
      */
@@ -48,6 +67,14 @@ public class FileLoader implements FileInterface {
             System.out.println("//!// FileNotFoundException: file does not exist");
             throw new FileNotFoundException();
         }
+        try {
+            if (isCompressed(filename)) {
+                return loadCompressed(filename);
+            }
+        } catch (IOException e) {
+            System.out.println("//!// FileNotFoundException");
+            throw new FileNotFoundException();
+        }
 
         char[][] mazeOutput = null;
         String line;
@@ -97,4 +124,61 @@ public class FileLoader implements FileInterface {
         }
         return mazeOutput;
     }
+
+    /**
+     * checks whether a file is compressed with gzip or zlib by its first two bytes.
+     * A zlib header is only accepted without a preset dictionary, which no
+     * maze text file can start with either.
+     * @param filename the path to the file
+     * @return true if the file is compressed
+     * @throws IOException if the file cannot be read
+     */
+    static boolean isCompressed(String filename) throws IOException {
+        byte[] magic;
+        try (InputStream in = new FileInputStream(filename)) {
+            magic = in.readNBytes(2);
+        }
+        if (magic.length < 2) {
+            return false;
+        }
+        int first = magic[0] & 0xFF;
+        int second = magic[1] & 0xFF;
+        boolean gzip = first == 0x1f && second == 0x8b;
+        boolean zlib = (first & 0x0F) == 8 && (first >>> 4) <= 7 && (second & 0x20) == 0
+                && ((first << 8) | second) % 31 == 0;
+        return gzip || zlib;
+    }
+
+    /**
+     * loads a maze from a file compressed with gzip or zlib, parsing it as it is inflated
+     * @param filename the path to the compressed maze file
+     * @return A 2D character array representing the loaded maze.
+     * @throws MazeMalformedException      If the maze data is not correctly formatted or the file is corrupt.
+     * @throws MazeSizeMissmatchException  If the maze dimensions do not match the provided size.
+     * @throws IllegalArgumentException     For other validation errors.
+     * @throws IOException                  If the file cannot be read.
+     */
+    static char[][] loadCompressed(String filename) throws MazeMalformedException,
+            MazeSizeMissmatchException, IllegalArgumentException, IOException {
+        byte[] buffer = BUFFERS.get();
+        MazeByteParser parser = new MazeByteParser();
+        try (InputStream file = new FileInputStream(filename);
+             PushbackInputStream peek = new PushbackInputStream(file, 1)) {
+            int first = peek.read();
+            peek.unread(first);
+            Inflater inflater = new Inflater();
+            try (InputStream in = first == 0x1f ? new GZIPInputStream(peek, BUFFER_BYTES)
+                    : new InflaterInputStream(peek, inflater, BUFFER_BYTES)) {
+                int count;
+                while ((count = in.read(buffer)) > 0) {
+                    parser.feed(buffer, 0, count);
+                }
+            } finally {
+                inflater.end();
+            }
+        } catch (ZipException | EOFException e) {
+            throw new MazeMalformedException("the compressed maze is corrupt");
+        }
+        return parser.finish();
+    }
 }
@@ -0,0 +1,62 @@
+package io;
+
+/**
+ * the ways a maze file can be loaded, which all accept the same files
+ */
+public enum LoaderType {
+    /**
+     * reads the file line by line, the default
+     */
+    TEXT,
+    /**
+     * maps the file into memory and parses its bytes in place, for large mazes
+     */
+    MAPPED,
+    /**
+     * maps the file and parses ranges of rows on all cores, finding the walls, start and exit in the same pass
+     */
+    PARALLEL,
+    /**
+     * reads the binary .mzb format written by MazeConverter
+     */
+    BINARY;
+
+    /**
+     * creates a new loader of this type
+     * @return a loader which reads maze files
+     */
+    public FileInterface create() {
+        return switch (this) {
+            case TEXT -> new FileLoader();
+            case MAPPED -> new MappedFileLoader();
+            case PARALLEL -> new ParallelFileLoader();
+            case BINARY -> new BinaryFileLoader();
+        };
+    }
+
+    /**
+     * returns the loader type to read the given file with, which is BINARY for
+     * every .mzb file whichever type was chosen
+     * @param filename the path to the maze file
+     * @param chosen the loader type chosen for text files
+     * @return the loader type for the file
+     */
+    public static LoaderType forFile(String filename, LoaderType chosen) {
+        return filename != null && filename.endsWith(BinaryFileLoader.EXTENSION) ? BINARY : chosen;
+    }
+
+    /**
+     * returns the loader type with the given name, ignoring case
+     * @param name the name of the loader type e.g. "text" or "mapped"
+     * @return the matching loader type
+     * @throws IllegalArgumentException if there is no loader type with the given name
+     */
+    public static LoaderType fromName(String name) throws IllegalArgumentException {
+        for (LoaderType type : values()) {
+            if (type.name().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("unknown loader: " + name);
+    }
+}
@@ -0,0 +1,78 @@
+package io;
+
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * a class which loads maze text files by mapping them into memory and
+ * parsing the bytes where they lie, instead of reading them line by line
+ * into strings as FileLoader does. No object is created per line, each byte
+ * is checked with one lookup in a table of the legal characters and written
+ * straight into the maze, so loading a maze of several gigabytes costs little
+ * more than reading its pages from the disk.
+ * <p>
+ * Files larger than 1 GiB are mapped one window at a time. The loader
+ * accepts the same files and throws the same exceptions as FileLoader,
+ * including files compressed with gzip or zlib, which are inflated as they
+ * are parsed instead of being mapped.
+ * </p>
+ */
+public class MappedFileLoader implements FileInterface {
+    /**
+     * the largest part of a file which is mapped at once, in bytes
+     */
+    private static final long WINDOW = 1L << 30;
+
+    /**
+     * Loads a maze from the specified filename and converts it into a 2D character array.
+     * The file has the same format as for FileLoader: a first line with the
+     * dimensions of the maze, separated by a space (e.g., "10 15"), followed by
+     * the rows of the maze.
+     * @param filename The path to the maze file to be loaded.
+     * @return A 2D character array representing the loaded maze.
+     * @throws MazeMalformedException      If the maze data is not correctly formatted.
+     * @throws MazeSizeMissmatchException  If the maze dimensions do not match the provided size.
+     * @throws IllegalArgumentException     For other validation errors.
+     * @throws FileNotFoundException        If the maze file is not found.
+     */
+    public char[][] load(String filename) throws MazeMalformedException,
+            MazeSizeMissmatchException, IllegalArgumentException, FileNotFoundException {
+        if (filename == null) {
+            System.out.println("//!// IllegalArgumentException: null filename not allowed");
+            throw new IllegalArgumentException("null filename not allowed");
+        }
+        // check if file exists
+        if (!new File(filename).exists()) {
+            System.out.println("//!// FileNotFoundException: file does not exist");
+            throw new FileNotFoundException();
+        }
+
+        try {
+            // a compressed file cannot be parsed where it lies, it is inflated as it is parsed instead
+            if (FileLoader.isCompressed(filename)) {
+                return FileLoader.loadCompressed(filename);
+            }
+        } catch (IOException e) {
+            System.out.println("//!// FileNotFoundException");
+            throw new FileNotFoundException();
+        }
+        MazeByteParser parser = new MazeByteParser();
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long pos = 0; pos < size; pos += WINDOW) {
+                parser.feed(channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(WINDOW, size - pos)));
+            }
+        } catch (IOException e) {
+            System.out.println("//!// FileNotFoundException");
+            throw new FileNotFoundException();
+        }
+        return parser.finish();
+    }
+}
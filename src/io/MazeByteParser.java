@@ -0,0 +1,304 @@
+package io;
+
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * a parser which turns the bytes of a maze text file into a 2d char array
+ * without decoding them into lines or strings first. The bytes can be fed in
+ * pieces of any size, e.g. windows of a mapped file or the buffer of a
+ * stream, and are written straight into the rows of the maze.
+ * <p>
+ * The parser accepts and rejects exactly the files FileLoader does and
+ * throws the same exceptions: lines end at "\n", "\r" or "\r\n", a line of
+ * the wrong length is reported before an illegal character on it, and the
+ * length of a line is counted in characters of the default charset, which
+ * FileReader decodes the file with, rather than in bytes. The messages of
+ * the exceptions also give the row and column of the error, counted from 1.
+ * </p>
+ */
+final class MazeByteParser {
+    /**
+     * the char of every legal byte, 0 for bytes which may not appear in a maze
+     */
+    private static final char[] LEGAL = new char[256];
+    /**
+     * whether the default charset is UTF-8, in which continuation bytes are not characters of their own
+     */
+    private static final boolean UTF_8 = Charset.defaultCharset().equals(StandardCharsets.UTF_8);
+
+    static {
+        for (char c : new char[]{'#', ' ', '.', 'S', 'E'}) {
+            LEGAL[c] = c;
+        }
+    }
+
+    /**
+     * returns the char of the given byte if it is a legal character of a maze
+     * @param b a byte of a maze file
+     * @return the legal character, or 0 if the byte may not appear in a maze
+     */
+    static char legal(byte b) {
+        return LEGAL[b & 0xFF];
+    }
+
+    /**
+     * the bytes of the header line read so far, null once the header is parsed
+     */
+    private byte[] header = new byte[16];
+    /**
+     * the number of bytes in the header buffer
+     */
+    private int headerLength;
+    /**
+     * the maze being filled, null until the header is parsed
+     */
+    private char[][] maze;
+    /**
+     * the number of rows given by the header
+     */
+    private int rows;
+    /**
+     * the number of columns given by the header
+     */
+    private int cols;
+    /**
+     * the number of the line being read, 1 for the first row of the maze
+     */
+    private int line = 1;
+    /**
+     * the number of characters read on the current line
+     */
+    private int length;
+    /**
+     * whether any byte of the current line has been read, so a last line
+     * without a line break is not lost
+     */
+    private boolean inLine;
+    /**
+     * the column of the first illegal character on the current line, counted from 1, or 0 if there is none
+     */
+    private int illegalColumn;
+    /**
+     * whether the last byte was a carriage return, so a following line feed ends no line
+     */
+    private boolean afterReturn;
+
+    /**
+     * parses the remaining bytes of the given buffer, leaving its position unchanged
+     * @param buffer the next bytes of the file
+     * @throws MazeMalformedException if the header gives invalid dimensions
+     * @throws MazeSizeMissmatchException if a line does not match the dimensions
+     * @throws IllegalArgumentException if the header is not two numbers or a character is illegal
+     */
+    void feed(ByteBuffer buffer) throws MazeMalformedException, MazeSizeMissmatchException,
+            IllegalArgumentException {
+        int pos = buffer.position();
+        int end = buffer.limit();
+        while (pos < end && this.maze == null) {
+            pos = this.feedHeader(buffer, pos, end);
+        }
+        while (pos < end) {
+            if (!this.inLine && this.line <= this.rows && end - pos > this.cols) {
+                int next = this.readRow(buffer, pos);
+                if (next >= 0) {
+                    pos = next;
+                    continue;
+                }
+            }
+            pos = this.feedByte(buffer.get(pos), pos + 1);
+        }
+    }
+
+    /**
+     * parses the given part of a byte array
+     * @param bytes an array holding the next bytes of the file
+     * @param offset the index of the first byte to parse
+     * @param count the number of bytes to parse
+     * @throws MazeMalformedException if the header gives invalid dimensions
+     * @throws MazeSizeMissmatchException if a line does not match the dimensions
+     * @throws IllegalArgumentException if the header is not two numbers or a character is illegal
+     */
+    void feed(byte[] bytes, int offset, int count) throws MazeMalformedException,
+            MazeSizeMissmatchException, IllegalArgumentException {
+        this.feed(ByteBuffer.wrap(bytes, offset, count));
+    }
+
+    /**
+     * ends the input and returns the maze
+     * @return the maze read, or null if the file was empty
+     * @throws MazeMalformedException if the header gives invalid dimensions
+     * @throws MazeSizeMissmatchException if the last line does not match the dimensions
+     * @throws IllegalArgumentException if the header is not two numbers or a character is illegal
+     */
+    char[][] finish() throws MazeMalformedException, MazeSizeMissmatchException, IllegalArgumentException {
+        if (this.maze == null) {
+            if (this.headerLength > 0) {
+                this.parseHeader();
+            }
+        } else if (this.inLine) {
+            this.endLine();
+        }
+        return this.maze;
+    }
+
+    /**
+     * returns the number of rows given by the header
+     * @return the number of rows, 0 before the header is parsed
+     */
+    int getRows() {
+        return rows;
+    }
+
+    /**
+     * returns the number of columns given by the header
+     * @return the number of columns, 0 before the header is parsed
+     */
+    int getCols() {
+        return cols;
+    }
+
+    /**
+     * reads a whole row of the maze followed by a line break, the common case.
+     * If the row holds any other byte only the row itself has been written,
+     * and it is read again byte by byte to report the right error.
+     * @return the position after the row, or -1 if it was not a plain row
+     */
+    private int readRow(ByteBuffer buffer, int pos) {
+        char[] row = this.maze[this.line - 1];
+        int bad = 0;
+        for (int j = 0; j < this.cols; j++) {
+            char c = LEGAL[buffer.get(pos + j) & 0xFF];
+            row[j] = c;
+            bad |= c == 0 ? 1 : 0;
+        }
+        byte last = buffer.get(pos + this.cols);
+        if (bad != 0 || (last != '\n' && last != '\r')) {
+            return -1;
+        }
+        this.line++;
+        this.afterReturn = last == '\r';
+        return pos + this.cols + 1;
+    }
+
+    /**
+     * reads one byte of a row, keeping track of line breaks and errors
+     * @return the position of the next byte
+     */
+    private int feedByte(byte b, int next) throws MazeSizeMissmatchException, IllegalArgumentException {
+        if (b == '\n' && this.afterReturn) {
+            this.afterReturn = false;
+            return next;
+        }
+        this.afterReturn = b == '\r';
+        if (b == '\n' || b == '\r') {
+            this.endLine();
+            return next;
+        }
+        this.inLine = true;
+        if (UTF_8 && (b & 0xC0) == 0x80) {
+            // a continuation byte of a UTF-8 character, which FileLoader would have decoded with the one before
+            this.markIllegal();
+            return next;
+        }
+        char c = LEGAL[b & 0xFF];
+        if (c == 0) {
+            this.markIllegal();
+        } else if (this.line <= this.rows && this.length < this.cols) {
+            this.maze[this.line - 1][this.length] = c;
+        }
+        this.length++;
+        return next;
+    }
+
+    /**
+     * remembers the column of the first illegal character on the current line
+     */
+    private void markIllegal() {
+        if (this.illegalColumn == 0) {
+            this.illegalColumn = this.length + 1;
+        }
+    }
+
+    /**
+     * checks a line once its line break has been read
+     */
+    private void endLine() throws MazeSizeMissmatchException, IllegalArgumentException {
+        // check that the dimensions provided match the dimensions of the maze data
+        if (this.line > this.rows || this.length != this.cols) {
+            throw new MazeSizeMissmatchException("the maze dimensions do not match the provided size at row "
+                    + this.line + ", column " + (Math.min(this.length, this.cols) + 1) + ".");
+        }
+        if (this.illegalColumn != 0) {
+            System.out.println("//!// IllegalArgumentException invalid characters");
+            throw new IllegalArgumentException("illegal character at row " + this.line + ", column "
+                    + this.illegalColumn);
+        }
+        this.line++;
+        this.length = 0;
+        this.inLine = false;
+    }
+
+    /**
+     * collects the bytes of the header line and parses it once it ends
+     * @return the position of the next byte
+     */
+    private int feedHeader(ByteBuffer buffer, int pos, int end) throws MazeMalformedException,
+            IllegalArgumentException {
+        while (pos < end) {
+            byte b = buffer.get(pos++);
+            if (b == '\n' || b == '\r') {
+                this.afterReturn = b == '\r';
+                this.parseHeader();
+                return pos;
+            }
+            if (this.headerLength == this.header.length) {
+                this.header = Arrays.copyOf(this.header, this.headerLength * 2);
+            }
+            this.header[this.headerLength++] = b;
+        }
+        return pos;
+    }
+
+    /**
+     * parses the dimensions in the header line and allocates the maze
+     */
+    private void parseHeader() throws MazeMalformedException, IllegalArgumentException {
+        int[] dims = parseHeader(this.header, this.headerLength);
+        this.header = null;
+        this.rows = dims[0];
+        this.cols = dims[1];
+        this.maze = new char[this.rows][this.cols];
+    }
+
+    /**
+     * parses the dimensions in a header line the way FileLoader does
+     * @param bytes the bytes of the header line, without its line break
+     * @param length the number of bytes in the header line
+     * @return the number of rows and the number of columns
+     * @throws MazeMalformedException if the dimensions are not positive odd numbers
+     * @throws IllegalArgumentException if the header is not two numbers
+     */
+    static int[] parseHeader(byte[] bytes, int length) throws MazeMalformedException, IllegalArgumentException {
+        String[] dims = new String(bytes, 0, length).split(" ");
+        int rows;
+        int cols;
+        try {
+            rows = Integer.parseInt(dims[0]);
+            cols = Integer.parseInt(dims.length > 1 ? dims[1] : "");
+        } catch (NumberFormatException e) {
+            System.out.println("//!// IllegalArgumentException: numbers in first row invalid");
+            throw new IllegalArgumentException("illegal characters");
+        }
+        // check for positive odd number of rows and columns
+        if (rows % 2 == 0 || cols % 2 == 0 || rows < 0 || cols < 0) {
+            throw new MazeMalformedException("rows/column numbers are invalid");
+        }
+        return new int[] {rows, cols};
+    }
+}
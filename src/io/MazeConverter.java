@@ -0,0 +1,172 @@
+package io;
+
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+import model.GameEnv;
+import model.WallStorage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * a class which converts mazes between the text format read by FileLoader
+ * and the binary .mzb format read by BinaryFileLoader. Only the walls, the
+ * start and the exit are kept, so every path tile of a text maze comes back
+ * as empty space. The connectivity index, distance field and junction graph
+ * can be stored as well, so loading the maze does not have to build them.
+ */
+public final class MazeConverter {
+    /**
+     * the alignment of every section in a binary file, in bytes
+     */
+    private static final int ALIGNMENT = 8;
+
+    /**
+     * the converter only has static methods
+     */
+    private MazeConverter() {
+    }
+
+    /**
+     * converts a maze into the other format, chosen by the extension of the
+     * source: a .mzb file becomes text, any other file becomes binary
+     * @param source the path to the maze file to convert
+     * @param target the path to write the converted maze to
+     * @param withIndexes true to store the precomputed data in a binary file
+     * @throws MazeMalformedException      If the maze data is not correctly formatted.
+     * @throws MazeSizeMissmatchException  If the maze dimensions do not match the provided size.
+     * @throws IllegalArgumentException     If the maze has no start or no exit, or for other validation errors.
+     * @throws FileNotFoundException        If the maze file is not found.
+     * @throws IOException                  If the converted maze cannot be written.
+     */
+    public static void convert(String source, String target, boolean withIndexes) throws MazeMalformedException,
+            MazeSizeMissmatchException, IllegalArgumentException, IOException {
+        if (source != null && source.endsWith(BinaryFileLoader.EXTENSION)) {
+            toText(source, target);
+        } else {
+            toBinary(source, target, withIndexes);
+        }
+    }
+
+    /**
+     * converts a maze text file into a binary maze file
+     * @param textFile the path to the maze text file
+     * @param binaryFile the path to write the binary maze to
+     * @param withIndexes true to also store the connectivity index, distance field and junction graph
+     * @throws MazeMalformedException      If the maze data is not correctly formatted.
+     * @throws MazeSizeMissmatchException  If the maze dimensions do not match the provided size.
+     * @throws IllegalArgumentException     If the maze has no start or no exit, or for other validation errors.
+     * @throws FileNotFoundException        If the maze file is not found.
+     * @throws IOException                  If the binary maze cannot be written.
+     */
+    public static void toBinary(String textFile, String binaryFile, boolean withIndexes) throws MazeMalformedException,
+            MazeSizeMissmatchException, IllegalArgumentException, IOException {
+        GameEnv gameEnv = new ParallelFileLoader().loadEnv(textFile, false);
+        if (gameEnv.getTile(gameEnv.getInitState().getRow(), gameEnv.getInitState().getCol()) != GameEnv.START_POINT
+                || gameEnv.getTile(gameEnv.getExitRow(), gameEnv.getExitCol()) != GameEnv.END_POINT) {
+            throw new IllegalArgumentException("the maze has no start or no exit");
+        }
+        writeBinary(gameEnv, Path.of(binaryFile), withIndexes && gameEnv.hasMoveTable());
+    }
+
+    /**
+     * converts a binary maze file into a maze text file
+     * @param binaryFile the path to the binary maze file
+     * @param textFile the path to write the maze text to
+     * @throws MazeMalformedException      If the file is not a binary maze file of a known version.
+     * @throws MazeSizeMissmatchException  If the sections do not match the dimensions of the maze.
+     * @throws IllegalArgumentException     For other validation errors.
+     * @throws FileNotFoundException        If the maze file is not found.
+     * @throws IOException                  If the maze text cannot be written.
+     */
+    public static void toText(String binaryFile, String textFile) throws MazeMalformedException,
+            MazeSizeMissmatchException, IllegalArgumentException, IOException {
+        GameEnv gameEnv = new BinaryFileLoader().loadEnv(binaryFile, true);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Path.of(textFile)), 1 << 16)) {
+            out.write((gameEnv.getNoRows() + " " + gameEnv.getNoCols() + "\n").getBytes());
+            for (int i = 0; i < gameEnv.getNoRows(); i++) {
+                for (int j = 0; j < gameEnv.getNoCols(); j++) {
+                    out.write(gameEnv.getTile(i, j));
+                }
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * writes the walls and endpoints of a maze, and optionally its derived data, as a binary maze file
+     */
+    private static void writeBinary(GameEnv gameEnv, Path file, boolean withIndexes) throws IOException {
+        int[] types = withIndexes
+                ? new int[] {BinaryFileLoader.WALLS, BinaryFileLoader.COMPONENTS, BinaryFileLoader.DISTANCES,
+                        BinaryFileLoader.JUNCTIONS}
+                : new int[] {BinaryFileLoader.WALLS};
+        long[] offsets = new long[types.length];
+        long[] lengths = new long[types.length];
+        long tableEnd = BinaryFileLoader.HEADER_BYTES + (long) types.length * BinaryFileLoader.SECTION_ENTRY_BYTES;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(align(tableEnd));
+            // the stream is only flushed, closing it would close the channel before the header is written
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            for (int i = 0; i < types.length; i++) {
+                offsets[i] = channel.position();
+                switch (types[i]) {
+                    case BinaryFileLoader.WALLS -> writeWalls(gameEnv.getWalls(), out);
+                    case BinaryFileLoader.COMPONENTS -> gameEnv.getConnectivityIndex().write(out);
+                    case BinaryFileLoader.DISTANCES -> gameEnv.getDistanceField().write(out);
+                    default -> gameEnv.getJunctionGraph().write(out);
+                }
+                out.flush();
+                lengths[i] = channel.position() - offsets[i];
+                // pad the section so the next one starts on an aligned offset
+                out.write(new byte[(int) (align(channel.position()) - channel.position())]);
+                out.flush();
+            }
+            ByteBuffer header = ByteBuffer.allocate((int) tableEnd);
+            header.putInt(BinaryFileLoader.MAGIC);
+            header.putInt(gameEnv.getNoRows());
+            header.putInt(gameEnv.getNoCols());
+            header.putInt(gameEnv.getInitState().getRow());
+            header.putInt(gameEnv.getInitState().getCol());
+            header.putInt(gameEnv.getExitRow());
+            header.putInt(gameEnv.getExitCol());
+            header.putInt(types.length);
+            for (int i = 0; i < types.length; i++) {
+                header.putInt(types[i]);
+                header.putInt(0);
+                header.putLong(offsets[i]);
+                header.putLong(lengths[i]);
+            }
+            header.flip();
+            channel.write(header, 0);
+        }
+    }
+
+    /**
+     * writes the walls as longs of 64 cells each, the lowest bit being the first cell
+     */
+    private static void writeWalls(WallStorage walls, DataOutputStream out) throws IOException {
+        long noWords = (walls.getNoCells() + 63) >>> 6;
+        for (long i = 0; i < noWords; i++) {
+            out.writeLong(walls.getWord(i));
+        }
+    }
+
+    /**
+     * returns the given offset rounded up to the alignment of sections
+     */
+    private static long align(long offset) {
+        return (offset + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
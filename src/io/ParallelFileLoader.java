@@ -0,0 +1,400 @@
+package io;
+
+import exceptions.MazeMalformedException;
+import exceptions.MazeSizeMissmatchException;
+import model.GameEnv;
+import model.GameState;
+import model.WallStorage;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * a class which loads maze text files on all cores. Every row of a valid
+ * maze file has as many characters as the header gives columns and ends with
+ * the same line break as the header, so the offset of every row is known as
+ * soon as the header is read. The rows are split into ranges which are
+ * mapped and parsed by separate tasks on a ForkJoinPool.
+ * <p>
+ * While a task checks its rows it also finds the start and the exit and sets
+ * the walls, so {@link #loadEnv(String, boolean)} builds the environment of
+ * the game without scanning the maze again. Only the words of the wall
+ * storage which lie wholly within the rows of a task are written by it, the
+ * few cells of the words it shares with the tasks next to it are set once
+ * every task is done.
+ * </p>
+ * <p>
+ * Files which do not have this layout, because they are invalid, because
+ * their lines end differently or because they are compressed, are read
+ * again one byte after the other, so the loader accepts the same files and
+ * throws the same exceptions as FileLoader, with the row and column of the
+ * error in the message.
+ * </p>
+ */
+public class ParallelFileLoader implements FileInterface {
+    /**
+     * the number of bytes of rows parsed by one task without splitting further
+     */
+    private static final int CHUNK_BYTES = 1 << 20;
+    /**
+     * the longest header which is looked for, longer ones are left to the sequential parser
+     */
+    private static final int MAX_HEADER_BYTES = 4096;
+
+    /**
+     * the pool the rows are parsed on
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * constructs a new parallel loader which runs on the common pool
+     */
+    public ParallelFileLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * constructs a new parallel loader which runs on the given pool
+     * @param pool the pool the rows are parsed on
+     */
+    public ParallelFileLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Loads a maze from the specified filename and converts it into a 2D character array.
+     * The file has the same format as for FileLoader: a first line with the
+     * dimensions of the maze, separated by a space (e.g., "10 15"), followed by
+     * the rows of the maze.
+     * @param filename The path to the maze file to be loaded.
+     * @return A 2D character array representing the loaded maze.
+     * @throws MazeMalformedException      If the maze data is not correctly formatted.
+     * @throws MazeSizeMissmatchException  If the maze dimensions do not match the provided size.
+     * @throws IllegalArgumentException     For other validation errors.
+     * @throws FileNotFoundException        If the maze file is not found.
+     */
+    public char[][] load(String filename) throws MazeMalformedException,
+            MazeSizeMissmatchException, IllegalArgumentException, FileNotFoundException {
+        Pass pass = this.read(filename, true, false, false);
+        return pass == null ? new MappedFileLoader().load(filename) : pass.maze;
+    }
+
+    /**
+     * Loads a maze from the specified filename into the environment of a game,
+     * taking the walls, the start and the exit from the parallel pass over the file.
+     * @param filename The path to the maze file to be loaded.
+     * @param offHeap  true to store the walls outside the Java heap.
+     * @return The environment of the loaded maze.
+     * @throws MazeMalformedException      If the maze data is not correctly formatted.
+     * @throws MazeSizeMissmatchException  If the maze dimensions do not match the provided size.
+     * @throws IllegalArgumentException     If the maze has no start or no exit, or for other validation errors.
+     * @throws FileNotFoundException        If the maze file is not found.
+     */
+    @Override
+    public GameEnv loadEnv(String filename, boolean offHeap) throws MazeMalformedException,
+            MazeSizeMissmatchException, IllegalArgumentException, FileNotFoundException {
+        Pass pass = this.read(filename, false, true, offHeap);
+        if (pass == null) {
+            return GameEnv.load(new MappedFileLoader().load(filename), offHeap);
+        }
+        if (pass.start.get() < 0 || pass.exit.get() < 0) {
+            if (!offHeap) {
+                // the same environment as GameEnv builds for a maze without a start or exit, which
+                // needs the tiles, so the rare malformed maze is read again rather than every maze keeping them
+                return new GameEnv(new MappedFileLoader().load(filename));
+            }
+            throw new IllegalArgumentException("the maze has no start or no exit");
+        }
+        return new GameEnv(pass.walls, pass.stateOf(pass.start.get()), pass.stateOf(pass.exit.get()));
+    }
+
+    /**
+     * reads a maze file in parallel
+     * @param filename the path to the maze file
+     * @param keepTiles true to fill a 2d char array with the tiles
+     * @param keepWalls true to fill a wall storage
+     * @param offHeap true to store the walls outside the Java heap
+     * @return the result of the pass, or null if the file has to be read sequentially
+     */
+    private Pass read(String filename, boolean keepTiles, boolean keepWalls, boolean offHeap)
+            throws MazeMalformedException, IllegalArgumentException, FileNotFoundException {
+        if (filename == null) {
+            System.out.println("//!// IllegalArgumentException: null filename not allowed");
+            throw new IllegalArgumentException("null filename not allowed");
+        }
+        // check if file exists
+        if (!new File(filename).exists()) {
+            System.out.println("//!// FileNotFoundException: file does not exist");
+            throw new FileNotFoundException();
+        }
+
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            // the rows of a compressed file have no fixed offsets
+            if (FileLoader.isCompressed(filename)) {
+                return null;
+            }
+            long size = channel.size();
+            ByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, MAX_HEADER_BYTES));
+            int headerLength = 0;
+            while (headerLength < head.limit() && head.get(headerLength) != '\n' && head.get(headerLength) != '\r') {
+                headerLength++;
+            }
+            if (headerLength == head.limit()) {
+                return null;
+            }
+            byte[] header = new byte[headerLength];
+            head.get(0, header);
+            int[] dims = MazeByteParser.parseHeader(header, headerLength);
+            boolean crlf = head.get(headerLength) == '\r' && headerLength + 1 < head.limit()
+                    && head.get(headerLength + 1) == '\n';
+            Pass pass = new Pass(channel, dims[0], dims[1], headerLength + (crlf ? 2 : 1), crlf);
+            // a valid file of this layout has exactly this size, with or without a last line break
+            long end = pass.dataStart + (long) pass.rows * pass.rowBytes;
+            if (size != end && size != end - pass.breakBytes) {
+                return null;
+            }
+            pass.size = size;
+            pass.maze = keepTiles ? new char[pass.rows][pass.cols] : null;
+            pass.walls = keepWalls ? WallStorage.allocate(pass.rows, pass.cols, offHeap) : null;
+            int rowsPerTask = (int) Math.max(1, CHUNK_BYTES / pass.rowBytes);
+            this.pool.invoke(new ParseRows(pass, 0, pass.rows, rowsPerTask));
+            if (pass.firstBadRow.get() != Long.MAX_VALUE) {
+                return null;
+            }
+            // set the walls of the words shared by neighbouring tasks
+            for (long[] word : pass.sharedWords) {
+                for (long bits = word[1]; bits != 0; bits &= bits - 1) {
+                    pass.walls.setWall((word[0] << 6) + Long.numberOfTrailingZeros(bits), true);
+                }
+            }
+            return pass;
+        } catch (IOException e) {
+            System.out.println("//!// FileNotFoundException");
+            throw new FileNotFoundException();
+        }
+    }
+
+    /**
+     * the layout of a file being read and everything found in it, shared by every task
+     */
+    private static final class Pass {
+        /**
+         * the channel of the file being read
+         */
+        private final FileChannel channel;
+        /**
+         * the number of rows given by the header
+         */
+        private final int rows;
+        /**
+         * the number of columns given by the header
+         */
+        private final int cols;
+        /**
+         * the offset of the first row in the file
+         */
+        private final long dataStart;
+        /**
+         * whether every line ends with "\r\n" rather than a single byte
+         */
+        private final boolean crlf;
+        /**
+         * the number of bytes of a line break
+         */
+        private final int breakBytes;
+        /**
+         * the number of bytes of a row with its line break
+         */
+        private final long rowBytes;
+        /**
+         * the size of the file in bytes
+         */
+        private long size;
+        /**
+         * the tiles of the maze, or null if they are not kept
+         */
+        private char[][] maze;
+        /**
+         * the walls of the maze, or null if they are not kept
+         */
+        private WallStorage walls;
+        /**
+         * the packed index of the last start in the maze, or -1
+         */
+        private final AtomicLong start = new AtomicLong(-1);
+        /**
+         * the packed index of the last exit in the maze, or -1
+         */
+        private final AtomicLong exit = new AtomicLong(-1);
+        /**
+         * the first row which does not have the layout, or Long.MAX_VALUE
+         */
+        private final AtomicLong firstBadRow = new AtomicLong(Long.MAX_VALUE);
+        /**
+         * the index and wall bits of every word of the walls shared by two tasks
+         */
+        private final Queue<long[]> sharedWords = new ConcurrentLinkedQueue<>();
+
+        /**
+         * constructs the layout of a file from its header
+         */
+        Pass(FileChannel channel, int rows, int cols, long dataStart, boolean crlf) {
+            this.channel = channel;
+            this.rows = rows;
+            this.cols = cols;
+            this.dataStart = dataStart;
+            this.crlf = crlf;
+            this.breakBytes = crlf ? 2 : 1;
+            this.rowBytes = cols + this.breakBytes;
+        }
+
+        /**
+         * returns the state of the given packed cell index
+         */
+        GameState stateOf(long cell) {
+            return new GameState((int) (cell / this.cols), (int) (cell % this.cols));
+        }
+    }
+
+    /**
+     * a task which parses a range of rows, splitting it in half until the
+     * range is small enough to parse directly
+     */
+    private static final class ParseRows extends RecursiveAction {
+        /**
+         * the version of the serialized form, which tasks inherit from ForkJoinTask
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * the file being read
+         */
+        private final Pass pass;
+        /**
+         * the first row of the range
+         */
+        private final int from;
+        /**
+         * one past the last row of the range
+         */
+        private final int to;
+        /**
+         * the number of rows parsed by one task without splitting further
+         */
+        private final int rowsPerTask;
+
+        /**
+         * constructs a task parsing the given range of rows
+         */
+        ParseRows(Pass pass, int from, int to, int rowsPerTask) {
+            this.pass = pass;
+            this.from = from;
+            this.to = to;
+            this.rowsPerTask = rowsPerTask;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > this.rowsPerTask) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new ParseRows(this.pass, this.from, middle, this.rowsPerTask),
+                        new ParseRows(this.pass, middle, this.to, this.rowsPerTask));
+                return;
+            }
+            try {
+                this.parse();
+            } catch (IOException e) {
+                // the sequential parser reads the file again and reports the problem
+                this.pass.firstBadRow.accumulateAndGet(this.from, Math::min);
+            }
+        }
+
+        /**
+         * maps the rows of the range and parses them
+         */
+        private void parse() throws IOException {
+            Pass pass = this.pass;
+            long offset = pass.dataStart + this.from * pass.rowBytes;
+            long length = Math.min(pass.size, pass.dataStart + this.to * pass.rowBytes) - offset;
+            ByteBuffer buffer = pass.channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            long firstCell = (long) this.from * pass.cols;
+            long lastCell = (long) this.to * pass.cols;
+            // the cells of the words which lie wholly within the range, the others are set at the end
+            long ownedFrom = this.from == 0 ? 0 : (firstCell + 63) & ~63L;
+            long ownedTo = this.to == pass.rows ? lastCell : lastCell & ~63L;
+            long firstBits = 0;
+            long lastBits = 0;
+            long start = -1;
+            long exit = -1;
+            for (int r = this.from; r < this.to; r++) {
+                if (pass.firstBadRow.get() < r) {
+                    return;
+                }
+                int pos = (int) ((r - this.from) * pass.rowBytes);
+                char[] row = pass.maze == null ? null : pass.maze[r];
+                long cell = (long) r * pass.cols;
+                boolean bad = !this.isLineBreak(buffer, pos + pass.cols);
+                for (int j = 0; j < pass.cols && !bad; j++, cell++) {
+                    char c = MazeByteParser.legal(buffer.get(pos + j));
+                    if (row != null) {
+                        row[j] = c;
+                    }
+                    if (c == GameEnv.WALL) {
+                        if (pass.walls == null) {
+                            continue;
+                        }
+                        if (ownedFrom <= cell && cell < ownedTo) {
+                            pass.walls.setWall(cell, true);
+                        } else if ((cell >>> 6) == (firstCell >>> 6)) {
+                            firstBits |= 1L << cell;
+                        } else {
+                            lastBits |= 1L << cell;
+                        }
+                    } else if (c == GameEnv.START_POINT) {
+                        start = cell;
+                    } else if (c == GameEnv.END_POINT) {
+                        exit = cell;
+                    } else if (c == 0) {
+                        bad = true;
+                    }
+                }
+                if (bad) {
+                    pass.firstBadRow.accumulateAndGet(r, Math::min);
+                    return;
+                }
+            }
+            pass.start.accumulateAndGet(start, Math::max);
+            pass.exit.accumulateAndGet(exit, Math::max);
+            if (firstBits != 0) {
+                pass.sharedWords.add(new long[] {firstCell >>> 6, firstBits});
+            }
+            if (lastBits != 0) {
+                pass.sharedWords.add(new long[] {(lastCell - 1) >>> 6, lastBits});
+            }
+        }
+
+        /**
+         * checks whether the line break of a row is at the given position,
+         * which it has to be unless the row is the last of the file
+         */
+        private boolean isLineBreak(ByteBuffer buffer, int pos) {
+            if (pos == buffer.limit()) {
+                return this.to == this.pass.rows;
+            }
+            byte b = buffer.get(pos);
+            if (this.pass.crlf) {
+                return b == '\r' && buffer.get(pos + 1) == '\n';
+            }
+            return b == '\n' || b == '\r';
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package io;
+
+import model.GameEnv;
+import model.GameState;
+import model.SearchType;
+import model.WallStorage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * a cache of solutions stored on disk and addressed by the content of the maze.
+ * The key of a solution is a SHA-256 digest of the size of the maze, the
+ * walls, the exit, the start state and the search type, so the same maze
+ * saved under different file names shares one entry, and an entry can
+ * never be used for a maze it was not computed for.
+ * <p>
+ * Every entry is a small file named after its key which holds a header,
+ * the key again, the actions packed into 2 bits each and a CRC32 checksum.
+ * Entries are written to a temporary file first and then moved into place,
+ * so several processes can share one directory and readers never see half
+ * written entries. The total size of the entries is kept in a lock file,
+ * and the least recently used entries are deleted once it grows past the
+ * size limit, so the directory is only listed when entries have to go or
+ * the lock file is missing. Any problem with the directory or an
+ * entry is treated as a miss, so the cache can never stop a maze being solved.
+ * </p>
+ */
+public class SolutionCache {
+    /**
+     * the size limit used when none is given, in bytes
+     */
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    /**
+     * the file extension of cache entries
+     */
+    private static final String EXTENSION = ".sol";
+    /**
+     * the name of the file which holds the total size of the entries and is
+     * locked while it is updated
+     */
+    private static final String LOCK_FILE = "cache.lock";
+    /**
+     * the first bytes of every entry, "MZS" followed by the format version
+     */
+    private static final int MAGIC = 0x4d5a5301;
+    /**
+     * the number of bytes in a key
+     */
+    private static final int KEY_BYTES = 32;
+    /**
+     * the actions in the order of their 2 bit codes
+     */
+    private static final char[] CODES = {GameEnv.UP, GameEnv.DOWN, GameEnv.LEFT, GameEnv.RIGHT};
+
+    /**
+     * the directory the entries are stored in
+     */
+    private final Path directory;
+    /**
+     * the total size the entries may take up before the oldest are deleted, in bytes
+     */
+    private final long maxBytes;
+
+    /**
+     * constructs a cache stored in the given directory with the default size limit
+     * @param directory the directory to store the entries in, created if it does not exist
+     */
+    public SolutionCache(Path directory) {
+        this(directory, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * constructs a cache stored in the given directory
+     * @param directory the directory to store the entries in, created if it does not exist
+     * @param maxBytes the total size the entries may take up, in bytes
+     */
+    public SolutionCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * computes the key of a solution. Only the walls and the exit of the maze
+     * are used, so marks left by playing and the different path tiles do not change the key.
+     * @param maze the maze as loaded from a file
+     * @param initState the state the solution starts from
+     * @param searchType the search strategy which found the solution
+     * @return the SHA-256 digest identifying the solution
+     */
+    public static byte[] keyOf(char[][] maze, GameState initState, SearchType searchType) {
+        return keyOf(new GameEnv(maze), initState, searchType);
+    }
+
+    /**
+     * computes the key of a solution from a loaded maze, the same key keyOf
+     * gives for the array the maze was loaded from. The walls are read 64
+     * cells at a time, so no char[][] view of the maze is built.
+     * @param gameEnv the environment of the maze
+     * @param initState the state the solution starts from
+     * @param searchType the search strategy which found the solution
+     * @return the SHA-256 digest identifying the solution
+     */
+    public static byte[] keyOf(GameEnv gameEnv, GameState initState, SearchType searchType) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer header = ByteBuffer.allocate(24);
+        header.putInt(gameEnv.getNoRows()).putInt(gameEnv.getNoCols())
+                .putInt(initState.getRow()).putInt(initState.getCol())
+                .putInt(gameEnv.getExitRow()).putInt(gameEnv.getExitCol());
+        digest.update(header.array());
+        digest.update(searchType.name().getBytes());
+        WallStorage walls = gameEnv.getWalls();
+        long noWords = (walls.getNoCells() + 63) >>> 6;
+        ByteBuffer words = ByteBuffer.allocate(1 << 13);
+        for (long i = 0; i < noWords; i++) {
+            if (!words.hasRemaining()) {
+                digest.update(words.array(), 0, words.position());
+                words.clear();
+            }
+            words.putLong(walls.getWord(i));
+        }
+        digest.update(words.array(), 0, words.position());
+        return digest.digest();
+    }
+
+    /**
+     * looks up a solution and marks it as recently used
+     * @param key the key of the solution, from keyOf
+     * @return the cached actions, or null if there is no valid entry for the key
+     */
+    public List<Character> get(byte[] key) {
+        Path entry = this.entryPath(key);
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(entry);
+        } catch (IOException e) {
+            return null;
+        }
+        List<Character> actions = decode(bytes, key);
+        try {
+            if (actions == null) {
+                // a damaged or foreign entry is removed so it is recomputed next time
+                Files.deleteIfExists(entry);
+            } else {
+                Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+        } catch (IOException e) {
+            // another process may have evicted the entry in the meantime
+        }
+        return actions;
+    }
+
+    /**
+     * stores a solution, replacing any entry with the same key, and deletes
+     * the least recently used entries if the cache has grown too large
+     * @param key the key of the solution, from keyOf
+     * @param actions the actions of the solution, an empty list for an unsolvable maze
+     */
+    public void put(byte[] key, List<Character> actions) {
+        try {
+            Files.createDirectories(this.directory);
+            Path temp = Files.createTempFile(this.directory, "entry", ".tmp");
+            try {
+                Files.write(temp, encode(key, actions));
+                this.store(temp, this.entryPath(key));
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            // solutions which cannot be stored are simply found again next time
+        }
+    }
+
+    /**
+     * moves a written entry into place and adds its size to the total kept in
+     * the lock file, deleting the least recently used entries if the total has
+     * passed the size limit. The lock file is locked meanwhile, so several
+     * processes keep one total. Entries deleted by get are not taken off the
+     * total, which can only make it too large until the next eviction counts again.
+     */
+    private void store(Path temp, Path entry) throws IOException {
+        try (FileChannel channel = FileChannel.open(this.directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+                // a lock file without a total is counted again from the directory
+                long total = channel.read(buffer, 0) == Long.BYTES ? buffer.getLong(0) : -1;
+                long replacedSize = sizeOf(entry);
+                long size = Files.size(temp);
+                try {
+                    Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+                }
+                if (total >= 0) {
+                    total += size - replacedSize;
+                }
+                if (total < 0 || total > this.maxBytes) {
+                    total = this.evict();
+                }
+                buffer.clear();
+                channel.write(buffer.putLong(0, total), 0);
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * returns the size of the given entry, or 0 if it does not exist
+     */
+    private static long sizeOf(Path entry) throws IOException {
+        try {
+            return Files.size(entry);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * counts the entries in the directory and deletes the least recently used
+     * until the cache fits its size limit. Only called with the lock file locked.
+     * @return the total size of the entries which are left
+     */
+    private long evict() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        List<Long> times = new ArrayList<>();
+        long total = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "*" + EXTENSION)) {
+            for (Path entry : stream) {
+                try {
+                    total += Files.size(entry);
+                    times.add(Files.getLastModifiedTime(entry).toMillis());
+                    entries.add(entry);
+                } catch (NoSuchFileException e) {
+                    // removed by another process while listing
+                }
+            }
+        }
+        if (total > this.maxBytes) {
+            Integer[] order = new Integer[entries.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(times.get(a), times.get(b)));
+            for (int i = 0; i < order.length && total > this.maxBytes; i++) {
+                Path entry = entries.get(order[i]);
+                try {
+                    long size = Files.size(entry);
+                    Files.delete(entry);
+                    total -= size;
+                } catch (NoSuchFileException e) {
+                    // already removed by another process
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * returns the file the entry with the given key is stored in
+     */
+    private Path entryPath(byte[] key) {
+        StringBuilder name = new StringBuilder();
+        for (byte b : key) {
+            name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return this.directory.resolve(name + EXTENSION);
+    }
+
+    /**
+     * packs a solution into the bytes of an entry: the magic number, the key,
+     * the number of actions, the actions at 2 bits each and a CRC32 of everything before it
+     */
+    static byte[] encode(byte[] key, List<Character> actions) {
+        int packedBytes = (actions.size() + 3) / 4;
+        ByteBuffer buffer = ByteBuffer.allocate(4 + KEY_BYTES + 4 + packedBytes + 8);
+        buffer.putInt(MAGIC).put(key).putInt(actions.size());
+        byte[] packed = new byte[packedBytes];
+        for (int i = 0; i < actions.size(); i++) {
+            packed[i >>> 2] |= (byte) (codeOf(actions.get(i)) << ((i & 3) * 2));
+        }
+        buffer.put(packed);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * unpacks the actions of an entry
+     * @return the actions, or null if the entry is damaged or belongs to a different key
+     */
+    static List<Character> decode(byte[] bytes, byte[] key) {
+        if (bytes.length < 4 + KEY_BYTES + 4 + 8) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != MAGIC) {
+            return null;
+        }
+        byte[] storedKey = new byte[KEY_BYTES];
+        buffer.get(storedKey);
+        if (!Arrays.equals(storedKey, key)) {
+            return null;
+        }
+        int noActions = buffer.getInt();
+        int packedBytes = (noActions + 3) / 4;
+        if (noActions < 0 || bytes.length != 4 + KEY_BYTES + 4 + packedBytes + 8) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 8);
+        if (ByteBuffer.wrap(bytes, bytes.length - 8, 8).getLong() != crc.getValue()) {
+            return null;
+        }
+        List<Character> actions = new ArrayList<>(noActions);
+        for (int i = 0; i < noActions; i++) {
+            actions.add(CODES[(bytes[4 + KEY_BYTES + 4 + (i >>> 2)] >>> ((i & 3) * 2)) & 3]);
+        }
+        return actions;
+    }
+
+    /**
+     * returns the 2 bit code of an action
+     */
+    private static int codeOf(char action) {
+        for (int code = 0; code < CODES.length; code++) {
+            if (CODES[code] == action) {
+                return code;
+            }
+        }
+        throw new IllegalArgumentException("invalid action: " + action);
+    }
+}
@@ -0,0 +1,199 @@
+package model;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * a class which runs searches in the background and hands back their
+ * solutions as CompletableFutures, so the caller can keep drawing or
+ * reading input while a large maze is solved.
+ * <p>
+ * A search can be given a time limit and can be stopped early by cancelling
+ * its future. Both are cooperative: every strategy checks them about every
+ * GridSearch.PROGRESS_INTERVAL expansions and stops, and its future completes
+ * on time even while a strategy builds a graph it needs, such as the junction
+ * or cluster graph, which is not interrupted. A progress listener is called
+ * at the same points.
+ * </p>
+ * <p>
+ * The anytime mode runs weighted A* with a decreasing weight on the
+ * heuristic. The first, heavily weighted search finds a path quickly and
+ * every following search may find a shorter one, which replaces it, while a
+ * longer one is dropped. The last search with equal weights finds a shortest
+ * path, unless the time runs out first.
+ * </p>
+ */
+public class AsyncSolver {
+    /**
+     * the weight of the cost from the start used by every anytime search
+     */
+    private static final int ANYTIME_G_WEIGHT = 4;
+    /**
+     * the weights of the heuristic used by the anytime searches in turn,
+     * i.e. heuristic factors of 3, 2, 1.5, 1.25 and finally 1
+     */
+    private static final int[] ANYTIME_H_WEIGHTS = {12, 8, 6, 5, 4};
+
+    /**
+     * the environment of the maze to be solved
+     */
+    private final GameEnv gameEnv;
+    /**
+     * the executor the searches are run on
+     */
+    private final Executor executor;
+    /**
+     * the time a search may take in milliseconds, 0 for no limit
+     */
+    private long timeLimit;
+    /**
+     * told about the progress of every search, or null
+     */
+    private SearchMonitor progressListener;
+
+    /**
+     * constructs a new solver which runs its searches on the common pool
+     * @param gameEnv the environment of the game to be solved
+     */
+    public AsyncSolver(GameEnv gameEnv) {
+        this(gameEnv, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * constructs a new solver which runs its searches on the given executor
+     * @param gameEnv the environment of the game to be solved
+     * @param executor the executor the searches are run on
+     */
+    public AsyncSolver(GameEnv gameEnv, Executor executor) {
+        this.gameEnv = gameEnv;
+        this.executor = executor;
+    }
+
+    /**
+     * sets the time every search may take
+     * @param timeLimit the time limit in milliseconds, 0 for no limit
+     */
+    public void setTimeLimit(long timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * sets the listener which is told about the progress of every search.
+     * The listener is called on the thread running the search and can stop it by returning false.
+     * @param progressListener the listener, or null for none
+     */
+    public void setProgressListener(SearchMonitor progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * starts searching for a solution in the background.
+     * The future completes with an empty list if the maze is unsolvable, with a
+     * TimeoutException if the time limit passes first, and the search stops
+     * early if the future is cancelled.
+     * @param initState the state from which to begin the search
+     * @param searchType the search strategy to use
+     * @return a future which completes with the actions which reach the exit
+     */
+    public CompletableFuture<List<Character>> solve(GameState initState, SearchType searchType) {
+        CompletableFuture<List<Character>> future = new CompletableFuture<>();
+        long limit = this.timeLimit;
+        SearchMonitor monitor = this.monitor(future, limit);
+        this.executor.execute(() -> {
+            try {
+                SearchStrategy strategy = searchType.create(this.gameEnv);
+                strategy.setMonitor(monitor);
+                future.complete(strategy.search(initState));
+            } catch (CancellationException e) {
+                future.completeExceptionally(stopReason(future, limit));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        if (limit > 0) {
+            future.orTimeout(limit, TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    /**
+     * starts an anytime search in the background. Every time a shorter path is
+     * found it is handed to the given consumer, and the future completes with
+     * the shortest path found once a shortest path is known or the time limit has passed.
+     * The future only completes with a TimeoutException if no path at all was found in time.
+     * @param initState the state from which to begin the search
+     * @param onImprovement told about every path which is shorter than the ones before, or null
+     * @return a future which completes with the shortest path found
+     */
+    public CompletableFuture<List<Character>> solveAnytime(GameState initState, Consumer<List<Character>> onImprovement) {
+        CompletableFuture<List<Character>> future = new CompletableFuture<>();
+        long limit = this.timeLimit;
+        SearchMonitor monitor = this.monitor(future, limit);
+        this.executor.execute(() -> {
+            List<Character> best = null;
+            try {
+                for (int hWeight : ANYTIME_H_WEIGHTS) {
+                    GridAStar search = new GridAStar(this.gameEnv, ANYTIME_G_WEIGHT, hWeight);
+                    search.setMonitor(monitor);
+                    List<Character> path = search.search(initState);
+                    if (path.isEmpty()) {
+                        // either already at the exit or the exit cannot be reached at all
+                        best = path;
+                        break;
+                    }
+                    if (best == null || path.size() < best.size()) {
+                        best = path;
+                        if (onImprovement != null) {
+                            onImprovement.accept(best);
+                        }
+                    }
+                }
+            } catch (CancellationException e) {
+                if (best == null || future.isCancelled()) {
+                    future.completeExceptionally(stopReason(future, limit));
+                    return;
+                }
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            future.complete(best);
+        });
+        return future;
+    }
+
+    /**
+     * builds the monitor shared by the searches of one request, which stops them once
+     * the future is done or the time limit has passed and otherwise passes the
+     * progress on to the listener
+     */
+    private SearchMonitor monitor(CompletableFuture<List<Character>> future, long limit) {
+        SearchMonitor listener = this.progressListener;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limit);
+        return (nodesExpanded, frontierSize, bestDistance) -> {
+            if (future.isDone() || (limit > 0 && System.nanoTime() - deadline > 0)) {
+                return false;
+            }
+            return listener == null || listener.progress(nodesExpanded, frontierSize, bestDistance);
+        };
+    }
+
+    /**
+     * returns the exception a stopped search completes its future with
+     */
+    private static Throwable stopReason(CompletableFuture<List<Character>> future, long limit) {
+        if (future.isCancelled()) {
+            return new CancellationException("search cancelled");
+        }
+        if (limit > 0) {
+            return new TimeoutException("no solution found within " + limit + " ms");
+        }
+        return new CancellationException("search stopped by the progress listener");
+    }
+}
@@ -0,0 +1,142 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * a bidirectional breadth-first search which grows one frontier from the
+ * start and one from the exit and stops when they meet in the middle.
+ * Each side explores a disk of roughly half the solution length, so long
+ * serpentine mazes need far fewer expansions and a much smaller frontier
+ * than a search from the start alone.
+ * <p>
+ * The side with the smaller frontier is always expanded by one full level.
+ * Every cell labelled by the other side lies within its current depth and the
+ * frontiers have not met before, so the first meeting found on a level is
+ * already a shortest path and the search can stop at once.
+ * </p>
+ */
+public class BidirectionalSearch extends GridSearch {
+    /**
+     * marks the root cell of a side, which has been seen but has no parent
+     */
+    private static final byte ROOT = NO_DIRECTIONS;
+
+    /**
+     * the cell reached from the start side when the frontiers met
+     */
+    private int meetForward;
+    /**
+     * the direction moved from meetForward to reach the cell seen by the exit side
+     */
+    private int meetDir;
+
+    /**
+     * constructs a new bidirectional search for the given environment
+     * @param gameEnv the environment of the game to be solved
+     */
+    public BidirectionalSearch(GameEnv gameEnv) {
+        super(gameEnv);
+    }
+
+    @Override
+    public List<Character> search(GameState initState) {
+        int start = cellOf(initState);
+        int goal = exitCell();
+        resetCounters();
+        if (start == goal) {
+            return new ArrayList<>();
+        }
+        // the exit side must not start growing out of a wall
+        if (!this.gameEnv.isValid(this.gameEnv.stateAt(this.gameEnv.getExitRow(), this.gameEnv.getExitCol()))) {
+            return new ArrayList<>();
+        }
+        int cells = noCells();
+        // the direction moved to reach every cell from the start, or from the exit
+        byte[] forwardDirs = new byte[cells];
+        byte[] backwardDirs = new byte[cells];
+        Arrays.fill(forwardDirs, NO_PARENT);
+        Arrays.fill(backwardDirs, NO_PARENT);
+        forwardDirs[start] = ROOT;
+        backwardDirs[goal] = ROOT;
+        int[] forward = {start};
+        int forwardSize = 1;
+        int[] backward = {goal};
+        int backwardSize = 1;
+        int[] next = new int[16];
+
+        while (forwardSize > 0 && backwardSize > 0) {
+            boolean expandForward = forwardSize <= backwardSize;
+            int[] frontier = expandForward ? forward : backward;
+            int size = expandForward ? forwardSize : backwardSize;
+            byte[] ownDirs = expandForward ? forwardDirs : backwardDirs;
+            byte[] otherDirs = expandForward ? backwardDirs : forwardDirs;
+            int nextSize = 0;
+            for (int i = 0; i < size; i++) {
+                int cell = frontier[i];
+                this.nodesExpanded++;
+                if (this.nodesExpanded % PROGRESS_INTERVAL == 0) {
+                    reportProgress(forwardSize + backwardSize + nextSize - i, UNKNOWN_DISTANCE);
+                }
+                int mask = neighbors(cell);
+                for (int dir = 0; dir < NO_DIRECTIONS; dir++) {
+                    if ((mask & (1 << dir)) == 0) {
+                        continue;
+                    }
+                    int succ = step(cell, dir);
+                    if (ownDirs[succ] != NO_PARENT) {
+                        continue;
+                    }
+                    if (otherDirs[succ] != NO_PARENT) {
+                        if (expandForward) {
+                            this.meetForward = cell;
+                            this.meetDir = dir;
+                        } else {
+                            // seen from the start side, walking the step backwards joins the halves
+                            this.meetForward = succ;
+                            this.meetDir = dir ^ 1;
+                        }
+                        return stitch(forwardDirs, backwardDirs, start);
+                    }
+                    ownDirs[succ] = (byte) dir;
+                    if (nextSize == next.length) {
+                        next = Arrays.copyOf(next, nextSize * 2);
+                    }
+                    next[nextSize++] = succ;
+                }
+            }
+            // the old frontier array is reused for the level after next
+            if (expandForward) {
+                forward = next;
+                forwardSize = nextSize;
+            } else {
+                backward = next;
+                backwardSize = nextSize;
+            }
+            next = frontier.length >= 16 ? frontier : new int[16];
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * joins the path from the start to the meeting point with the path
+     * from the meeting point to the exit
+     * @param forwardDirs the direction moved to reach every cell from the start
+     * @param backwardDirs the direction moved to reach every cell from the exit
+     * @param start the packed cell index the search started from
+     * @return the list of actions which lead from the start to the exit
+     */
+    private List<Character> stitch(byte[] forwardDirs, byte[] backwardDirs, int start) {
+        List<Character> seq = toActions(forwardDirs, start, this.meetForward);
+        seq.add(Direction.of(this.meetDir).getAction());
+        int cell = step(this.meetForward, this.meetDir);
+        while (backwardDirs[cell] != ROOT) {
+            // the exit side moved in this direction to get here, so walk it in reverse
+            int dir = backwardDirs[cell] ^ 1;
+            seq.add(Direction.of(dir).getAction());
+            cell = step(cell, dir);
+        }
+        return seq;
+    }
+}
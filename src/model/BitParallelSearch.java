@@ -0,0 +1,272 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * a breadth-first search which advances whole rows of the maze at once.
+ * Every row is stored as a bitset of long words, one bit per column, and a
+ * frontier is grown by one step for 64 cells per operation with shifts,
+ * ORs and ANDs against the open cells instead of visiting cells one at a
+ * time. Each wave only keeps the rows it actually covers.
+ * <p>
+ * {@link #isSolvable(GameState)} only keeps the current wave and is a fast
+ * reachability check. {@link #search(GameState)} also records the distance
+ * of every reached cell modulo 3 in two more bitsets, so it needs 3 bits per
+ * cell however long the path is. Neighbouring cells differ in distance by at
+ * most one, so a reached neighbour whose distance is one less modulo 3 is one
+ * step closer to the start, and the path is traced back from the exit
+ * through such neighbours, which gives a shortest path.
+ * </p>
+ */
+public class BitParallelSearch extends GridSearch {
+    /**
+     * the number of long words used for every row
+     */
+    private final int wordsPerRow;
+
+    /**
+     * constructs a new bit-parallel search for the given environment
+     * @param gameEnv the environment of the game to be solved
+     */
+    public BitParallelSearch(GameEnv gameEnv) {
+        super(gameEnv);
+        this.wordsPerRow = (gameEnv.getNoCols() + 63) >>> 6;
+    }
+
+    /**
+     * checks whether the exit can be reached from the given state without
+     * finding the actual path
+     * @param initState the state to start from
+     * @return true if the exit can be reached
+     */
+    public boolean isSolvable(GameState initState) {
+        return this.run(initState, new long[this.noWords()], null, null);
+    }
+
+    @Override
+    public List<Character> search(GameState initState) {
+        long[] visited = new long[this.noWords()];
+        long[] lowBits = new long[visited.length];
+        long[] highBits = new long[visited.length];
+        if (!this.run(initState, visited, lowBits, highBits)) {
+            return new ArrayList<>();
+        }
+        // walk back from the exit, each step moving to a neighbour one step closer to the start
+        List<Character> seq = new ArrayList<>();
+        int row = this.gameEnv.getExitRow();
+        int col = this.gameEnv.getExitCol();
+        while (row != initState.getRow() || col != initState.getCol()) {
+            int previous = (this.distanceMod3(row, col, lowBits, highBits) + 2) % 3;
+            for (int dir = 0; dir < NO_DIRECTIONS; dir++) {
+                int fromRow = row - Direction.of(dir).getRowStep();
+                int fromCol = col - Direction.of(dir).getColStep();
+                if (this.isReached(fromRow, fromCol, visited)
+                        && this.distanceMod3(fromRow, fromCol, lowBits, highBits) == previous) {
+                    seq.add(Direction.of(dir).getAction());
+                    row = fromRow;
+                    col = fromCol;
+                    break;
+                }
+            }
+        }
+        Collections.reverse(seq);
+        return seq;
+    }
+
+    /**
+     * grows waves from the given state until the exit is reached or no new cell can be reached
+     * @param initState the state to start from
+     * @param visited receives the bitset of every cell reached
+     * @param lowBits if not null, receives the low bit of the distance modulo 3 of every cell reached
+     * @param highBits if not null, receives the high bit of the distance modulo 3 of every cell reached
+     * @return true if the exit was reached
+     */
+    private boolean run(GameState initState, long[] visited, long[] lowBits, long[] highBits) {
+        int exitRow = this.gameEnv.getExitRow();
+        int exitCol = this.gameEnv.getExitCol();
+        resetCounters();
+        long[] open = this.openBits();
+        Layer wave = new Layer(initState.getRow(), initState.getRow(), this.wordsPerRow);
+        wave.bits[initState.getCol() >>> 6] = 1L << initState.getCol();
+        visited[initState.getRow() * this.wordsPerRow + (initState.getCol() >>> 6)] |= 1L << initState.getCol();
+        int distance = 0;
+        while (wave != null) {
+            if (wave.contains(exitRow, exitCol, this.wordsPerRow)) {
+                return true;
+            }
+            int expandedBefore = this.nodesExpanded;
+            this.nodesExpanded += wave.count();
+            reportProgressAfter(expandedBefore, wave.count(), UNKNOWN_DISTANCE);
+            distance = (distance + 1) % 3;
+            wave = this.expand(wave, open, visited, lowBits, highBits, distance);
+        }
+        return false;
+    }
+
+    /**
+     * grows the given wave by one step in every direction, keeping only open cells which have not been visited
+     * @param wave the current wave
+     * @param open the bitset of open cells of the whole maze
+     * @param visited the bitset of visited cells of the whole maze, updated with the new wave
+     * @param lowBits if not null, the low bits of the distances modulo 3, updated with the new wave
+     * @param highBits if not null, the high bits of the distances modulo 3, updated with the new wave
+     * @param distance the distance of the new wave from the start modulo 3
+     * @return the new wave, or null if it is empty
+     */
+    private Layer expand(Layer wave, long[] open, long[] visited, long[] lowBits, long[] highBits, int distance) {
+        int words = this.wordsPerRow;
+        int top = Math.max(0, wave.top - 1);
+        int bottom = Math.min(this.gameEnv.getNoRows() - 1, wave.bottom + 1);
+        Layer next = new Layer(top, bottom, words);
+        int firstRow = -1;
+        int lastRow = -1;
+        for (int row = top; row <= bottom; row++) {
+            long any = 0;
+            for (int i = 0; i < words; i++) {
+                long current = wave.word(row, i, words);
+                long left = i + 1 < words ? wave.word(row, i + 1, words) : 0;
+                long right = i > 0 ? wave.word(row, i - 1, words) : 0;
+                // moving right carries the top bit of the word before, moving left the low bit of the word after
+                long spread = (current << 1) | (right >>> 63) | (current >>> 1) | (left << 63)
+                        | wave.word(row - 1, i, words) | wave.word(row + 1, i, words);
+                int index = row * words + i;
+                long grown = spread & open[index] & ~visited[index];
+                visited[index] |= grown;
+                if (lowBits != null && (distance & 1) != 0) {
+                    lowBits[index] |= grown;
+                }
+                if (highBits != null && (distance & 2) != 0) {
+                    highBits[index] |= grown;
+                }
+                next.bits[(row - top) * words + i] = grown;
+                any |= grown;
+            }
+            if (any != 0) {
+                if (firstRow < 0) {
+                    firstRow = row;
+                }
+                lastRow = row;
+            }
+        }
+        if (firstRow < 0) {
+            return null;
+        }
+        return next.trim(firstRow, lastRow, words);
+    }
+
+    /**
+     * returns the number of long words in a bitset covering the whole maze
+     */
+    private int noWords() {
+        return this.gameEnv.getNoRows() * this.wordsPerRow;
+    }
+
+    /**
+     * returns whether the given cell lies in the maze and was reached by the search
+     */
+    private boolean isReached(int row, int col, long[] visited) {
+        if (row < 0 || row >= this.gameEnv.getNoRows() || col < 0 || col >= this.gameEnv.getNoCols()) {
+            return false;
+        }
+        return (visited[row * this.wordsPerRow + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+    /**
+     * returns the distance of the given reached cell from the start modulo 3
+     */
+    private int distanceMod3(int row, int col, long[] lowBits, long[] highBits) {
+        int index = row * this.wordsPerRow + (col >>> 6);
+        int low = (int) (lowBits[index] >>> col) & 1;
+        int high = (int) (highBits[index] >>> col) & 1;
+        return low | high << 1;
+    }
+
+    /**
+     * builds the bitset of the open cells of the maze, one row of words after another
+     * @return the bitset of open cells
+     */
+    private long[] openBits() {
+        WallStorage walls = this.gameEnv.getWalls();
+        long[] open = new long[this.noWords()];
+        for (int row = 0; row < this.gameEnv.getNoRows(); row++) {
+            for (int col = 0; col < this.gameEnv.getNoCols(); col++) {
+                if (!walls.isWall(row, col)) {
+                    open[row * this.wordsPerRow + (col >>> 6)] |= 1L << col;
+                }
+            }
+        }
+        return open;
+    }
+
+    /**
+     * the cells at one distance from the start, stored as row bitsets for a range of rows only
+     */
+    private static class Layer {
+        /**
+         * the first row covered by the layer
+         */
+        private final int top;
+        /**
+         * the last row covered by the layer
+         */
+        private final int bottom;
+        /**
+         * the bits of the covered rows, one row of words after another
+         */
+        private final long[] bits;
+
+        /**
+         * constructs an empty layer covering the given rows
+         */
+        Layer(int top, int bottom, int words) {
+            this.top = top;
+            this.bottom = bottom;
+            this.bits = new long[(bottom - top + 1) * words];
+        }
+
+        /**
+         * returns the word at the given index of the given row, or 0 if the row is not covered
+         */
+        long word(int row, int i, int words) {
+            if (row < this.top || row > this.bottom) {
+                return 0;
+            }
+            return this.bits[(row - this.top) * words + i];
+        }
+
+        /**
+         * returns whether the given cell is part of the layer
+         */
+        boolean contains(int row, int col, int words) {
+            if (col < 0 || col >= words << 6) {
+                return false;
+            }
+            return (this.word(row, col >>> 6, words) & (1L << col)) != 0;
+        }
+
+        /**
+         * returns the number of cells in the layer
+         */
+        int count() {
+            int count = 0;
+            for (long word : this.bits) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        /**
+         * returns a copy of the layer which only covers the given rows
+         */
+        Layer trim(int first, int last, int words) {
+            if (first == this.top && last == this.bottom) {
+                return this;
+            }
+            Layer trimmed = new Layer(first, last, words);
+            System.arraycopy(this.bits, (first - this.top) * words, trimmed.bits, 0, trimmed.bits.length);
+            return trimmed;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * a breadth-first search over packed cell indices. As every action has the
+ * same cost (GameEnv.ACTION_COST) the first time the exit is reached is
+ * along a shortest path, so no priority queue is needed and this is the
+ * cheapest optimal strategy per expanded cell.
+ */
+public class BreadthFirstSearch extends GridSearch {
+
+    /**
+     * constructs a new breadth-first search for the given environment
+     * @param gameEnv the environment of the game to be solved
+     */
+    public BreadthFirstSearch(GameEnv gameEnv) {
+        super(gameEnv);
+    }
+
+    @Override
+    public List<Character> search(GameState initState) {
+        int start = cellOf(initState);
+        int goal = exitCell();
+        resetCounters();
+        if (start == goal) {
+            return new ArrayList<>();
+        }
+        int cells = noCells();
+        byte[] parentDirs = new byte[cells];
+        Arrays.fill(parentDirs, NO_PARENT);
+        long[] visited = new long[(cells + 63) >>> 6];
+        int[] queue = new int[cells];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start >>> 6] |= 1L << start;
+        while (head < tail) {
+            this.peakOpenSize = Math.max(this.peakOpenSize, tail - head);
+            int cell = queue[head++];
+            this.nodesExpanded++;
+            if (this.nodesExpanded % PROGRESS_INTERVAL == 0) {
+                reportProgress(tail - head, UNKNOWN_DISTANCE);
+            }
+            int mask = neighbors(cell);
+            for (int dir = 0; dir < NO_DIRECTIONS; dir++) {
+                if ((mask & (1 << dir)) == 0) {
+                    continue;
+                }
+                int next = step(cell, dir);
+                if ((visited[next >>> 6] & (1L << next)) != 0) {
+                    continue;
+                }
+                visited[next >>> 6] |= 1L << next;
+                parentDirs[next] = (byte) dir;
+                this.nodesGenerated++;
+                if (next == goal) {
+                    return toActions(parentDirs, start, goal);
+                }
+                queue[tail++] = next;
+            }
+        }
+        return new ArrayList<>();
+    }
+}
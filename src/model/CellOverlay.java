@@ -0,0 +1,138 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * a set of cells of a maze stored as one bit per cell, used for the marks a
+ * game leaves on the maze such as the trail of the player. The bits are kept
+ * in pages of 65536 cells which are only allocated once a cell on them is set,
+ * and cells are addressed by long so an overlay can cover more than 2^31 cells.
+ * <p>
+ * A snapshot of an overlay shares its pages instead of copying them. The
+ * overlay copies a page the first time it changes it after a snapshot was
+ * taken, so a snapshot never changes and can be read by other threads while
+ * the game goes on, and taking one costs one reference per page.
+ * </p>
+ */
+public final class CellOverlay {
+    /**
+     * the number of bits of a cell index which select a cell within a page
+     */
+    private static final int PAGE_BITS = 16;
+    /**
+     * the number of long words in a page
+     */
+    private static final int WORDS_PER_PAGE = 1 << (PAGE_BITS - 6);
+
+    /**
+     * the number of cells the overlay covers
+     */
+    private final long noCells;
+    /**
+     * the bits of every page, null for pages on which no cell is set
+     */
+    private final long[][] pages;
+    /**
+     * whether every page belongs to this overlay alone and can be changed in
+     * place, null for snapshots which cannot be changed at all
+     */
+    private final boolean[] owned;
+    /**
+     * the number of cells in the set
+     */
+    private long cardinality;
+
+    /**
+     * constructs a new empty overlay
+     * @param noCells the number of cells the overlay covers, e.g. the cells of a maze
+     */
+    public CellOverlay(long noCells) {
+        this.noCells = noCells;
+        this.pages = new long[(int) (noCells >>> PAGE_BITS) + 1][];
+        this.owned = new boolean[this.pages.length];
+    }
+
+    /**
+     * constructs a snapshot sharing the pages of the given overlay
+     * @param source the overlay to take a snapshot of
+     */
+    private CellOverlay(CellOverlay source) {
+        this.noCells = source.noCells;
+        this.pages = source.pages.clone();
+        this.owned = null;
+        this.cardinality = source.cardinality;
+    }
+
+    /**
+     * checks whether the given cell is in the set
+     * @param cell the packed cell index
+     * @return true if the cell is set
+     * @throws IndexOutOfBoundsException if the cell is not covered by the overlay
+     */
+    public boolean get(long cell) throws IndexOutOfBoundsException {
+        long[] page = this.pages[(int) (Objects.checkIndex(cell, this.noCells) >>> PAGE_BITS)];
+        return page != null && (page[(int) (cell >>> 6) & (WORDS_PER_PAGE - 1)] & (1L << cell)) != 0;
+    }
+
+    /**
+     * adds the given cell to the set or removes it
+     * @param cell the packed cell index
+     * @param value true to add the cell, false to remove it
+     * @throws IndexOutOfBoundsException if the cell is not covered by the overlay
+     * @throws UnsupportedOperationException if the overlay is a snapshot
+     */
+    public void set(long cell, boolean value) throws IndexOutOfBoundsException, UnsupportedOperationException {
+        if (this.owned == null) {
+            throw new UnsupportedOperationException("a snapshot cannot be changed");
+        }
+        if (this.get(cell) == value) {
+            return;
+        }
+        int index = (int) (cell >>> PAGE_BITS);
+        if (!this.owned[index]) {
+            long[] page = this.pages[index];
+            this.pages[index] = page == null ? new long[WORDS_PER_PAGE] : page.clone();
+            this.owned[index] = true;
+        }
+        this.pages[index][(int) (cell >>> 6) & (WORDS_PER_PAGE - 1)] ^= 1L << cell;
+        this.cardinality += value ? 1 : -1;
+    }
+
+    /**
+     * returns the number of cells in the set
+     * @return the number of cells which are set
+     */
+    public long cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * returns the number of cells the overlay covers
+     * @return the number of cells
+     */
+    public long getNoCells() {
+        return noCells;
+    }
+
+    /**
+     * checks whether the overlay is a snapshot and cannot be changed
+     * @return true if the overlay is a snapshot
+     */
+    public boolean isSnapshot() {
+        return this.owned == null;
+    }
+
+    /**
+     * returns an unchangeable copy of the overlay as it is now. The pages are
+     * shared until this overlay changes them.
+     * @return a snapshot of the overlay
+     */
+    public CellOverlay snapshot() {
+        if (this.owned == null) {
+            return this;
+        }
+        Arrays.fill(this.owned, false);
+        return new CellOverlay(this);
+    }
+}
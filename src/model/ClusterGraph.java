@@ -0,0 +1,485 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * the abstract graph used by hierarchical path finding (HPA*).
+ * The maze is cut into square clusters of a fixed size. Wherever a run of
+ * open cells crosses the border between two clusters an entrance is placed,
+ * made of one cell on each side of the border. The entrance cells are the
+ * nodes of the graph. Neighbouring entrance cells across a border are joined
+ * by an edge of one action and the entrance cells of the same cluster are
+ * joined by the length of the shortest path between them inside the cluster.
+ * <p>
+ * The distances inside the clusters are precomputed in parallel, one cluster
+ * per task. A query only has to search this small graph, and any edge of the
+ * resulting path can later be refined into single actions by a search
+ * restricted to one cluster.
+ * </p>
+ */
+public class ClusterGraph {
+    /**
+     * the default number of rows and columns of a cluster
+     */
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+    /**
+     * entrances at least this wide get a transition at both ends instead of one in the middle
+     */
+    private static final int WIDE_ENTRANCE = 6;
+    /**
+     * marks a cell which cannot be reached in a cluster search
+     */
+    static final int UNREACHABLE = -1;
+
+    /**
+     * the environment the graph was built from
+     */
+    private final GameEnv gameEnv;
+    /**
+     * the number of rows and columns of a cluster
+     */
+    private final int clusterSize;
+    /**
+     * the number of clusters along a row of the maze
+     */
+    private final int clustersPerRow;
+    /**
+     * the packed cell index of every node, in increasing order
+     */
+    private final int[] nodeCells;
+    /**
+     * the index of the first node of every cluster in clusterNodes, with one extra entry at the end
+     */
+    private final int[] clusterStarts;
+    /**
+     * the nodes grouped by cluster
+     */
+    private final int[] clusterNodes;
+    /**
+     * the index of the first edge of every node, with one extra entry at the end
+     */
+    private final int[] edgeStarts;
+    /**
+     * the node each edge leads to
+     */
+    private final int[] edgeTargets;
+    /**
+     * the number of actions needed to walk along each edge
+     */
+    private final int[] edgeWeights;
+
+    /**
+     * builds the abstract graph of the given environment using clusters of the given size
+     * @param gameEnv the environment of the game
+     * @param clusterSize the number of rows and columns of a cluster
+     */
+    public ClusterGraph(GameEnv gameEnv, int clusterSize) {
+        this.gameEnv = gameEnv;
+        this.clusterSize = clusterSize;
+        int noRows = gameEnv.getNoRows();
+        int noCols = gameEnv.getNoCols();
+        this.clustersPerRow = (noCols + clusterSize - 1) / clusterSize;
+        int clustersPerCol = (noRows + clusterSize - 1) / clusterSize;
+        int noClusters = this.clustersPerRow * clustersPerCol;
+
+        // find the entrances, each transition is a pair of neighbouring cells across a border
+        IntList transitions = new IntList();
+        for (int border = clusterSize; border < noCols; border += clusterSize) {
+            for (int top = 0; top < noRows; top += clusterSize) {
+                this.findTransitions(top, Math.min(top + clusterSize, noRows), border - 1, true, transitions);
+            }
+        }
+        for (int border = clusterSize; border < noRows; border += clusterSize) {
+            for (int left = 0; left < noCols; left += clusterSize) {
+                this.findTransitions(left, Math.min(left + clusterSize, noCols), border - 1, false, transitions);
+            }
+        }
+        int[] cells = transitions.toArray();
+        Arrays.sort(cells);
+        int unique = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (i == 0 || cells[i] != cells[i - 1]) {
+                cells[unique++] = cells[i];
+            }
+        }
+        this.nodeCells = Arrays.copyOf(cells, unique);
+
+        // group the nodes by cluster
+        this.clusterStarts = new int[noClusters + 1];
+        for (int cell : this.nodeCells) {
+            this.clusterStarts[this.clusterOf(cell) + 1]++;
+        }
+        for (int i = 0; i < noClusters; i++) {
+            this.clusterStarts[i + 1] += this.clusterStarts[i];
+        }
+        this.clusterNodes = new int[unique];
+        int[] filled = Arrays.copyOf(this.clusterStarts, noClusters);
+        for (int node = 0; node < unique; node++) {
+            this.clusterNodes[filled[this.clusterOf(this.nodeCells[node])]++] = node;
+        }
+
+        // the distances inside every cluster are independent, so they are found in parallel
+        int[][] intraEdges = IntStream.range(0, noClusters)
+                .parallel()
+                .mapToObj(this::intraClusterEdges)
+                .toArray(int[][]::new);
+
+        // gather every edge as (from, to, weight) and store them grouped by node
+        IntList edges = new IntList();
+        for (int i = 0; i < transitions.size(); i += 2) {
+            int a = this.nodeOf(transitions.get(i));
+            int b = this.nodeOf(transitions.get(i + 1));
+            edges.add(a, b, GameEnv.ACTION_COST);
+            edges.add(b, a, GameEnv.ACTION_COST);
+        }
+        for (int[] clusterEdges : intraEdges) {
+            for (int value : clusterEdges) {
+                edges.add(value);
+            }
+        }
+        this.edgeStarts = new int[unique + 1];
+        for (int i = 0; i < edges.size(); i += 3) {
+            this.edgeStarts[edges.get(i) + 1]++;
+        }
+        for (int i = 0; i < unique; i++) {
+            this.edgeStarts[i + 1] += this.edgeStarts[i];
+        }
+        int noEdges = edges.size() / 3;
+        this.edgeTargets = new int[noEdges];
+        this.edgeWeights = new int[noEdges];
+        int[] next = Arrays.copyOf(this.edgeStarts, unique);
+        for (int i = 0; i < edges.size(); i += 3) {
+            int slot = next[edges.get(i)]++;
+            this.edgeTargets[slot] = edges.get(i + 1);
+            this.edgeWeights[slot] = edges.get(i + 2);
+        }
+    }
+
+    /**
+     * returns the number of rows and columns of a cluster
+     * @return the cluster size
+     */
+    public int getClusterSize() {
+        return this.clusterSize;
+    }
+
+    /**
+     * returns the number of nodes in the graph
+     * @return the number of nodes
+     */
+    public int getNoNodes() {
+        return this.nodeCells.length;
+    }
+
+    /**
+     * returns the packed cell index of the given node
+     * @param node the node
+     * @return the packed cell index (row * noCols + col)
+     */
+    public int cellOf(int node) {
+        return this.nodeCells[node];
+    }
+
+    /**
+     * returns the node at the given packed cell
+     * @param cell the packed cell index (row * noCols + col)
+     * @return the node at the cell, or -1 if the cell is not a node
+     */
+    public int nodeOf(int cell) {
+        int node = Arrays.binarySearch(this.nodeCells, cell);
+        return node < 0 ? -1 : node;
+    }
+
+    /**
+     * returns the cluster which contains the given packed cell
+     * @param cell the packed cell index (row * noCols + col)
+     * @return the index of the cluster
+     */
+    public int clusterOf(int cell) {
+        int noCols = this.gameEnv.getNoCols();
+        int row = cell / noCols;
+        int col = cell - row * noCols;
+        return (row / this.clusterSize) * this.clustersPerRow + col / this.clusterSize;
+    }
+
+    /**
+     * returns the index of the first node of the given cluster in the list of cluster nodes.
+     * The nodes of the cluster end just before the first node of the next cluster.
+     * @param cluster the index of the cluster
+     * @return the index of its first node
+     */
+    public int clusterStart(int cluster) {
+        return this.clusterStarts[cluster];
+    }
+
+    /**
+     * returns the node at the given index of the list of nodes grouped by cluster
+     * @param index the index in the list
+     * @return the node
+     */
+    public int clusterNode(int index) {
+        return this.clusterNodes[index];
+    }
+
+    /**
+     * returns the index of the first edge of the given node.
+     * The edges of the node end just before the first edge of the next node.
+     * @param node the node
+     * @return the index of its first edge
+     */
+    public int edgeStart(int node) {
+        return this.edgeStarts[node];
+    }
+
+    /**
+     * returns the node the given edge leads to
+     * @param edge the index of the edge
+     * @return the target node
+     */
+    public int edgeTarget(int edge) {
+        return this.edgeTargets[edge];
+    }
+
+    /**
+     * returns the number of actions needed to walk along the given edge
+     * @param edge the index of the edge
+     * @return the weight of the edge
+     */
+    public int edgeWeight(int edge) {
+        return this.edgeWeights[edge];
+    }
+
+    /**
+     * finds the distances from the given cell to every cell of its own cluster,
+     * moving only through that cluster
+     * @param from the packed cell index to search from
+     * @return the distance to every cell of the cluster, indexed by localIndex, or UNREACHABLE
+     */
+    int[] distancesInCluster(int from) {
+        return this.searchCluster(from, null);
+    }
+
+    /**
+     * converts a packed cell index to its index inside its cluster
+     * @param cell the packed cell index (row * noCols + col)
+     * @return the index of the cell inside its cluster
+     */
+    int localIndex(int cell) {
+        int noCols = this.gameEnv.getNoCols();
+        int row = cell / noCols;
+        int col = cell - row * noCols;
+        return (row % this.clusterSize) * this.clusterSize + col % this.clusterSize;
+    }
+
+    /**
+     * finds the shortest sequence of actions from one cell to another through the cluster
+     * both of them are in, or to a neighbouring cell of another cluster.
+     * @param from the packed cell index to start at
+     * @param to the packed cell index to reach
+     * @return the list of actions leading from the first cell to the second
+     */
+    List<Character> refine(int from, int to) {
+        List<Character> seq = new ArrayList<>();
+        if (from == to) {
+            return seq;
+        }
+        int noCols = this.gameEnv.getNoCols();
+        if (this.clusterOf(from) != this.clusterOf(to)) {
+            // the two cells of a transition are neighbours across a border
+            for (int dir = 0; dir < Direction.COUNT; dir++) {
+                Direction direction = Direction.of(dir);
+                if (from + direction.getRowStep() * noCols + direction.getColStep() == to) {
+                    seq.add(direction.getAction());
+                    return seq;
+                }
+            }
+            throw new IllegalArgumentException("cells are not in the same or neighbouring clusters");
+        }
+        byte[] parentDirs = new byte[this.clusterSize * this.clusterSize];
+        this.searchCluster(from, parentDirs);
+        int cell = to;
+        while (cell != from) {
+            Direction direction = Direction.of(parentDirs[this.localIndex(cell)]);
+            seq.add(direction.getAction());
+            cell -= direction.getRowStep() * noCols + direction.getColStep();
+        }
+        Collections.reverse(seq);
+        return seq;
+    }
+
+    /**
+     * runs a breadth-first search from the given cell which never leaves its cluster
+     * @param from the packed cell index to search from
+     * @param parentDirs if not null, receives the direction every cell of the cluster was reached in
+     * @return the distance to every cell of the cluster, indexed by localIndex, or UNREACHABLE
+     */
+    private int[] searchCluster(int from, byte[] parentDirs) {
+        WallStorage walls = this.gameEnv.getWalls();
+        int noCols = this.gameEnv.getNoCols();
+        int top = (from / noCols) / this.clusterSize * this.clusterSize;
+        int left = (from % noCols) / this.clusterSize * this.clusterSize;
+        int bottom = Math.min(top + this.clusterSize, this.gameEnv.getNoRows());
+        int right = Math.min(left + this.clusterSize, noCols);
+        int size = this.clusterSize;
+        int[] distances = new int[size * size];
+        Arrays.fill(distances, UNREACHABLE);
+        // the queue holds local indices
+        int[] queue = new int[size * size];
+        int head = 0;
+        int tail = 0;
+        int origin = this.localIndex(from);
+        distances[origin] = 0;
+        queue[tail++] = origin;
+        while (head < tail) {
+            int local = queue[head++];
+            int row = top + local / size;
+            int col = left + local % size;
+            for (int dir = 0; dir < Direction.COUNT; dir++) {
+                int nextRow = row + Direction.of(dir).getRowStep();
+                int nextCol = col + Direction.of(dir).getColStep();
+                if (nextRow < top || nextRow >= bottom || nextCol < left || nextCol >= right
+                        || walls.isWall(nextRow, nextCol)) {
+                    continue;
+                }
+                int next = (nextRow - top) * size + (nextCol - left);
+                if (distances[next] == UNREACHABLE) {
+                    distances[next] = distances[local] + GameEnv.ACTION_COST;
+                    if (parentDirs != null) {
+                        parentDirs[next] = (byte) dir;
+                    }
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * finds the edges between the nodes of one cluster
+     * @param cluster the index of the cluster
+     * @return the edges as consecutive (from, to, weight) triples
+     */
+    private int[] intraClusterEdges(int cluster) {
+        IntList edges = new IntList();
+        int end = this.clusterStarts[cluster + 1];
+        for (int i = this.clusterStarts[cluster]; i < end; i++) {
+            int from = this.clusterNodes[i];
+            int[] distances = this.distancesInCluster(this.nodeCells[from]);
+            for (int j = this.clusterStarts[cluster]; j < end; j++) {
+                int to = this.clusterNodes[j];
+                int distance = distances[this.localIndex(this.nodeCells[to])];
+                if (to != from && distance != UNREACHABLE) {
+                    edges.add(from, to, distance);
+                }
+            }
+        }
+        return edges.toArray();
+    }
+
+    /**
+     * scans one border segment between two clusters for runs of cells which
+     * are open on both sides and adds the transitions of every run
+     * @param from the first row (or column) of the segment
+     * @param to one past the last row (or column) of the segment
+     * @param line the last column (or row) before the border
+     * @param vertical true if the border runs down a column, false if it runs along a row
+     * @param transitions receives the pairs of packed cell indices of every transition
+     */
+    private void findTransitions(int from, int to, int line, boolean vertical, IntList transitions) {
+        int runStart = -1;
+        for (int i = from; i <= to; i++) {
+            boolean open = i < to && this.isOpenPair(i, line, vertical);
+            if (open && runStart < 0) {
+                runStart = i;
+            } else if (!open && runStart >= 0) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 >= WIDE_ENTRANCE) {
+                    this.addTransition(runStart, line, vertical, transitions);
+                    this.addTransition(runEnd, line, vertical, transitions);
+                } else {
+                    this.addTransition((runStart + runEnd) / 2, line, vertical, transitions);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    /**
+     * returns whether both cells on either side of a border are open
+     */
+    private boolean isOpenPair(int i, int line, boolean vertical) {
+        WallStorage walls = this.gameEnv.getWalls();
+        if (vertical) {
+            return !walls.isWall(i, line) && !walls.isWall(i, line + 1);
+        }
+        return !walls.isWall(line, i) && !walls.isWall(line + 1, i);
+    }
+
+    /**
+     * adds the pair of cells on either side of a border as a transition
+     */
+    private void addTransition(int i, int line, boolean vertical, IntList transitions) {
+        int noCols = this.gameEnv.getNoCols();
+        if (vertical) {
+            transitions.add(i * noCols + line, i * noCols + line + 1);
+        } else {
+            transitions.add(line * noCols + i, (line + 1) * noCols + i);
+        }
+    }
+
+    /**
+     * a growable list of primitive ints
+     */
+    private static class IntList {
+        /**
+         * the values in the list
+         */
+        private int[] values = new int[16];
+        /**
+         * the number of values in the list
+         */
+        private int size;
+
+        /**
+         * appends the given values to the list
+         * @param added the values to append
+         */
+        void add(int... added) {
+            if (this.size + added.length > this.values.length) {
+                this.values = Arrays.copyOf(this.values, Math.max(this.values.length * 2, this.size + added.length));
+            }
+            for (int value : added) {
+                this.values[this.size++] = value;
+            }
+        }
+
+        /**
+         * returns the value at the given index
+         * @param index the index of the value
+         * @return the value
+         */
+        int get(int index) {
+            return this.values[index];
+        }
+
+        /**
+         * returns the number of values in the list
+         * @return the size of the list
+         */
+        int size() {
+            return this.size;
+        }
+
+        /**
+         * returns the values of the list as an array
+         * @return a new array containing the values
+         */
+        int[] toArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * an index of the connected components of the open cells of a maze. The
+ * components are found once with a union-find over the open cells, joining
+ * every cell with its open neighbours to the right and below, and every open
+ * cell is then labelled with the number of its component. Whether one cell
+ * can be reached from another is a comparison of two labels, so an
+ * unsolvable maze can be rejected without searching it at all.
+ */
+public class ConnectivityIndex {
+    /**
+     * the component of walls and of cells outside the maze
+     */
+    public static final int NO_COMPONENT = -1;
+
+    /**
+     * the number of columns of the maze
+     */
+    private final int noCols;
+    /**
+     * the number of rows of the maze
+     */
+    private final int noRows;
+    /**
+     * the component of every cell, NO_COMPONENT for walls
+     */
+    private final int[] components;
+    /**
+     * the number of cells in every component
+     */
+    private final int[] componentSizes;
+
+    /**
+     * builds the index of the connected components of the given environment
+     * @param gameEnv the environment of the game
+     */
+    public ConnectivityIndex(GameEnv gameEnv) {
+        this.noRows = gameEnv.getNoRows();
+        this.noCols = gameEnv.getNoCols();
+        WallStorage walls = gameEnv.getWalls();
+        int cells = this.noRows * this.noCols;
+        int[] parents = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            parents[cell] = cell;
+        }
+        for (int row = 0; row < this.noRows; row++) {
+            for (int col = 0; col < this.noCols; col++) {
+                if (walls.isWall(row, col)) {
+                    continue;
+                }
+                int cell = row * this.noCols + col;
+                if (col + 1 < this.noCols && !walls.isWall(row, col + 1)) {
+                    union(parents, cell, cell + 1);
+                }
+                if (row + 1 < this.noRows && !walls.isWall(row + 1, col)) {
+                    union(parents, cell, cell + this.noCols);
+                }
+            }
+        }
+        // number the roots in the order they are first met and label every cell with its root's number
+        this.components = new int[cells];
+        int[] rootComponents = new int[cells];
+        Arrays.fill(rootComponents, NO_COMPONENT);
+        int[] sizes = new int[16];
+        int noComponents = 0;
+        for (int row = 0; row < this.noRows; row++) {
+            for (int col = 0; col < this.noCols; col++) {
+                int cell = row * this.noCols + col;
+                if (walls.isWall(row, col)) {
+                    this.components[cell] = NO_COMPONENT;
+                    continue;
+                }
+                int root = find(parents, cell);
+                if (rootComponents[root] == NO_COMPONENT) {
+                    if (noComponents == sizes.length) {
+                        sizes = Arrays.copyOf(sizes, noComponents * 2);
+                    }
+                    rootComponents[root] = noComponents++;
+                }
+                this.components[cell] = rootComponents[root];
+                sizes[rootComponents[root]]++;
+            }
+        }
+        this.componentSizes = Arrays.copyOf(sizes, noComponents);
+    }
+
+    /**
+     * constructs an index from components found before
+     */
+    private ConnectivityIndex(int noRows, int noCols, int[] components, int[] componentSizes) {
+        this.noRows = noRows;
+        this.noCols = noCols;
+        this.components = components;
+        this.componentSizes = componentSizes;
+    }
+
+    /**
+     * writes the index in the form read by {@link #read(GameEnv, ByteBuffer)}:
+     * the number of components, the size of every component and the component of every cell
+     * @param out the output to write to
+     * @throws IOException if the output cannot be written
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(this.componentSizes.length);
+        for (int size : this.componentSizes) {
+            out.writeInt(size);
+        }
+        for (int component : this.components) {
+            out.writeInt(component);
+        }
+    }
+
+    /**
+     * reads an index written by {@link #write(DataOutput)} for the maze of the given environment
+     * @param gameEnv the environment of the game the index was built for
+     * @param in a buffer holding exactly the written index
+     * @return the index
+     * @throws IllegalArgumentException if the buffer does not hold an index of the size of the maze
+     */
+    public static ConnectivityIndex read(GameEnv gameEnv, ByteBuffer in) throws IllegalArgumentException {
+        int cells = gameEnv.getNoRows() * gameEnv.getNoCols();
+        IntBuffer ints = in.asIntBuffer();
+        int noComponents = ints.remaining() > 0 ? ints.get() : -1;
+        if (noComponents < 0 || ints.remaining() != (long) noComponents + cells) {
+            throw new IllegalArgumentException("the connectivity index does not match the maze");
+        }
+        int[] sizes = new int[noComponents];
+        int[] components = new int[cells];
+        ints.get(sizes);
+        ints.get(components);
+        return new ConnectivityIndex(gameEnv.getNoRows(), gameEnv.getNoCols(), components, sizes);
+    }
+
+    /**
+     * returns the number of connected components of open cells
+     * @return the number of components
+     */
+    public int getNoComponents() {
+        return this.componentSizes.length;
+    }
+
+    /**
+     * returns the component the given state lies in
+     * @param state the state to look up
+     * @return the number of the component, or NO_COMPONENT if the state is a wall or outside the maze
+     */
+    public int componentOf(GameState state) {
+        if (!(0 <= state.getRow() && state.getRow() < this.noRows
+                && 0 <= state.getCol() && state.getCol() < this.noCols)) {
+            return NO_COMPONENT;
+        }
+        return this.components[state.getRow() * this.noCols + state.getCol()];
+    }
+
+    /**
+     * returns the number of open cells in the given component
+     * @param component the number of the component
+     * @return the size of the component
+     */
+    public int componentSize(int component) {
+        return this.componentSizes[component];
+    }
+
+    /**
+     * returns the number of open cells in the largest component
+     * @return the size of the largest component, 0 if there are no open cells
+     */
+    public int largestComponentSize() {
+        int largest = 0;
+        for (int size : this.componentSizes) {
+            largest = Math.max(largest, size);
+        }
+        return largest;
+    }
+
+    /**
+     * checks whether one state can be reached from another
+     * @param from the state to start from
+     * @param to the state to reach
+     * @return true if both states are open and in the same component
+     */
+    public boolean isReachable(GameState from, GameState to) {
+        int component = this.componentOf(from);
+        return component != NO_COMPONENT && component == this.componentOf(to);
+    }
+
+    /**
+     * returns the root of the set the given cell is in, halving the path on the way
+     */
+    private static int find(int[] parents, int cell) {
+        while (parents[cell] != cell) {
+            parents[cell] = parents[parents[cell]];
+            cell = parents[cell];
+        }
+        return cell;
+    }
+
+    /**
+     * joins the sets of the two given cells, hanging the larger root below the smaller one
+     */
+    private static void union(int[] parents, int a, int b) {
+        int rootA = find(parents, a);
+        int rootB = find(parents, b);
+        if (rootA < rootB) {
+            parents[rootB] = rootA;
+        } else if (rootB < rootA) {
+            parents[rootA] = rootB;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package model;
+
+/**
+ * Dijkstra's algorithm over packed cell indices. Cells are ordered purely by
+ * their cost from the start, which is the A* search without a heuristic.
+ */
+public class DijkstraSearch extends GridAStar {
+
+    /**
+     * constructs a new Dijkstra search for the given environment
+     * @param gameEnv the environment of the game to be solved
+     */
+    public DijkstraSearch(GameEnv gameEnv) {
+        super(gameEnv, 1, 0);
+    }
+}
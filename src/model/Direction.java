@@ -0,0 +1,115 @@
+package model;
+
+/**
+ * an enum of the directions the goose can move in, with the row and column
+ * offset of a step in each. The ordinal of a direction is its bit in the
+ * masks returned by GameEnv.neighbors, and every direction has an action
+ * character for the char based API and the solutions of the search strategies.
+ */
+public enum Direction {
+    /**
+     * moving upwards, one row back
+     */
+    UP(-1, 0, GameEnv.UP),
+    /**
+     * moving downwards, one row on
+     */
+    DOWN(1, 0, GameEnv.DOWN),
+    /**
+     * moving left, one column back
+     */
+    LEFT(0, -1, GameEnv.LEFT),
+    /**
+     * moving right, one column on
+     */
+    RIGHT(0, 1, GameEnv.RIGHT);
+
+    /**
+     * the number of directions
+     */
+    public static final int COUNT = 4;
+    /**
+     * every direction in order of its ordinal, shared instead of copying values()
+     */
+    private static final Direction[] VALUES = values();
+
+    /**
+     * the change of the row for a step in this direction
+     */
+    private final int rowStep;
+    /**
+     * the change of the column for a step in this direction
+     */
+    private final int colStep;
+    /**
+     * the character representing the action of moving in this direction
+     */
+    private final char action;
+
+    /**
+     * constructs a direction
+     * @param rowStep the change of the row for a step
+     * @param colStep the change of the column for a step
+     * @param action the action character
+     */
+    Direction(int rowStep, int colStep, char action) {
+        this.rowStep = rowStep;
+        this.colStep = colStep;
+        this.action = action;
+    }
+
+    /**
+     * returns the change of the row for a step in this direction
+     * @return the row offset
+     */
+    public int getRowStep() {
+        return rowStep;
+    }
+
+    /**
+     * returns the change of the column for a step in this direction
+     * @return the column offset
+     */
+    public int getColStep() {
+        return colStep;
+    }
+
+    /**
+     * returns the character representing the action of moving in this direction
+     * @return the action character
+     */
+    public char getAction() {
+        return action;
+    }
+
+    /**
+     * returns the direction which undoes a step in this direction
+     * @return the opposite direction
+     */
+    public Direction opposite() {
+        return VALUES[this.ordinal() ^ 1];
+    }
+
+    /**
+     * returns the direction with the given ordinal, e.g. a bit of a neighbour mask
+     * @param index the ordinal of the direction
+     * @return the direction
+     */
+    public static Direction of(int index) {
+        return VALUES[index];
+    }
+
+    /**
+     * returns the direction of the given action character
+     * @param action a character representing an action
+     * @return the direction of the action
+     * @throws IllegalArgumentException if the character is not an action
+     */
+    public static Direction fromAction(char action) throws IllegalArgumentException {
+        int index = GameEnv.directionOf(action);
+        if (index < 0) {
+            throw new IllegalArgumentException("not an action: " + action);
+        }
+        return VALUES[index];
+    }
+}
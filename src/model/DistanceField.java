@@ -0,0 +1,205 @@
+package model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * a table holding the shortest distance from every cell of the maze to the exit.
+ * It is built once by a breadth-first search backwards from the exit and
+ * stored as a flat int array indexed by packed cell (row * noCols + col).
+ * Afterwards the distance to the exit, the best next action and the whole
+ * remaining path can be read off from any state in constant time per step,
+ * without running a new search. A field can also be built towards any other
+ * target cell, in which case "exit" below means that target.
+ */
+public class DistanceField {
+    /**
+     * the distance stored for cells from which the exit cannot be reached
+     */
+    public static final int UNREACHABLE = -1;
+    /**
+     * the action returned when there is no move which brings the player closer to the exit
+     */
+    public static final char NO_ACTION = ' ';
+
+    /**
+     * the number of rows in the maze
+     */
+    private final int noRows;
+    /**
+     * the number of columns in the maze
+     */
+    private final int noCols;
+    /**
+     * the distance from every packed cell to the exit, or UNREACHABLE
+     */
+    private final int[] distances;
+
+    /**
+     * constructs the distance field of the given environment by searching backwards from its exit
+     * @param gameEnv the environment of the game
+     */
+    public DistanceField(GameEnv gameEnv) {
+        this(gameEnv, gameEnv.stateAt(gameEnv.getExitRow(), gameEnv.getExitCol()));
+    }
+
+    /**
+     * constructs the distance field towards the given target by searching backwards from it
+     * @param gameEnv the environment of the game
+     * @param target the state every distance is measured to
+     */
+    public DistanceField(GameEnv gameEnv, GameState target) {
+        WallStorage walls = gameEnv.getWalls();
+        this.noRows = gameEnv.getNoRows();
+        this.noCols = gameEnv.getNoCols();
+        this.distances = new int[this.noRows * this.noCols];
+        Arrays.fill(this.distances, UNREACHABLE);
+        int exitRow = target.getRow();
+        int exitCol = target.getCol();
+        if (walls.isWall(exitRow, exitCol)) {
+            return;
+        }
+        int[] queue = new int[this.distances.length];
+        int head = 0;
+        int tail = 0;
+        int exit = exitRow * this.noCols + exitCol;
+        this.distances[exit] = 0;
+        queue[tail++] = exit;
+        while (head < tail) {
+            int cell = queue[head++];
+            int nextDistance = this.distances[cell] + GameEnv.ACTION_COST;
+            int mask = gameEnv.neighbors(cell);
+            for (int dir = 0; dir < Direction.COUNT; dir++) {
+                if ((mask & (1 << dir)) == 0) {
+                    continue;
+                }
+                int next = gameEnv.step(cell, dir);
+                if (this.distances[next] == UNREACHABLE) {
+                    this.distances[next] = nextDistance;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * constructs a field from distances found before
+     */
+    private DistanceField(int noRows, int noCols, int[] distances) {
+        this.noRows = noRows;
+        this.noCols = noCols;
+        this.distances = distances;
+    }
+
+    /**
+     * writes the distance of every cell in the form read by {@link #read(GameEnv, ByteBuffer)}
+     * @param out the output to write to
+     * @throws IOException if the output cannot be written
+     */
+    public void write(DataOutput out) throws IOException {
+        for (int distance : this.distances) {
+            out.writeInt(distance);
+        }
+    }
+
+    /**
+     * reads a field written by {@link #write(DataOutput)} for the maze of the given environment
+     * @param gameEnv the environment of the game the field was built for
+     * @param in a buffer holding exactly the written field
+     * @return the distance field
+     * @throws IllegalArgumentException if the buffer does not hold a field of the size of the maze
+     */
+    public static DistanceField read(GameEnv gameEnv, ByteBuffer in) throws IllegalArgumentException {
+        IntBuffer ints = in.asIntBuffer();
+        if (ints.remaining() != gameEnv.getNoRows() * gameEnv.getNoCols()) {
+            throw new IllegalArgumentException("the distance field does not match the maze");
+        }
+        int[] distances = new int[ints.remaining()];
+        ints.get(distances);
+        return new DistanceField(gameEnv.getNoRows(), gameEnv.getNoCols(), distances);
+    }
+
+    /**
+     * returns the number of actions needed to reach the exit from the given state
+     * @param state the state to measure from
+     * @return the distance to the exit, or UNREACHABLE if the exit cannot be reached
+     */
+    public int distanceToExit(GameState state) {
+        return this.distanceToExit(state.getRow(), state.getCol());
+    }
+
+    /**
+     * returns the best action to take in the given state, i.e. the first
+     * action of a shortest path to the exit
+     * @param state the state to move from
+     * @return the action to take, or NO_ACTION if the state is the exit or cannot reach it
+     */
+    public char bestAction(GameState state) {
+        int dir = this.bestDirection(state.getRow(), state.getCol());
+        return dir < 0 ? NO_ACTION : Direction.of(dir).getAction();
+    }
+
+    /**
+     * returns a shortest list of actions which leads from the given state to the exit
+     * Note: if the exit cannot be reached an empty list will be returned.
+     * @param state the state to start from
+     * @return a list containing action characters which
+     *          when performed in the given order will reach the exit
+     */
+    public List<Character> pathFrom(GameState state) {
+        int row = state.getRow();
+        int col = state.getCol();
+        List<Character> seq = new ArrayList<>();
+        int dir;
+        while ((dir = this.bestDirection(row, col)) >= 0) {
+            Direction direction = Direction.of(dir);
+            seq.add(direction.getAction());
+            row += direction.getRowStep();
+            col += direction.getColStep();
+        }
+        return seq;
+    }
+
+    /**
+     * returns the distance to the exit of the given packed cell
+     * @param cell the packed cell index (row * noCols + col)
+     * @return the distance to the exit, or UNREACHABLE if the exit cannot be reached
+     */
+    int distanceAt(int cell) {
+        return this.distances[cell];
+    }
+
+    /**
+     * returns the distance to the exit of the cell at the given position
+     */
+    private int distanceToExit(int row, int col) {
+        if (row < 0 || row >= this.noRows || col < 0 || col >= this.noCols) {
+            return UNREACHABLE;
+        }
+        return this.distances[row * this.noCols + col];
+    }
+
+    /**
+     * returns the direction leading to a neighbour which is one step closer
+     * to the exit, or -1 if there is none
+     */
+    private int bestDirection(int row, int col) {
+        int distance = this.distanceToExit(row, col);
+        if (distance <= 0) {
+            return -1;
+        }
+        for (int dir = 0; dir < Direction.COUNT; dir++) {
+            Direction direction = Direction.of(dir);
+            if (this.distanceToExit(row + direction.getRowStep(), col + direction.getColStep())
+                    == distance - GameEnv.ACTION_COST) {
+                return dir;
+            }
+        }
+        return -1;
+    }
+}
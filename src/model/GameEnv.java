@@ -3,9 +3,16 @@ package model;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * a class used to store data about the game described in a maze file and handle changes of state
+ * <p>
+ * The maze is changed by a single thread, but the view, the states and the
+ * data derived from the walls are built on first request and can be asked
+ * for by many threads at once, e.g. by solvers running in the background.
+ * Each of them is built at most once and published through a volatile field.
+ * </p>
  */
 
 public class GameEnv {
@@ -67,7 +74,9 @@ public class GameEnv {
     public static final char RIGHT = 'r';
     /**
      * a list containing all possible actions
+     * @deprecated use {@link Direction}, which has the action character of every direction
      */
+    @Deprecated
     public static final List<Character> ACTIONS = new ArrayList<>(
             Arrays.asList(UP, DOWN, LEFT, RIGHT));
     /**
@@ -75,9 +84,40 @@ public class GameEnv {
      */
     public static final int ACTION_COST = 1;
     /**
-     * a 2d array of characters representing the maze
+     * the number of bits of a packed cell index which select a state within a page of the state table
      */
-    private char[][] mazeRepr;
+    private static final int STATE_PAGE_BITS = 12;
+    /**
+     * the walls of the maze, one bit per cell
+     */
+    private WallStorage walls;
+    /**
+     * the open directions of every cell, one nibble per cell packed two to a
+     * byte, with bit d set if moving in direction d stays inside the maze and
+     * does not hit a wall, or null if the maze has too many cells for an array
+     * or the table is kept off the heap
+     */
+    private byte[] moves;
+    /**
+     * the same table of open directions kept outside the Java heap, used
+     * instead of moves when the walls are stored off the heap, or null
+     */
+    private OffHeapBits offHeapMoves;
+    /**
+     * the change of the packed cell index for a step in every direction
+     */
+    private int[] cellSteps;
+    /**
+     * the shared state of every cell handed out by stateAt, in pages which
+     * are only filled once a state on them is asked for
+     */
+    private volatile AtomicReferenceArray<GameState[]> states;
+    /**
+     * a 2d array of characters representing the maze, built from the walls
+     * when a viewer first asks for it, or null. An array a maze is read from
+     * is only kept if it has no start or no exit, which the walls cannot show.
+     */
+    private volatile char[][] mazeRepr;
     /**
      * the initial row position of the goose when the game starts
      */
@@ -102,21 +142,293 @@ public class GameEnv {
      * the number of columns in the maze
      */
     private int noCols;
+    /**
+     * the distance from every cell to the exit, built on first request
+     * and discarded whenever the maze changes
+     */
+    private volatile DistanceField distanceField;
+    /**
+     * the graph of the junctions of the maze, built on first request
+     * and discarded whenever the maze changes
+     */
+    private volatile JunctionGraph junctionGraph;
+    /**
+     * the abstract graph of cluster entrances used by hierarchical search,
+     * built on first request and discarded whenever the maze changes
+     */
+    private volatile ClusterGraph clusterGraph;
+    /**
+     * the connected components of the open cells, built on first request
+     * and discarded whenever the walls change
+     */
+    private volatile ConnectivityIndex connectivityIndex;
+    /**
+     * the source of derived data computed ahead of time, or null. It is
+     * dropped with the derived data whenever the walls change
+     */
+    private volatile PrecomputedData precomputedData;
+    /**
+     * held while the view or derived data is built, so it is only built once
+     */
+    private final Object buildLock = new Object();
+    /**
+     * the listeners which are told about every change to the maze
+     */
+    private final List<MazeChangeListener> mazeChangeListeners = new ArrayList<>();
 
     /**
-     * returns a 2d char array representation of the maze
+     * returns a 2d char array representation of the maze.
+     * The array is built from the walls on the first call, so it only costs
+     * memory once a viewer needs it. Every path tile is shown as PATH1.
      * @return a representation of the maze
      */
     public char[][] getMazeRepr() {
-        return mazeRepr;
+        char[][] maze = this.mazeRepr;
+        if (maze == null) {
+            synchronized (this.buildLock) {
+                maze = this.mazeRepr;
+                if (maze == null) {
+                    maze = new char[this.noRows][this.noCols];
+                    for (int i = 0; i < this.noRows; i++) {
+                        for (int j = 0; j < this.noCols; j++) {
+                            maze[i][j] = this.getTile(i, j);
+                        }
+                    }
+                    this.mazeRepr = maze;
+                }
+            }
+        }
+        return maze;
     }
 
     /**
-     * sets the representation of the maze
+     * sets the representation of the maze. The walls, start and exit are read from the new array.
      * @param mazeRepr a new maze 2d char array to replace the old
      */
     public void setMazeRepr(char[][] mazeRepr) {
-        this.mazeRepr = mazeRepr;
+        this.readMaze(mazeRepr);
+        this.buildMoves();
+        this.states = null;
+        this.discardDerivedData();
+        for (MazeChangeListener listener : this.mazeChangeListeners) {
+            listener.mazeReplaced();
+        }
+    }
+
+    /**
+     * returns the walls of the maze
+     * @return the storage of the walls, which must not be changed directly
+     */
+    public WallStorage getWalls() {
+        return walls;
+    }
+
+    /**
+     * checks whether the given cell is a wall. Cells outside the maze count as walls.
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return true if the cell is a wall or outside the maze
+     */
+    public boolean isWall(int row, int col) {
+        return !(0 <= row && row < this.noRows && 0 <= col && col < this.noCols) || this.walls.isWall(row, col);
+    }
+
+    /**
+     * returns the tile of the given cell as the char[][] view shows it,
+     * without building the view if it does not exist yet. The marks of a
+     * game in progress are kept by its GameSession, not by the environment.
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the tile of the cell
+     */
+    public char getTile(int row, int col) {
+        char[][] maze = this.mazeRepr;
+        if (maze != null) {
+            return maze[row][col];
+        }
+        if (this.walls.isWall(row, col)) {
+            return WALL;
+        } else if (row == this.initRow && col == this.initCol) {
+            return START_POINT;
+        } else if (row == this.exitRow && col == this.exitCol) {
+            return END_POINT;
+        }
+        return PATH1;
+    }
+
+    /**
+     * changes a single cell of the maze, e.g. to open or close a wall during play.
+     * Cached data derived from the walls is discarded if the cell changes
+     * between a wall and a path, and every listener is told about the change.
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @param tile the new tile, either a wall or one of the path tiles
+     * @throws IllegalArgumentException if the cell is outside the maze, is the
+     *          start or the exit, or the tile is not a wall or a path
+     */
+    public void setCell(int row, int col, char tile) throws IllegalArgumentException {
+        if (!(0 <= row && row < this.noRows && 0 <= col && col < this.noCols)) {
+            throw new IllegalArgumentException("cell is outside the maze: " + row + "," + col);
+        }
+        if ((row == this.initRow && col == this.initCol) || (row == this.exitRow && col == this.exitCol)) {
+            throw new IllegalArgumentException("the start and exit cannot be changed: " + row + "," + col);
+        }
+        if (tile != WALL && !PATHS.contains(tile)) {
+            throw new IllegalArgumentException("not a wall or path tile: " + tile);
+        }
+        char oldTile = this.getTile(row, col);
+        this.walls.setWall(row, col, tile == WALL);
+        char[][] maze = this.mazeRepr;
+        if (maze != null) {
+            maze[row][col] = tile;
+        }
+        if ((oldTile == WALL) != (tile == WALL)) {
+            for (int dir = 0; dir < Direction.COUNT; dir++) {
+                int nextRow = row + Direction.of(dir).getRowStep();
+                int nextCol = col + Direction.of(dir).getColStep();
+                if (0 <= nextRow && nextRow < this.noRows && 0 <= nextCol && nextCol < this.noCols) {
+                    this.updateMoves(nextRow, nextCol);
+                }
+            }
+            this.discardDerivedData();
+        }
+        for (MazeChangeListener listener : this.mazeChangeListeners) {
+            listener.cellChanged(row, col, oldTile, tile);
+        }
+    }
+
+    /**
+     * registers a listener to be told about every change to the maze
+     * @param listener the listener to add
+     */
+    public void addMazeChangeListener(MazeChangeListener listener) {
+        this.mazeChangeListeners.add(listener);
+    }
+
+    /**
+     * stops telling the given listener about changes to the maze
+     * @param listener the listener to remove
+     */
+    public void removeMazeChangeListener(MazeChangeListener listener) {
+        this.mazeChangeListeners.remove(listener);
+    }
+
+    /**
+     * discards every cached structure derived from the walls of the maze so it is rebuilt on next request
+     */
+    private void discardDerivedData() {
+        this.precomputedData = null;
+        this.distanceField = null;
+        this.junctionGraph = null;
+        this.clusterGraph = null;
+        this.connectivityIndex = null;
+    }
+
+    /**
+     * sets the source of derived data computed ahead of time, which is asked
+     * before the distance field, junction graph or connectivity index is built.
+     * The source is dropped as soon as the walls of the maze change.
+     * @param precomputedData the source of the data, or null to build all data from the walls
+     */
+    public void setPrecomputedData(PrecomputedData precomputedData) {
+        this.precomputedData = precomputedData;
+    }
+
+    /**
+     * returns the distance from every cell of the maze to the exit.
+     * The field is built once on first request and reused until the maze is replaced.
+     * @return the distance field of the maze
+     */
+    public DistanceField getDistanceField() {
+        DistanceField field = this.distanceField;
+        if (field == null) {
+            synchronized (this.buildLock) {
+                field = this.distanceField;
+                if (field == null) {
+                    PrecomputedData precomputed = this.precomputedData;
+                    field = precomputed == null ? null : precomputed.distanceField(this);
+                    if (field == null) {
+                        field = new DistanceField(this);
+                    }
+                    this.distanceField = field;
+                }
+            }
+        }
+        return field;
+    }
+
+    /**
+     * returns the graph of the junctions of the maze, in which every corridor
+     * is a single weighted edge. The graph is built once on first request and
+     * reused until the maze is replaced.
+     * @return the junction graph of the maze
+     */
+    public JunctionGraph getJunctionGraph() {
+        JunctionGraph graph = this.junctionGraph;
+        if (graph == null) {
+            synchronized (this.buildLock) {
+                graph = this.junctionGraph;
+                if (graph == null) {
+                    PrecomputedData precomputed = this.precomputedData;
+                    graph = precomputed == null ? null : precomputed.junctionGraph(this);
+                    if (graph == null) {
+                        graph = new JunctionGraph(this);
+                    }
+                    this.junctionGraph = graph;
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * returns the abstract graph of cluster entrances used by hierarchical search.
+     * The graph is built once on first request and reused until the maze is replaced.
+     * @return the cluster graph of the maze
+     */
+    public ClusterGraph getClusterGraph() {
+        ClusterGraph graph = this.clusterGraph;
+        if (graph == null) {
+            synchronized (this.buildLock) {
+                graph = this.clusterGraph;
+                if (graph == null) {
+                    graph = new ClusterGraph(this, ClusterGraph.DEFAULT_CLUSTER_SIZE);
+                    this.clusterGraph = graph;
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * returns the index of the connected components of the open cells of the maze.
+     * The index is built once on first request and reused until the walls change.
+     * @return the connectivity index of the maze
+     */
+    public ConnectivityIndex getConnectivityIndex() {
+        ConnectivityIndex index = this.connectivityIndex;
+        if (index == null) {
+            synchronized (this.buildLock) {
+                index = this.connectivityIndex;
+                if (index == null) {
+                    PrecomputedData precomputed = this.precomputedData;
+                    index = precomputed == null ? null : precomputed.connectivityIndex(this);
+                    if (index == null) {
+                        index = new ConnectivityIndex(this);
+                    }
+                    this.connectivityIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * checks whether the exit can be reached from the start without searching for a path
+     * @return true if the maze can be solved
+     */
+    public boolean isSolvable() {
+        return this.getConnectivityIndex().isReachable(this.getInitState(), this.stateAt(this.exitRow, this.exitCol));
     }
 
     /**
@@ -154,27 +466,315 @@ public class GameEnv {
     /**
      * constructs a new instance of GameEnv which takes in the
      * data from a maze representation array and parses it into
-     * a useful form
+     * a useful form. The walls are copied into a bitmap which every
+     * search and move is checked against, and the array is not kept, so
+     * the maze costs a bit per cell until a viewer asks for getMazeRepr.
      * @param mazeRepr a 2d char array representing a maze
      */
     public GameEnv(char[][] mazeRepr) {
-        this.mazeRepr = mazeRepr;
+        this.readMaze(mazeRepr);
+        this.buildMoves();
+    }
+
+    /**
+     * reads the walls, start and exit of a maze representation array
+     */
+    private void readMaze(char[][] mazeRepr) {
+        this.walls = WallBitmap.of(mazeRepr);
         this.noRows = mazeRepr.length;
-        this.noCols = this.mazeRepr[0].length;
-        for (int i = 0; i < this.mazeRepr.length; i++) {
-            for (int j = 0; j < this.mazeRepr[i].length; j++) {
-                if (this.mazeRepr[i][j] == START_POINT) {
+        this.noCols = mazeRepr[0].length;
+        this.initRow = this.initCol = this.exitRow = this.exitCol = 0;
+        boolean hasStart = false;
+        boolean hasExit = false;
+        for (int i = 0; i < mazeRepr.length; i++) {
+            for (int j = 0; j < mazeRepr[i].length; j++) {
+                if (mazeRepr[i][j] == START_POINT) {
                     this.initRow = i;
                     this.initCol = j;
-                } else if (this.mazeRepr[i][j] == END_POINT) {
+                    hasStart = true;
+                } else if (mazeRepr[i][j] == END_POINT) {
                     this.exitRow = i;
                     this.exitCol = j;
+                    hasExit = true;
                 }
+            }
+        }
+        // without both endpoints the view could not be rebuilt from the walls
+        this.mazeRepr = hasStart && hasExit ? null : mazeRepr;
+    }
 
+    /**
+     * constructs a new instance of GameEnv from the walls of a maze alone.
+     * No char[][] view is built until getMazeRepr is called, so a large maze
+     * only costs one bit per cell for the walls and four for the table of
+     * moves, both of which are kept off the heap with an OffHeapWallBitmap.
+     * @param walls the walls of the maze
+     * @param initState the initial position of the goose
+     * @param exitState the position of the exit
+     * @throws IllegalArgumentException if the start or the exit is outside the maze or a wall
+     */
+    public GameEnv(WallStorage walls, GameState initState, GameState exitState) throws IllegalArgumentException {
+        this(walls, null, initState, exitState);
+    }
 
+    /**
+     * constructs a new instance of GameEnv from walls and endpoints which were
+     * found while the maze was read, e.g. by a loader which parses the file in
+     * parallel, so the maze is not scanned again for them.
+     * @param walls the walls of the maze
+     * @param mazeRepr the matching 2d char array kept as the view returned by getMazeRepr, or null to build it when asked for
+     * @param initState the initial position of the goose
+     * @param exitState the position of the exit
+     * @throws IllegalArgumentException if the start or the exit is outside the maze or a wall
+     */
+    public GameEnv(WallStorage walls, char[][] mazeRepr, GameState initState, GameState exitState)
+            throws IllegalArgumentException {
+        this.walls = walls;
+        this.mazeRepr = mazeRepr;
+        this.noRows = walls.getNoRows();
+        this.noCols = walls.getNoCols();
+        if (this.isWall(initState.getRow(), initState.getCol())) {
+            throw new IllegalArgumentException("the start is not an open cell: " + initState);
+        }
+        if (this.isWall(exitState.getRow(), exitState.getCol())) {
+            throw new IllegalArgumentException("the exit is not an open cell: " + exitState);
+        }
+        this.initRow = initState.getRow();
+        this.initCol = initState.getCol();
+        this.exitRow = exitState.getRow();
+        this.exitCol = exitState.getCol();
+        this.buildMoves();
+    }
+
+    /**
+     * constructs a new instance of GameEnv from a maze representation array,
+     * storing the walls on the heap or off it as chosen. If the walls are
+     * stored off the heap the array is not kept, so it can be garbage collected
+     * once loading is done.
+     * @param mazeRepr a 2d char array representing a maze
+     * @param offHeap true to store the walls outside the Java heap
+     * @return the environment of the maze
+     * @throws IllegalArgumentException if the maze has no start or no exit
+     */
+    public static GameEnv load(char[][] mazeRepr, boolean offHeap) throws IllegalArgumentException {
+        if (!offHeap) {
+            return new GameEnv(mazeRepr);
+        }
+        GameState initState = null;
+        GameState exitState = null;
+        for (int i = 0; i < mazeRepr.length; i++) {
+            for (int j = 0; j < mazeRepr[i].length; j++) {
+                if (mazeRepr[i][j] == START_POINT) {
+                    initState = new GameState(i, j);
+                } else if (mazeRepr[i][j] == END_POINT) {
+                    exitState = new GameState(i, j);
+                }
+            }
+        }
+        if (initState == null || exitState == null) {
+            throw new IllegalArgumentException("the maze has no start or no exit");
+        }
+        return new GameEnv(WallStorage.of(mazeRepr, true), initState, exitState);
+    }
+
+    /**
+     * builds the table of open directions of every cell from the walls,
+     * unless the packed cell indices of the maze do not fit into an int.
+     * The table is kept off the heap if the walls are.
+     */
+    private void buildMoves() {
+        this.cellSteps = new int[] {-this.noCols, this.noCols, -1, 1};
+        long cells = this.getNoCells();
+        this.moves = null;
+        this.offHeapMoves = null;
+        if (cells > Integer.MAX_VALUE - 8) {
+            return;
+        }
+        if (this.walls.isOffHeap()) {
+            this.offHeapMoves = new OffHeapBits(cells * 4);
+        } else {
+            this.moves = new byte[(int) ((cells + 1) >>> 1)];
+        }
+        // sweep the rows keeping the open cells of the row and the rows around it,
+        // so every wall is read once instead of once per neighbour
+        boolean[] above = new boolean[this.noCols];
+        boolean[] row = this.readOpenCells(0, new boolean[this.noCols]);
+        boolean[] below = new boolean[this.noCols];
+        for (int i = 0; i < this.noRows; i++) {
+            below = this.readOpenCells(i + 1, below);
+            int cell = i * this.noCols;
+            for (int j = 0; j < this.noCols; j++, cell++) {
+                int mask = (above[j] ? 1 : 0) | (below[j] ? 2 : 0)
+                        | (j > 0 && row[j - 1] ? 4 : 0) | (j + 1 < this.noCols && row[j + 1] ? 8 : 0);
+                this.setMoves(cell, mask);
+            }
+            boolean[] free = above;
+            above = row;
+            row = below;
+            below = free;
+        }
+    }
+
+    /**
+     * fills the given array with whether every cell of the given row is open,
+     * all false for rows outside the maze
+     * @return the filled array
+     */
+    private boolean[] readOpenCells(int row, boolean[] open) {
+        if (row >= this.noRows) {
+            Arrays.fill(open, false);
+            return open;
+        }
+        long cell = (long) row * this.noCols;
+        for (int j = 0; j < this.noCols; j++) {
+            open[j] = !this.walls.isWall(cell + j);
+        }
+        return open;
+    }
+
+    /**
+     * recomputes the open directions of the given cell from the walls around it
+     */
+    private void updateMoves(int row, int col) {
+        if (this.hasMoveTable()) {
+            this.setMoves(row * this.noCols + col, this.openDirections(row, col));
+        }
+    }
+
+    /**
+     * writes the mask of open directions of the given cell into the table
+     */
+    private void setMoves(int cell, int mask) {
+        if (this.moves == null) {
+            this.offHeapMoves.setNibble(cell, mask);
+            return;
+        }
+        int shift = (cell & 1) << 2;
+        this.moves[cell >>> 1] = (byte) ((this.moves[cell >>> 1] & ~(0xF << shift)) | (mask << shift));
+    }
+
+    /**
+     * returns a mask of the open directions of the given cell, read from the walls around it
+     */
+    private int openDirections(int row, int col) {
+        int mask = 0;
+        for (int dir = 0; dir < Direction.COUNT; dir++) {
+            Direction direction = Direction.of(dir);
+            if (!this.isWall(row + direction.getRowStep(), col + direction.getColStep())) {
+                mask |= 1 << dir;
             }
+        }
+        return mask;
+    }
+
+    /**
+     * returns the number of cells in the maze
+     * @return the number of rows times the number of columns
+     */
+    public long getNoCells() {
+        return (long) this.noRows * this.noCols;
+    }
+
+    /**
+     * checks whether the table of open directions was built, which is the case
+     * for every maze whose packed cell indices fit into an int. The int based
+     * {@link #neighbors(int)}, {@link #step(int, int)} and {@link #cellOf(int, int)}
+     * and the search strategies built on them need the table, larger mazes are
+     * only served by the long based methods.
+     * @return true if the maze has fewer than 2^31 cells
+     */
+    public boolean hasMoveTable() {
+        return this.moves != null || this.offHeapMoves != null;
+    }
 
+    /**
+     * checks whether isSolvable may be asked, which builds the connectivity
+     * index with an int per cell on the heap. That is only done for mazes
+     * with a move table whose walls are on the heap, as an index would undo
+     * keeping the walls off the heap. Callers leave other mazes to the search.
+     * @return true if the connectivity index may be built
+     */
+    public boolean canCheckSolvable() {
+        return this.hasMoveTable() && !this.walls.isOffHeap();
+    }
+
+    /**
+     * returns a mask of the directions which can be moved in from the given cell.
+     * This works for mazes of any size: the table is used if there is one,
+     * otherwise the walls around the cell are read.
+     * The cell is not checked so it must be inside the maze.
+     * @param cell the packed cell index
+     * @return the mask of open directions, bit d for direction d in the order of Direction
+     */
+    public int openDirections(long cell) {
+        if (this.hasMoveTable()) {
+            return this.neighbors((int) cell);
         }
+        int row = (int) (cell / this.noCols);
+        return this.openDirections(row, (int) (cell - (long) row * this.noCols));
+    }
+
+    /**
+     * returns the cell reached by moving in the given direction, for mazes of any size.
+     * No checks are made so the direction must be open according to {@link #openDirections(long)}.
+     * @param cell the packed cell index to move from
+     * @param dir the direction to move in, in the order of Direction
+     * @return the packed cell index which is moved to
+     */
+    public long step(long cell, int dir) {
+        return cell + this.cellSteps[dir];
+    }
+
+    /**
+     * returns the packed index of the given cell, which neighbors and step work on
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the packed cell index row * noCols + col
+     */
+    public int cellOf(int row, int col) {
+        return row * this.noCols + col;
+    }
+
+    /**
+     * returns a mask of the directions which can be moved in from the given cell,
+     * read from a table built when the maze is loaded. Bit d is set if moving in
+     * direction d, in the order of Direction, stays inside the maze and does not hit a wall.
+     * The cell is not checked so it must be inside the maze.
+     * @param cell the packed cell index
+     * @return the mask of open directions
+     */
+    public int neighbors(int cell) {
+        byte[] moves = this.moves;
+        if (moves == null) {
+            return this.offHeapMoves.getNibble(cell);
+        }
+        return (moves[cell >>> 1] >>> ((cell & 1) << 2)) & 0xF;
+    }
+
+    /**
+     * returns the cell reached by moving in the given direction. No checks
+     * are made so the direction must be open according to {@link #neighbors(int)}.
+     * @param cell the packed cell index to move from
+     * @param dir the direction to move in, in the order of Direction
+     * @return the packed cell index which is moved to
+     */
+    public int step(int cell, int dir) {
+        return cell + this.cellSteps[dir];
+    }
+
+    /**
+     * returns the direction of the given action
+     * @param action a character representing an action
+     * @return the ordinal of the Direction of the action, or -1 if it is not an action
+     */
+    public static int directionOf(char action) {
+        return switch (action) {
+            case UP -> 0;
+            case DOWN -> 1;
+            case LEFT -> 2;
+            case RIGHT -> 3;
+            default -> -1;
+        };
     }
 
     /**
@@ -182,53 +782,85 @@ public class GameEnv {
      * @return the initial state
      */
     public GameState getInitState() {
-        return new GameState(this.initRow, this.initCol);
+        return this.stateAt(this.initRow, this.initCol);
+    }
+
+    /**
+     * returns the state of the player standing at the given cell. There is
+     * one shared instance for every cell of the maze, so searches and moves
+     * do not allocate new states. Cells outside the maze get a new instance.
+     * A page of states is filled in full the first time a state on it is
+     * asked for, so threads asking at the same time get the same instance.
+     * @param row the row position of the player
+     * @param col the column position of the player
+     * @return the state at the given cell
+     */
+    public GameState stateAt(int row, int col) {
+        if (!(0 <= row && row < this.noRows && 0 <= col && col < this.noCols)) {
+            return new GameState(row, col);
+        }
+        AtomicReferenceArray<GameState[]> pages = this.states;
+        if (pages == null) {
+            synchronized (this.buildLock) {
+                pages = this.states;
+                if (pages == null) {
+                    pages = new AtomicReferenceArray<>((int) ((this.getNoCells() >>> STATE_PAGE_BITS) + 1));
+                    this.states = pages;
+                }
+            }
+        }
+        long cell = (long) row * this.noCols + col;
+        int pageIndex = (int) (cell >>> STATE_PAGE_BITS);
+        GameState[] page = pages.get(pageIndex);
+        if (page == null) {
+            page = this.statePage(pageIndex);
+            if (!pages.compareAndSet(pageIndex, null, page)) {
+                // another thread filled the page first
+                page = pages.get(pageIndex);
+            }
+        }
+        return page[(int) cell & ((1 << STATE_PAGE_BITS) - 1)];
+    }
+
+    /**
+     * builds the states of every cell of the given page of the state table
+     */
+    private GameState[] statePage(int pageIndex) {
+        GameState[] page = new GameState[1 << STATE_PAGE_BITS];
+        long first = (long) pageIndex << STATE_PAGE_BITS;
+        int size = (int) Math.min(page.length, this.getNoCells() - first);
+        for (int i = 0; i < size; i++) {
+            long cell = first + i;
+            page[i] = new GameState((int) (cell / this.noCols), (int) (cell % this.noCols));
+        }
+        return page;
     }
 
     /**
      * determines whether an action is valid from a given state
      * and if so returns the next state. If it is invalid
-     * returns a deepcopy of the current gamestate.
+     * returns the given state.
      * @param state the state to transition from
      * @param action the action being taken in the state
      * @return a gamestate object representing the next state
      */
     public GameState performAction(GameState state, char action) {
-        // check for invalid action
-        if (!ACTIONS.contains(action)) {
-            return state.deepCopy();
-        }
-        // find next coordinate based on action
-        int nextRow;
-        int nextCol;
-        switch (action) {
-            case LEFT -> {
-                nextRow = state.getRow();
-                nextCol = state.getCol() - 1;
-            }
-            case RIGHT -> {
-                nextRow = state.getRow();
-                nextCol = state.getCol() + 1;
-            }
-            case UP -> {
-                nextRow = state.getRow() - 1;
-                nextCol = state.getCol();
-            }
-            case DOWN -> {
-                nextRow = state.getRow() + 1;
-                nextCol = state.getCol();
-            }
-            default -> {
-                return state.deepCopy();
-            }
-        }
+        int dir = directionOf(action);
+        return dir < 0 ? state : this.performAction(state, Direction.of(dir));
+    }
 
-        GameState nextState = new GameState(nextRow, nextCol);
-        if (isValid(nextState)) {
-            return nextState;
-        } else {
-            return state.deepCopy();
+    /**
+     * moves one step in the given direction from a given state if the step
+     * is valid and returns the next state, otherwise returns the given state.
+     * @param state the state to transition from
+     * @param direction the direction to move in
+     * @return a gamestate object representing the next state
+     */
+    public GameState performAction(GameState state, Direction direction) {
+        if (!this.isValid(state, direction)) {
+            return state;
         }
+        return this.stateAt(state.getRow() + direction.getRowStep(), state.getCol() + direction.getColStep());
     }
 
     /**
@@ -244,7 +876,7 @@ public class GameEnv {
 
         }
         //check for collision
-        if (this.mazeRepr[state.getRow()][state.getCol()] == WALL) {
+        if (this.walls.isWall(state.getRow(), state.getCol())) {
             // state results in collision
             return false;
         }
@@ -259,7 +891,24 @@ public class GameEnv {
      */
 
     public boolean isValid(GameState state, char action) {
-        return !performAction(state, action).equals(state);
+        int dir = directionOf(action);
+        // check for invalid action
+        return dir >= 0 && this.isValid(state, Direction.of(dir));
+    }
+
+    /**
+     * checks whether moving in the given direction is possible in the given state
+     * @param state a gamestate object to be checked for validity
+     * @param direction the direction to move in
+     * @return true if the step stays inside the maze and does not hit a wall
+     */
+    public boolean isValid(GameState state, Direction direction) {
+        // check state within bounds
+        if (!(0 <= state.getRow() && state.getRow() < this.noRows
+                && 0 <= state.getCol() && state.getCol() < this.noCols)) {
+            return false;
+        }
+        return (this.openDirections((long) state.getRow() * this.noCols + state.getCol()) & (1 << direction.ordinal())) != 0;
     }
 
     /**
@@ -0,0 +1,181 @@
+package model;
+
+/**
+ * a class which holds everything that changes while one game is played:
+ * the position of the player and the cells it has traversed and backtracked
+ * over. The maze itself stays in the GameEnv and is never written to by a
+ * session, so one loaded maze can be shared by many sessions and by
+ * solvers running at the same time.
+ * <p>
+ * A session is changed by a single thread. Viewers on other threads, such as
+ * the Swing event thread, are handed snapshots, which never change and
+ * cost one reference per 65536 cells to take.
+ * </p>
+ */
+public class GameSession {
+    /**
+     * the environment of the game being played
+     */
+    private final GameEnv gameEnv;
+    /**
+     * the cells the player has walked over
+     */
+    private final CellOverlay trail;
+    /**
+     * the cells the player has walked back over
+     */
+    private final CellOverlay backtrack;
+    /**
+     * the current state of the game
+     */
+    private GameState state;
+
+    /**
+     * constructs a new session with the player at the start of the maze
+     * @param gameEnv the environment of the game to be played
+     */
+    public GameSession(GameEnv gameEnv) {
+        this.gameEnv = gameEnv;
+        long noCells = gameEnv.getNoCells();
+        this.trail = new CellOverlay(noCells);
+        this.backtrack = new CellOverlay(noCells);
+        this.state = gameEnv.getInitState();
+        this.trail.set(this.cellOf(this.state), true);
+    }
+
+    /**
+     * returns the environment of the game being played
+     * @return the environment of the game
+     */
+    public GameEnv getGameEnv() {
+        return gameEnv;
+    }
+
+    /**
+     * returns the current state of the game
+     * @return the state of the player
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * checks whether the player has reached the exit
+     * @return true if the maze has been solved
+     */
+    public boolean isSolved() {
+        return this.gameEnv.isSolved(this.state);
+    }
+
+    /**
+     * moves the player by the given action if it is valid
+     * @param action a character representing the action to be taken
+     * @return true if the player moved
+     */
+    public boolean move(char action) {
+        int dir = GameEnv.directionOf(action);
+        return dir >= 0 && this.move(Direction.of(dir));
+    }
+
+    /**
+     * moves the player one step in the given direction if it is valid. The
+     * cell moved to is marked as traversed. If it was traversed already the
+     * player is walking back, and the cell moved from is marked as backtracked.
+     * @param direction the direction to move in
+     * @return true if the player moved
+     */
+    public boolean move(Direction direction) {
+        if (!this.gameEnv.isValid(this.state, direction)) {
+            return false;
+        }
+        GameState next = this.gameEnv.performAction(this.state, direction);
+        long from = this.cellOf(this.state);
+        long to = this.cellOf(next);
+        if (this.trail.get(to)) {
+            this.trail.set(from, false);
+            this.backtrack.set(from, true);
+        }
+        this.trail.set(to, true);
+        this.backtrack.set(to, false);
+        this.state = next;
+        return true;
+    }
+
+    /**
+     * returns an unchangeable copy of the session as it is now, which can be
+     * rendered on another thread while the game goes on
+     * @return a snapshot of the session
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this.gameEnv, this.state, this.trail.snapshot(), this.backtrack.snapshot());
+    }
+
+    /**
+     * returns the packed cell index of the given state, as a long so mazes of any size can be played
+     */
+    private long cellOf(GameState state) {
+        return (long) state.getRow() * this.gameEnv.getNoCols() + state.getCol();
+    }
+
+    /**
+     * an unchangeable view of a session at one moment, combining the maze with the marks of the game
+     */
+    public static final class Snapshot {
+        /**
+         * the environment of the game
+         */
+        private final GameEnv gameEnv;
+        /**
+         * the state of the game when the snapshot was taken
+         */
+        private final GameState state;
+        /**
+         * the cells the player had walked over
+         */
+        private final CellOverlay trail;
+        /**
+         * the cells the player had walked back over
+         */
+        private final CellOverlay backtrack;
+
+        /**
+         * constructs a snapshot from unchangeable overlays
+         */
+        private Snapshot(GameEnv gameEnv, GameState state, CellOverlay trail, CellOverlay backtrack) {
+            this.gameEnv = gameEnv;
+            this.state = state;
+            this.trail = trail;
+            this.backtrack = backtrack;
+        }
+
+        /**
+         * returns the state of the game when the snapshot was taken
+         * @return the state of the player
+         */
+        public GameState getState() {
+            return state;
+        }
+
+        /**
+         * returns the tile of the given cell with the marks of the game on it.
+         * Walls, the start and the exit keep their own tiles, backtracked
+         * cells are BACKTRACKED and traversed cells are TRAVERSED.
+         * @param row the row of the cell
+         * @param col the column of the cell
+         * @return the tile to show for the cell
+         */
+        public char tileAt(int row, int col) {
+            char tile = this.gameEnv.getTile(row, col);
+            if (tile == GameEnv.WALL || tile == GameEnv.START_POINT || tile == GameEnv.END_POINT) {
+                return tile;
+            }
+            long cell = (long) row * this.gameEnv.getNoCols() + col;
+            if (this.backtrack.get(cell)) {
+                return GameEnv.BACKTRACKED;
+            } else if (this.trail.get(cell)) {
+                return GameEnv.TRAVERSED;
+            }
+            return tile;
+        }
+    }
+}
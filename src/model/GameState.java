@@ -3,16 +3,18 @@ package model;
 /**
  * a class representing a state of the maze game.
  * It contains information about the location of the player.
+ * States are immutable, so GameEnv hands out a single shared instance for
+ * every cell of its maze from GameEnv.stateAt.
  */
-public class GameState {
+public final class GameState {
     /**
      * the row position of the player
      */
-    private int row;
+    private final int row;
     /**
      * the column position of the player
      */
-    private int col;
+    private final int col;
 
     /**
      * returns the row position of the player
@@ -56,10 +58,16 @@ public class GameState {
                 && Integer.compare(this.col, g.col) == 0;
     }
 
+    /**
+     * returns a hash which mixes the bits of the row and the column, so cells
+     * on the same diagonal or with swapped coordinates do not collide
+     */
     @Override
     public int hashCode() {
-        return this.row + this.col;
-
+        int hash = this.row * 0x9E3779B9 + this.col;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        return hash ^ (hash >>> 13);
     }
 
     @Override
@@ -72,7 +80,9 @@ public class GameState {
      * i.e. creates a new object which is equal to the current state but resides in
      * a different memory address.
      * @return a deepcopy of the given state
+     * @deprecated states are immutable and can be shared, so a copy is never needed
      */
+    @Deprecated
     public GameState deepCopy() {
         return new GameState(this.row, this.col);
     }
@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * a greedy best-first search over packed cell indices. Cells are ordered purely
+ * by their Manhattan distance to the exit. This usually expands the fewest
+ * cells but the path found is not guaranteed to be the shortest.
+ */
+public class GreedySearch extends GridAStar {
+
+    /**
+     * constructs a new greedy best-first search for the given environment
+     * @param gameEnv the environment of the game to be solved
+     */
+    public GreedySearch(GameEnv gameEnv) {
+        super(gameEnv, 0, 1);
+    }
+}
@@ -0,0 +1,178 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * an A* search engine which works directly on packed cell indices
+ * (row * noCols + col) instead of Node and GameState objects.
+ * The g-scores and parent directions are kept in flat primitive arrays
+ * sized to the grid and the open set is an indexed binary heap of ints,
+ * so nothing is allocated per expanded cell. Only the final list of
+ * actions is materialised.
+ * <p>
+ * Cells are ordered by gWeight * g + hWeight * h where g is the cost from
+ * the start and h is the heuristic estimate to the goal, the Manhattan
+ * distance unless another heuristic is set. The default weights of 1 and 1
+ * give an optimal A* search, subclasses change the weights to obtain
+ * Dijkstra's algorithm and greedy best-first search.
+ * </p>
+ */
+public class GridAStar extends GridSearch {
+    /**
+     * the weight of the cost from the start
+     */
+    private final int gWeight;
+    /**
+     * the weight of the heuristic estimate to the goal
+     */
+    private final int hWeight;
+    /**
+     * the estimate of the distance from a cell to the goal
+     */
+    private GridHeuristic heuristic;
+    /**
+     * whether the heuristic value of every cell is remembered during a search
+     */
+    private boolean heuristicCached;
+
+    /**
+     * constructs a new instance of the primitive A* engine
+     * @param gameEnv the environment of the game to be solved
+     */
+    public GridAStar(GameEnv gameEnv) {
+        this(gameEnv, 1, 1);
+    }
+
+    /**
+     * constructs a new best-first search with the given weights
+     * @param gameEnv the environment of the game to be solved
+     * @param gWeight the weight of the cost from the start
+     * @param hWeight the weight of the heuristic estimate to the goal
+     */
+    public GridAStar(GameEnv gameEnv, int gWeight, int hWeight) {
+        super(gameEnv);
+        this.gWeight = gWeight;
+        this.hWeight = hWeight;
+        this.heuristic = GridHeuristic.manhattan(gameEnv.getNoCols());
+    }
+
+    /**
+     * sets the heuristic used to estimate the distance from a cell to the goal
+     * @param heuristic the new heuristic
+     */
+    public void setHeuristic(GridHeuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * sets whether the heuristic value of every cell is remembered during a
+     * search, so it is only computed once however often the cell is reached.
+     * This pays off for heuristics which are expensive to compute, such as
+     * landmark heuristics with many landmarks.
+     * @param heuristicCached true to remember heuristic values
+     */
+    public void setHeuristicCached(boolean heuristicCached) {
+        this.heuristicCached = heuristicCached;
+    }
+
+    /**
+     * performs the search from the given state to the exit of the maze.
+     * Note: if the maze is unsolvable an empty list will be returned.
+     * @param initState the state from which to begin the search
+     * @return a list containing action characters which
+     *          when performed in the given order will reach the exit
+     */
+    @Override
+    public List<Character> search(GameState initState) {
+        return this.search(initState, this.gameEnv.stateAt(this.gameEnv.getExitRow(), this.gameEnv.getExitCol()));
+    }
+
+    /**
+     * performs the search from the given state to any given goal state.
+     * Note: if the goal cannot be reached an empty list will be returned.
+     * @param initState the state from which to begin the search
+     * @param goalState the state to search for
+     * @return a list containing action characters which
+     *          when performed in the given order will reach the goal
+     * @throws java.util.concurrent.CancellationException if the monitor stops the search
+     */
+    public List<Character> search(GameState initState, GameState goalState) {
+        int start = cellOf(initState);
+        int goal = cellOf(goalState);
+        resetCounters();
+
+        int cells = noCells();
+        int[] gScores = new int[cells];
+        Arrays.fill(gScores, Integer.MAX_VALUE);
+        byte[] parentDirs = new byte[cells];
+        Arrays.fill(parentDirs, NO_PARENT);
+        long[] closed = new long[(cells + 63) >>> 6];
+        IndexedMinHeap open = new IndexedMinHeap(cells);
+        int[] estimates = null;
+        if (this.heuristicCached) {
+            estimates = new int[cells];
+            Arrays.fill(estimates, -1);
+        }
+
+        gScores[start] = 0;
+        open.insertOrDecrease(start, key(0, this.estimate(start, goal, estimates)));
+        int bestDistance = Integer.MAX_VALUE;
+        while (!open.isEmpty()) {
+            // the lower half of the key is the heuristic estimate of the cell
+            bestDistance = Math.min(bestDistance, (int) open.peekKey());
+            int cell = open.poll();
+            if (cell == goal) {
+                return toActions(parentDirs, start, goal);
+            }
+            closed[cell >>> 6] |= 1L << cell;
+            this.nodesExpanded++;
+            if (this.nodesExpanded % PROGRESS_INTERVAL == 0) {
+                reportProgress(open.size(), bestDistance);
+            }
+            int nextG = gScores[cell] + GameEnv.ACTION_COST;
+            int mask = neighbors(cell);
+            for (int dir = 0; dir < NO_DIRECTIONS; dir++) {
+                if ((mask & (1 << dir)) == 0) {
+                    continue;
+                }
+                int next = step(cell, dir);
+                if ((closed[next >>> 6] & (1L << next)) != 0 || nextG >= gScores[next]) {
+                    continue;
+                }
+                gScores[next] = nextG;
+                parentDirs[next] = (byte) dir;
+                open.insertOrDecrease(next, key(nextG, this.estimate(next, goal, estimates)));
+                this.nodesGenerated++;
+            }
+            this.peakOpenSize = Math.max(this.peakOpenSize, open.size());
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * returns the heuristic estimate from the given cell to the goal, taken
+     * from the cache of estimates if there is one and the cell has been estimated before
+     */
+    private int estimate(int cell, int goal, int[] estimates) {
+        if (estimates != null && estimates[cell] >= 0) {
+            this.heuristicHits++;
+            return estimates[cell];
+        }
+        this.heuristicMisses++;
+        int h = this.heuristic.estimate(cell, goal);
+        if (estimates != null) {
+            estimates[cell] = h;
+        }
+        return h;
+    }
+
+    /**
+     * packs the weighted priority of a cell and a tie breaking h value into one heap key.
+     * Ties on the priority are broken in favour of the smaller h, i.e. the deeper cell.
+     */
+    private long key(int g, int h) {
+        return (((long) this.gWeight * g + (long) this.hWeight * h) << 32) | h;
+    }
+}
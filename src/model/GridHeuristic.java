@@ -0,0 +1,27 @@
+package model;
+
+/**
+ * an estimate of the number of actions needed to move between two packed
+ * cells (row * noCols + col). Estimates used by A* must never be larger
+ * than the true distance, otherwise the path found may not be the shortest.
+ */
+public interface GridHeuristic {
+
+    /**
+     * estimates the number of actions needed to move from one cell to another
+     * @param cell the packed cell index to move from
+     * @param goal the packed cell index to move to
+     * @return an estimate of the distance which is never larger than the true distance
+     */
+    int estimate(int cell, int goal);
+
+    /**
+     * returns the Manhattan distance heuristic for a grid with the given number of columns
+     * @param noCols the number of columns in the grid
+     * @return a heuristic which returns the Manhattan distance between two cells
+     */
+    static GridHeuristic manhattan(int noCols) {
+        return (cell, goal) -> Math.abs(cell / noCols - goal / noCols)
+                + Math.abs(cell % noCols - goal % noCols);
+    }
+}
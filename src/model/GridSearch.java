@@ -0,0 +1,231 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * a base class for search strategies which work directly on packed cell
+ * indices (row * noCols + col). It provides the shared direction tables,
+ * neighbour lookups and the reconstruction of the action list from an
+ * array of parent directions.
+ */
+public abstract class GridSearch implements SearchStrategy {
+    /**
+     * marks a cell which has no parent direction
+     */
+    protected static final byte NO_PARENT = -1;
+    /**
+     * the number of directions which can be moved in
+     */
+    protected static final int NO_DIRECTIONS = Direction.COUNT;
+    /**
+     * the number of expansions between two calls to the monitor
+     */
+    public static final int PROGRESS_INTERVAL = 1024;
+    /**
+     * the distance handed to the monitor by searches which do not estimate the distance to the goal
+     */
+    protected static final int UNKNOWN_DISTANCE = Integer.MAX_VALUE;
+
+    /**
+     * the environment of the maze to be solved
+     */
+    protected final GameEnv gameEnv;
+    /**
+     * the number of nodes which were expanded by the last search
+     */
+    protected int nodesExpanded;
+    /**
+     * the number of nodes added to the open set or frontier by the last search
+     */
+    protected int nodesGenerated;
+    /**
+     * the number of nodes expanded again by the last search after their cost was found to be wrong
+     */
+    protected int nodesReopened;
+    /**
+     * the largest size of the open set or frontier during the last search
+     */
+    protected int peakOpenSize;
+    /**
+     * the number of heuristic values found in a cache by the last search
+     */
+    protected int heuristicHits;
+    /**
+     * the number of heuristic values computed by the last search
+     */
+    protected int heuristicMisses;
+    /**
+     * told about the progress of the search, or null if the search is not monitored
+     */
+    private SearchMonitor monitor;
+    /**
+     * the statistics of the search run by solve, which phases are recorded in, or null
+     */
+    private SearchStats stats;
+
+    /**
+     * constructs a new search over the grid of the given environment
+     * @param gameEnv the environment of the game to be solved
+     * @throws IllegalArgumentException if the maze has too many cells for packed int indices
+     */
+    protected GridSearch(GameEnv gameEnv) throws IllegalArgumentException {
+        if (!gameEnv.hasMoveTable()) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName() + " cannot search a maze of "
+                    + gameEnv.getNoCells() + " cells, use OffHeapBreadthFirstSearch");
+        }
+        this.gameEnv = gameEnv;
+    }
+
+    @Override
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * searches for the actions which lead from the given state to the exit and
+     * records the counters kept by the strategy and the phases it reports
+     * @param initState the state from which to begin the search
+     * @return the actions which reach the exit together with the statistics of the search
+     */
+    @Override
+    public SearchResult solve(GameState initState) {
+        SearchStats searchStats = new SearchStats(this.getClass().getSimpleName());
+        this.stats = searchStats;
+        searchStats.start();
+        List<Character> actions;
+        try {
+            actions = this.search(initState);
+        } finally {
+            this.stats = null;
+        }
+        searchStats.setCounters(this.nodesGenerated, this.nodesExpanded, this.nodesReopened, this.peakOpenSize);
+        searchStats.setHeuristicCounters(this.heuristicHits, this.heuristicMisses);
+        searchStats.stop(actions.size());
+        return new SearchResult(actions, searchStats);
+    }
+
+    /**
+     * marks the start of a new phase of the search, e.g. building a graph or
+     * expanding the path, which is timed separately when run through solve
+     * @param name the name of the phase
+     */
+    protected void beginPhase(String name) {
+        if (this.stats != null) {
+            this.stats.beginPhase(name);
+        }
+    }
+
+    /**
+     * sets the counters of the statistics back to 0 at the start of a search
+     */
+    protected void resetCounters() {
+        this.nodesExpanded = 0;
+        this.nodesGenerated = 0;
+        this.nodesReopened = 0;
+        this.peakOpenSize = 0;
+        this.heuristicHits = 0;
+        this.heuristicMisses = 0;
+    }
+
+    @Override
+    public void setMonitor(SearchMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /**
+     * tells the monitor about the progress of the search
+     * @param frontierSize the number of nodes waiting to be expanded
+     * @param bestDistance the smallest estimated distance to the goal of any node expanded so far
+     * @throws CancellationException if the monitor asks for the search to stop
+     */
+    protected void reportProgress(int frontierSize, int bestDistance) throws CancellationException {
+        if (this.monitor != null && !this.monitor.progress(this.nodesExpanded, frontierSize, bestDistance)) {
+            throw new CancellationException("search stopped after " + this.nodesExpanded + " expansions");
+        }
+    }
+
+    /**
+     * tells the monitor about the progress of a search which expands many
+     * nodes at once, such as a whole level of a breadth-first search, if
+     * another PROGRESS_INTERVAL expansions have passed since the given count
+     * @param expandedBefore the number of nodes expanded before the last batch
+     * @param frontierSize the number of nodes waiting to be expanded
+     * @param bestDistance the smallest estimated distance to the goal of any node expanded so far
+     * @throws CancellationException if the monitor asks for the search to stop
+     */
+    protected void reportProgressAfter(int expandedBefore, int frontierSize, int bestDistance)
+            throws CancellationException {
+        if (expandedBefore / PROGRESS_INTERVAL != this.nodesExpanded / PROGRESS_INTERVAL) {
+            this.reportProgress(frontierSize, bestDistance);
+        }
+    }
+
+    /**
+     * returns the number of cells in the grid
+     * @return the number of cells
+     */
+    protected int noCells() {
+        return this.gameEnv.getNoRows() * this.gameEnv.getNoCols();
+    }
+
+    /**
+     * returns the packed cell index of the given state
+     * @param state the state to convert
+     * @return the packed cell index
+     */
+    protected int cellOf(GameState state) {
+        return state.getRow() * this.gameEnv.getNoCols() + state.getCol();
+    }
+
+    /**
+     * returns the packed cell index of the exit
+     * @return the packed cell index of the exit
+     */
+    protected int exitCell() {
+        return this.gameEnv.getExitRow() * this.gameEnv.getNoCols() + this.gameEnv.getExitCol();
+    }
+
+    /**
+     * returns a mask of the directions which can be moved in from the given cell.
+     * bit d is set if moving in direction d stays inside the maze and does not hit a wall.
+     * @param cell the packed cell index
+     * @return the mask of open directions
+     */
+    protected int neighbors(int cell) {
+        return this.gameEnv.neighbors(cell);
+    }
+
+    /**
+     * returns the cell reached by moving in the given direction. No checks
+     * are made so the direction must be open according to {@link #neighbors(int)}.
+     * @param cell the packed cell index to move from
+     * @param dir the direction to move in
+     * @return the packed cell index which is moved to
+     */
+    protected int step(int cell, int dir) {
+        return this.gameEnv.step(cell, dir);
+    }
+
+    /**
+     * walks the parent directions back from the goal to the start and
+     * collects the actions taken, in order from the start
+     * @param parentDirs the direction which was taken to reach every cell
+     * @param start the packed cell index the search started from
+     * @param goal the packed cell index which was reached
+     * @return the list of actions taken to reach the goal from the start
+     */
+    protected List<Character> toActions(byte[] parentDirs, int start, int goal) {
+        List<Character> seq = new ArrayList<>();
+        int cell = goal;
+        while (cell != start) {
+            int dir = parentDirs[cell];
+            seq.add(Direction.of(dir).getAction());
+            cell = step(cell, dir ^ 1);
+        }
+        Collections.reverse(seq);
+        return seq;
+    }
+}
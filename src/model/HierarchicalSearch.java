@@ -0,0 +1,213 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * hierarchical path finding (HPA*) for huge mazes. Queries are answered on
+ * the small abstract graph of cluster entrances ({@link ClusterGraph}) and
+ * the abstract path is only refined into single actions one cluster at a
+ * time. The refinement is lazy: {@link #searchLazily(GameState)} hands out
+ * the first actions as soon as the first cluster has been refined, which is
+ * what an animated replay needs, while {@link #search(GameState)} refines the
+ * whole path at once. The paths found are close to, but not always exactly,
+ * the shortest.
+ */
+public class HierarchicalSearch extends GridSearch {
+
+    /**
+     * constructs a new hierarchical search for the given environment
+     * @param gameEnv the environment of the game to be solved
+     */
+    public HierarchicalSearch(GameEnv gameEnv) {
+        super(gameEnv);
+    }
+
+    @Override
+    public List<Character> search(GameState initState) {
+        List<Character> seq = new ArrayList<>();
+        Iterator<Character> actions = this.searchLazily(initState);
+        beginPhase("refine");
+        while (actions.hasNext()) {
+            seq.add(actions.next());
+            if (seq.size() % PROGRESS_INTERVAL == 0) {
+                reportProgress(0, UNKNOWN_DISTANCE);
+            }
+        }
+        return seq;
+    }
+
+    @Override
+    public Iterator<Character> searchLazily(GameState initState) {
+        beginPhase("graph");
+        ClusterGraph graph = this.gameEnv.getClusterGraph();
+        beginPhase("abstract search");
+        int start = cellOf(initState);
+        int goal = exitCell();
+        resetCounters();
+        List<Integer> waypoints = new ArrayList<>();
+        if (start != goal && this.gameEnv.isValid(initState)
+                && this.gameEnv.isValid(this.gameEnv.stateAt(this.gameEnv.getExitRow(), this.gameEnv.getExitCol()))) {
+            waypoints = this.abstractPath(graph, start, goal);
+        }
+        return new Refiner(graph, waypoints);
+    }
+
+    /**
+     * searches the abstract graph with the start and the goal inserted as
+     * two extra nodes, connected to the entrances of their own clusters
+     * @param graph the abstract graph of the maze
+     * @param start the packed cell index to start from
+     * @param goal the packed cell index to reach
+     * @return the packed cell indices of the start, every entrance passed and the goal,
+     *          or an empty list if the goal cannot be reached
+     */
+    private List<Integer> abstractPath(ClusterGraph graph, int start, int goal) {
+        int noNodes = graph.getNoNodes();
+        int startNode = noNodes;
+        int goalNode = noNodes + 1;
+        int startCluster = graph.clusterOf(start);
+        int goalCluster = graph.clusterOf(goal);
+        int[] fromStart = graph.distancesInCluster(start);
+        int[] toGoal = graph.distancesInCluster(goal);
+        GridHeuristic heuristic = GridHeuristic.manhattan(this.gameEnv.getNoCols());
+
+        int[] gScores = new int[noNodes + 2];
+        Arrays.fill(gScores, Integer.MAX_VALUE);
+        int[] parents = new int[noNodes + 2];
+        long[] closed = new long[(noNodes + 2 + 63) >>> 6];
+        IndexedMinHeap open = new IndexedMinHeap(noNodes + 2);
+        gScores[startNode] = 0;
+        parents[startNode] = startNode;
+        open.insertOrDecrease(startNode, 0);
+        int bestDistance = Integer.MAX_VALUE;
+        while (!open.isEmpty()) {
+            // the lower half of the key is the heuristic estimate of the node
+            bestDistance = Math.min(bestDistance, (int) open.peekKey());
+            int node = open.poll();
+            if (node == goalNode) {
+                List<Integer> waypoints = new ArrayList<>();
+                waypoints.add(goal);
+                for (int n = parents[goalNode]; n != startNode; n = parents[n]) {
+                    waypoints.add(graph.cellOf(n));
+                }
+                waypoints.add(start);
+                Collections.reverse(waypoints);
+                return waypoints;
+            }
+            closed[node >>> 6] |= 1L << node;
+            this.nodesExpanded++;
+            if (this.nodesExpanded % PROGRESS_INTERVAL == 0) {
+                reportProgress(open.size(), bestDistance);
+            }
+            int cell = node == startNode ? start : graph.cellOf(node);
+            int cluster = node == startNode ? startCluster : graph.clusterOf(cell);
+            // edges to the entrances of the start cluster are only known for the start
+            if (node == startNode) {
+                int end = graph.clusterStart(startCluster + 1);
+                for (int i = graph.clusterStart(startCluster); i < end; i++) {
+                    int target = graph.clusterNode(i);
+                    int distance = fromStart[graph.localIndex(graph.cellOf(target))];
+                    if (distance != ClusterGraph.UNREACHABLE) {
+                        this.relax(node, target, distance, gScores, parents, closed, open,
+                                heuristic.estimate(graph.cellOf(target), goal));
+                    }
+                }
+            } else {
+                int end = graph.edgeStart(node + 1);
+                for (int edge = graph.edgeStart(node); edge < end; edge++) {
+                    int target = graph.edgeTarget(edge);
+                    this.relax(node, target, graph.edgeWeight(edge), gScores, parents, closed, open,
+                            heuristic.estimate(graph.cellOf(target), goal));
+                }
+            }
+            // the goal can be reached from anything inside its cluster
+            if (cluster == goalCluster) {
+                int distance = toGoal[graph.localIndex(cell)];
+                if (distance != ClusterGraph.UNREACHABLE) {
+                    this.relax(node, goalNode, distance, gScores, parents, closed, open, 0);
+                }
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * lowers the cost of the target node if it can be reached more cheaply through the given node
+     */
+    private void relax(int node, int target, int weight, int[] gScores, int[] parents, long[] closed,
+                       IndexedMinHeap open, int h) {
+        if ((closed[target >>> 6] & (1L << target)) != 0) {
+            return;
+        }
+        int g = gScores[node] + weight;
+        if (g < gScores[target]) {
+            gScores[target] = g;
+            parents[target] = node;
+            open.insertOrDecrease(target, ((long) (g + h) << 32) | h);
+        }
+    }
+
+    /**
+     * an iterator which refines the abstract path into single actions one
+     * pair of waypoints at a time, only when more actions are needed
+     */
+    private static class Refiner implements Iterator<Character> {
+        /**
+         * the abstract graph used for refining
+         */
+        private final ClusterGraph graph;
+        /**
+         * the packed cell indices of the waypoints of the path
+         */
+        private final List<Integer> waypoints;
+        /**
+         * the index of the waypoint the current segment started from
+         */
+        private int waypoint;
+        /**
+         * the actions of the current segment
+         */
+        private List<Character> segment = new ArrayList<>();
+        /**
+         * the index of the next action in the current segment
+         */
+        private int position;
+
+        /**
+         * constructs a new lazy refiner of the given abstract path
+         * @param graph the abstract graph used for refining
+         * @param waypoints the packed cell indices of the waypoints of the path
+         */
+        Refiner(ClusterGraph graph, List<Integer> waypoints) {
+            this.graph = graph;
+            this.waypoints = waypoints;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.position == this.segment.size()) {
+                if (this.waypoint + 1 >= this.waypoints.size()) {
+                    return false;
+                }
+                this.segment = this.graph.refine(this.waypoints.get(this.waypoint),
+                        this.waypoints.get(this.waypoint + 1));
+                this.waypoint++;
+                this.position = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public Character next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.segment.get(this.position++);
+        }
+    }
+}
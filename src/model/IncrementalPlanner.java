@@ -0,0 +1,254 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * a D* Lite planner which keeps its search tree between searches and only
+ * repairs the part affected when cells of the maze change or the player
+ * moves. The search runs backwards from the exit, so g(cell) is the distance
+ * from a cell to the exit and moving the start does not invalidate anything.
+ * <p>
+ * The planner registers itself with the environment and is told about every
+ * GameEnv.setCell call. Every cell whose shortest distance may have changed
+ * is put back on the open list and the next search only expands cells until
+ * the start is consistent again, which after a single edit is usually a
+ * small region around the edit rather than the whole maze. Call
+ * {@link #detach()} once the planner is no longer needed.
+ * </p>
+ */
+public class IncrementalPlanner extends GridSearch implements MazeChangeListener {
+    /**
+     * the value used for distances which are not known or unreachable
+     */
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    /**
+     * the distance of every cell to the exit as found by the last expansion
+     */
+    private int[] gScores;
+    /**
+     * the one step lookahead distance of every cell to the exit
+     */
+    private int[] rhsScores;
+    /**
+     * the cells whose g and rhs values differ
+     */
+    private IndexedMinHeap open;
+    /**
+     * the packed cell index of the start used by the last search
+     */
+    private int start;
+    /**
+     * the packed cell index of the exit
+     */
+    private int goal;
+    /**
+     * the sum of the heuristic distances the start has moved, added to
+     * every key so keys computed for earlier starts remain lower bounds
+     */
+    private int keyModifier;
+    /**
+     * whether the search tree has to be built from scratch on the next search
+     */
+    private boolean initialised;
+
+    /**
+     * constructs a new incremental planner and registers it with the environment
+     * @param gameEnv the environment of the game to be solved
+     */
+    public IncrementalPlanner(GameEnv gameEnv) {
+        super(gameEnv);
+        gameEnv.addMazeChangeListener(this);
+    }
+
+    /**
+     * stops the planner from listening to changes of the maze
+     */
+    public void detach() {
+        this.gameEnv.removeMazeChangeListener(this);
+    }
+
+    /**
+     * finds a shortest path from the given state to the exit, reusing as much
+     * of the previous search as possible.
+     * Note: if the maze is unsolvable an empty list will be returned.
+     * @param initState the state from which to begin the search
+     * @return a list containing action characters which
+     *          when performed in the given order will reach the exit
+     */
+    @Override
+    public List<Character> search(GameState initState) {
+        resetCounters();
+        int cell = cellOf(initState);
+        if (!this.initialised) {
+            this.initialise(cell);
+        } else if (cell != this.start) {
+            this.keyModifier += this.distance(this.start, cell);
+            this.start = cell;
+        }
+        this.computeShortestPath();
+        List<Character> seq = new ArrayList<>();
+        if (this.gScores[this.start] == INFINITY) {
+            return seq;
+        }
+        // follow the neighbour closest to the exit from every cell
+        int current = this.start;
+        while (current != this.goal) {
+            int bestDir = -1;
+            int bestScore = this.gScores[current];
+            int mask = neighbors(current);
+            for (int dir = 0; dir < NO_DIRECTIONS; dir++) {
+                if ((mask & (1 << dir)) != 0 && this.gScores[step(current, dir)] < bestScore) {
+                    bestScore = this.gScores[step(current, dir)];
+                    bestDir = dir;
+                }
+            }
+            if (bestDir < 0) {
+                return new ArrayList<>();
+            }
+            seq.add(Direction.of(bestDir).getAction());
+            current = step(current, bestDir);
+        }
+        return seq;
+    }
+
+    @Override
+    public void cellChanged(int row, int col, char oldTile, char newTile) {
+        if (!this.initialised || (oldTile == GameEnv.WALL) == (newTile == GameEnv.WALL)) {
+            return;
+        }
+        // every edge touching the cell changed cost
+        int cell = row * this.gameEnv.getNoCols() + col;
+        this.updateCell(cell);
+        for (int dir = 0; dir < NO_DIRECTIONS; dir++) {
+            int nextRow = row + Direction.of(dir).getRowStep();
+            int nextCol = col + Direction.of(dir).getColStep();
+            if (0 <= nextRow && nextRow < this.gameEnv.getNoRows() && 0 <= nextCol && nextCol < this.gameEnv.getNoCols()) {
+                this.updateCell(step(cell, dir));
+            }
+        }
+    }
+
+    @Override
+    public void mazeReplaced() {
+        this.initialised = false;
+    }
+
+    /**
+     * builds an empty search tree with only the exit on the open list
+     * @param startCell the packed cell index of the start
+     */
+    private void initialise(int startCell) {
+        int cells = noCells();
+        this.gScores = new int[cells];
+        this.rhsScores = new int[cells];
+        Arrays.fill(this.gScores, INFINITY);
+        Arrays.fill(this.rhsScores, INFINITY);
+        this.open = new IndexedMinHeap(cells);
+        this.start = startCell;
+        this.goal = exitCell();
+        this.keyModifier = 0;
+        this.rhsScores[this.goal] = 0;
+        this.open.insertOrDecrease(this.goal, this.key(this.goal));
+        this.initialised = true;
+    }
+
+    /**
+     * expands cells until the start is consistent and no open cell can lead to a shorter path
+     */
+    private void computeShortestPath() {
+        while (!this.open.isEmpty()
+                && (this.open.peekKey() < this.key(this.start) || this.rhsScores[this.start] != this.gScores[this.start])) {
+            long oldKey = this.open.peekKey();
+            int cell = this.open.poll();
+            this.nodesExpanded++;
+            if (this.nodesExpanded % PROGRESS_INTERVAL == 0) {
+                reportProgress(this.open.size(), UNKNOWN_DISTANCE);
+            }
+            long newKey = this.key(cell);
+            if (oldKey < newKey) {
+                this.open.insertOrDecrease(cell, newKey);
+            } else if (this.gScores[cell] > this.rhsScores[cell]) {
+                this.gScores[cell] = this.rhsScores[cell];
+                this.updateNeighbors(cell);
+            } else {
+                // the cell was expanded before with a cost which is no longer right
+                this.nodesReopened++;
+                this.gScores[cell] = INFINITY;
+                this.updateCell(cell);
+                this.updateNeighbors(cell);
+            }
+        }
+    }
+
+    /**
+     * recomputes the rhs value of every open neighbour of the given cell
+     * @param cell the packed cell index
+     */
+    private void updateNeighbors(int cell) {
+        int mask = neighbors(cell);
+        for (int dir = 0; dir < NO_DIRECTIONS; dir++) {
+            if ((mask & (1 << dir)) != 0) {
+                this.updateCell(step(cell, dir));
+            }
+        }
+    }
+
+    /**
+     * recomputes the rhs value of the given cell from its neighbours and puts
+     * it on the open list if it is inconsistent, or takes it off if it is not
+     * @param cell the packed cell index
+     */
+    private void updateCell(int cell) {
+        if (cell != this.goal) {
+            int rhs = INFINITY;
+            if (!this.isWall(cell)) {
+                int mask = neighbors(cell);
+                for (int dir = 0; dir < NO_DIRECTIONS; dir++) {
+                    if ((mask & (1 << dir)) != 0 && this.gScores[step(cell, dir)] != INFINITY) {
+                        rhs = Math.min(rhs, this.gScores[step(cell, dir)] + GameEnv.ACTION_COST);
+                    }
+                }
+            }
+            this.rhsScores[cell] = rhs;
+        }
+        if (this.gScores[cell] != this.rhsScores[cell]) {
+            this.open.insertOrDecrease(cell, this.key(cell));
+            this.nodesGenerated++;
+            this.peakOpenSize = Math.max(this.peakOpenSize, this.open.size());
+        } else if (this.open.contains(cell)) {
+            this.open.remove(cell);
+        }
+    }
+
+    /**
+     * packs the priority of a cell into a heap key. The first part is the
+     * estimated length of a path from the start through the cell, the second
+     * is the distance of the cell to the exit, which breaks ties.
+     * A cell with no known distance gets the largest possible key.
+     */
+    private long key(int cell) {
+        int best = Math.min(this.gScores[cell], this.rhsScores[cell]);
+        if (best == INFINITY) {
+            return Long.MAX_VALUE;
+        }
+        return ((long) (best + this.distance(this.start, cell) + this.keyModifier) << 32) | best;
+    }
+
+    /**
+     * returns the Manhattan distance between two cells
+     */
+    private int distance(int from, int to) {
+        int noCols = this.gameEnv.getNoCols();
+        return Math.abs(from / noCols - to / noCols) + Math.abs(from % noCols - to % noCols);
+    }
+
+    /**
+     * returns whether the given cell is a wall
+     */
+    private boolean isWall(int cell) {
+        return this.gameEnv.getWalls().isWall(cell);
+    }
+}
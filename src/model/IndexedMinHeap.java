@@ -0,0 +1,184 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * an indexed binary min heap of int items ordered by long keys.
+ * Items are small non-negative integers (for example packed cell indices)
+ * so the position of every item can be kept in a flat array, which allows
+ * keys to be decreased in place without searching the heap and without
+ * allocating an object per entry.
+ */
+public class IndexedMinHeap {
+    /**
+     * the items stored in heap order
+     */
+    private int[] items;
+    /**
+     * the keys of the items, stored at the same heap positions as the items
+     */
+    private long[] keys;
+    /**
+     * maps every item to its heap position plus one. 0 means the item is not in the heap
+     */
+    private final int[] positions;
+    /**
+     * the number of items currently in the heap
+     */
+    private int size;
+
+    /**
+     * constructs a new empty heap which can hold the items 0 to capacity - 1
+     * @param capacity the number of distinct items which can be stored
+     */
+    public IndexedMinHeap(int capacity) {
+        int initial = Math.max(16, Math.min(capacity, 1024));
+        this.items = new int[initial];
+        this.keys = new long[initial];
+        this.positions = new int[capacity];
+    }
+
+    /**
+     * returns the number of items in the heap
+     * @return the size of the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * returns whether the heap is empty
+     * @return true if there are no items in the heap
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * returns whether the given item is currently in the heap
+     * @param item the item to look for
+     * @return true if the item is in the heap
+     */
+    public boolean contains(int item) {
+        return positions[item] != 0;
+    }
+
+    /**
+     * inserts the item with the given key, or lowers its key if it
+     * is already in the heap with a larger one
+     * @param item the item to insert
+     * @param key the key of the item
+     */
+    public void insertOrDecrease(int item, long key) {
+        int pos = positions[item] - 1;
+        if (pos < 0) {
+            if (size == items.length) {
+                int grown = (int) Math.min((long) size * 2, Math.max(positions.length, 16));
+                items = Arrays.copyOf(items, grown);
+                keys = Arrays.copyOf(keys, grown);
+            }
+            pos = size++;
+        } else if (key >= keys[pos]) {
+            return;
+        }
+        siftUp(pos, item, key);
+    }
+
+    /**
+     * returns the key of the item with the smallest key without removing it
+     * @return the smallest key in the heap
+     */
+    public long peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * removes and returns the item with the smallest key
+     * @return the item with the smallest key
+     */
+    public int poll() {
+        int top = items[0];
+        positions[top] = 0;
+        size--;
+        if (size > 0) {
+            siftDown(0, items[size], keys[size]);
+        }
+        return top;
+    }
+
+    /**
+     * removes the given item from the heap if it is present
+     * @param item the item to remove
+     */
+    public void remove(int item) {
+        int pos = positions[item] - 1;
+        if (pos < 0) {
+            return;
+        }
+        positions[item] = 0;
+        size--;
+        if (pos == size) {
+            return;
+        }
+        int last = items[size];
+        long lastKey = keys[size];
+        if (pos > 0 && lastKey < keys[(pos - 1) >>> 1]) {
+            siftUp(pos, last, lastKey);
+        } else {
+            siftDown(pos, last, lastKey);
+        }
+    }
+
+    /**
+     * removes every item from the heap
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[items[i]] = 0;
+        }
+        size = 0;
+    }
+
+    /**
+     * moves the given entry up from the given position until the heap order holds
+     */
+    private void siftUp(int pos, int item, long key) {
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            place(pos, items[parent], keys[parent]);
+            pos = parent;
+        }
+        place(pos, item, key);
+    }
+
+    /**
+     * moves the given entry down from the given position until the heap order holds
+     */
+    private void siftDown(int pos, int item, long key) {
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            place(pos, items[child], keys[child]);
+            pos = child;
+        }
+        place(pos, item, key);
+    }
+
+    /**
+     * stores an entry at a heap position and records its position
+     */
+    private void place(int pos, int item, long key) {
+        items[pos] = item;
+        keys[pos] = key;
+        positions[item] = pos + 1;
+    }
+}
@@ -0,0 +1,171 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * a Jump Point Search for 4-connected grids. Instead of pushing every cell of
+ * an open room into the open set it jumps along straight runs and only
+ * stops at jump points, so symmetric paths through open areas are never
+ * generated.
+ * <p>
+ * Horizontal runs stop at the goal or where a vertical neighbour opens up
+ * which was blocked for the previous cell of the run (a forced neighbour).
+ * Vertical runs stop at the goal or wherever a horizontal move is possible.
+ * Any shortest path can be rearranged into one which only turns at such
+ * points, so the search remains optimal. The jump points are searched with
+ * A* and the path between them is expanded back into single actions, so the
+ * result has the same format as every other strategy.
+ * </p>
+ */
+public class JumpPointSearch extends GridSearch {
+    /**
+     * marks an unreachable cell in the jump results
+     */
+    private static final int NO_JUMP = -1;
+
+    /**
+     * the number of steps taken by the last successful jump
+     */
+    private int jumpLength;
+
+    /**
+     * constructs a new jump point search for the given environment
+     * @param gameEnv the environment of the game to be solved
+     */
+    public JumpPointSearch(GameEnv gameEnv) {
+        super(gameEnv);
+    }
+
+    @Override
+    public List<Character> search(GameState initState) {
+        int noCols = this.gameEnv.getNoCols();
+        int exitRow = this.gameEnv.getExitRow();
+        int exitCol = this.gameEnv.getExitCol();
+        int start = cellOf(initState);
+        int goal = exitCell();
+        resetCounters();
+
+        int cells = noCells();
+        int[] gScores = new int[cells];
+        Arrays.fill(gScores, Integer.MAX_VALUE);
+        int[] parents = new int[cells];
+        byte[] arrivalDirs = new byte[cells];
+        arrivalDirs[start] = NO_PARENT;
+        long[] closed = new long[(cells + 63) >>> 6];
+        IndexedMinHeap open = new IndexedMinHeap(cells);
+
+        gScores[start] = 0;
+        parents[start] = start;
+        open.insertOrDecrease(start, 0);
+        int bestDistance = Integer.MAX_VALUE;
+        while (!open.isEmpty()) {
+            // the lower half of the key is the heuristic estimate of the cell
+            bestDistance = Math.min(bestDistance, (int) open.peekKey());
+            int cell = open.poll();
+            if (cell == goal) {
+                return expandPath(parents, start, goal);
+            }
+            closed[cell >>> 6] |= 1L << cell;
+            this.nodesExpanded++;
+            if (this.nodesExpanded % PROGRESS_INTERVAL == 0) {
+                reportProgress(open.size(), bestDistance);
+            }
+            int arrival = arrivalDirs[cell];
+            for (int dir = 0; dir < NO_DIRECTIONS; dir++) {
+                // never jump straight back the way we came
+                if (arrival != NO_PARENT && dir == (arrival ^ 1)) {
+                    continue;
+                }
+                int next = jump(cell, dir, goal);
+                if (next == NO_JUMP || (closed[next >>> 6] & (1L << next)) != 0) {
+                    continue;
+                }
+                int nextG = gScores[cell] + this.jumpLength * GameEnv.ACTION_COST;
+                if (nextG >= gScores[next]) {
+                    continue;
+                }
+                gScores[next] = nextG;
+                parents[next] = cell;
+                arrivalDirs[next] = (byte) dir;
+                int nextRow = next / noCols;
+                int h = Math.abs(nextRow - exitRow) + Math.abs(next - nextRow * noCols - exitCol);
+                open.insertOrDecrease(next, ((long) (nextG + h) << 32) | h);
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * moves from the given cell in a straight line until a jump point is found.
+     * The number of steps taken is stored in jumpLength.
+     * @param cell the packed cell index to jump from
+     * @param dir the direction to jump in
+     * @param goal the packed cell index of the goal
+     * @return the jump point reached, or NO_JUMP if a wall is hit first
+     */
+    private int jump(int cell, int dir, int goal) {
+        boolean vertical = dir < 2;
+        int current = cell;
+        int currentMask = neighbors(current);
+        int steps = 0;
+        while ((currentMask & (1 << dir)) != 0) {
+            int next = step(current, dir);
+            steps++;
+            int nextMask = neighbors(next);
+            if (next == goal) {
+                this.jumpLength = steps;
+                return next;
+            }
+            if (vertical) {
+                // a horizontal branch could lead somewhere new
+                if ((nextMask & 0b1100) != 0) {
+                    this.jumpLength = steps;
+                    return next;
+                }
+            } else if ((nextMask & ~currentMask & 0b0011) != 0) {
+                // a vertical neighbour which was blocked for the previous cell is forced
+                this.jumpLength = steps;
+                return next;
+            }
+            current = next;
+            currentMask = nextMask;
+        }
+        return NO_JUMP;
+    }
+
+    /**
+     * expands the chain of jump points from the goal back to the start
+     * into the single actions which walk between them
+     * @param parents the jump point each jump point was reached from
+     * @param start the packed cell index the search started from
+     * @param goal the packed cell index which was reached
+     * @return the list of actions taken to reach the goal from the start
+     */
+    private List<Character> expandPath(int[] parents, int start, int goal) {
+        int noCols = this.gameEnv.getNoCols();
+        List<Character> seq = new ArrayList<>();
+        int cell = goal;
+        while (cell != start) {
+            int parent = parents[cell];
+            int diff = cell - parent;
+            char action;
+            int length;
+            if (parent / noCols == cell / noCols) {
+                action = diff > 0 ? GameEnv.RIGHT : GameEnv.LEFT;
+                length = Math.abs(diff);
+            } else {
+                action = diff > 0 ? GameEnv.DOWN : GameEnv.UP;
+                length = Math.abs(diff) / noCols;
+            }
+            for (int i = 0; i < length; i++) {
+                seq.add(action);
+            }
+            cell = parent;
+        }
+        Collections.reverse(seq);
+        return seq;
+    }
+}
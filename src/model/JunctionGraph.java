@@ -0,0 +1,317 @@
+package model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * a compact graph of the junctions of a maze. Most cells of a maze have
+ * exactly two open neighbours and only lead from one place to another, so
+ * every chain of such corridor cells is collapsed into a single weighted
+ * edge between the cells at its ends. The nodes of the graph are the
+ * junctions, the dead ends, the start and the exit.
+ * <p>
+ * The graph is stored as adjacency arrays: the edges of node n are found at
+ * the indices edgeStart(n) to edgeStart(n + 1) - 1. Every edge remembers the
+ * direction it leaves its node in, which is enough to walk the corridor
+ * again and expand a path through the graph back into single actions.
+ * </p>
+ */
+public class JunctionGraph {
+    /**
+     * the environment the graph was built from
+     */
+    private final GameEnv gameEnv;
+    /**
+     * the packed cell index of the start, which is always a node
+     */
+    private final int startCell;
+    /**
+     * the packed cell index of the exit, which is always a node
+     */
+    private final int exitCell;
+    /**
+     * the packed cell index of every node, in increasing order
+     */
+    private final int[] nodeCells;
+    /**
+     * the index of the first edge of every node, with one extra entry at the end
+     */
+    private final int[] edgeStarts;
+    /**
+     * the node each edge leads to
+     */
+    private final int[] edgeTargets;
+    /**
+     * the number of actions needed to walk along each edge
+     */
+    private final int[] edgeWeights;
+    /**
+     * the direction each edge leaves its node in
+     */
+    private final byte[] edgeDirs;
+
+    /**
+     * builds the junction graph of the given environment
+     * @param gameEnv the environment of the game
+     */
+    public JunctionGraph(GameEnv gameEnv) {
+        this.gameEnv = gameEnv;
+        GameState start = gameEnv.getInitState();
+        this.startCell = start.getRow() * gameEnv.getNoCols() + start.getCol();
+        this.exitCell = gameEnv.getExitRow() * gameEnv.getNoCols() + gameEnv.getExitCol();
+        int cells = gameEnv.getNoRows() * gameEnv.getNoCols();
+        int[] nodes = new int[64];
+        int noNodes = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (this.isNodeCell(cell)) {
+                if (noNodes == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, noNodes * 2);
+                }
+                nodes[noNodes++] = cell;
+            }
+        }
+        this.nodeCells = Arrays.copyOf(nodes, noNodes);
+        this.edgeStarts = new int[noNodes + 1];
+
+        int[] targets = new int[Math.max(noNodes, 16)];
+        int[] weights = new int[targets.length];
+        byte[] dirs = new byte[targets.length];
+        int noEdges = 0;
+        for (int node = 0; node < noNodes; node++) {
+            this.edgeStarts[node] = noEdges;
+            int cell = this.nodeCells[node];
+            int mask = this.neighbors(cell);
+            for (int dir = 0; dir < GridSearch.NO_DIRECTIONS; dir++) {
+                if ((mask & (1 << dir)) == 0) {
+                    continue;
+                }
+                long walked = this.walk(cell, dir, null);
+                int target = this.nodeOf(walkEnd(walked));
+                // corridors which loop back to the same node never shorten a path
+                if (target == node) {
+                    continue;
+                }
+                if (noEdges == targets.length) {
+                    targets = Arrays.copyOf(targets, noEdges * 2);
+                    weights = Arrays.copyOf(weights, noEdges * 2);
+                    dirs = Arrays.copyOf(dirs, noEdges * 2);
+                }
+                targets[noEdges] = target;
+                weights[noEdges] = walkLength(walked) * GameEnv.ACTION_COST;
+                dirs[noEdges] = (byte) dir;
+                noEdges++;
+            }
+        }
+        this.edgeStarts[noNodes] = noEdges;
+        this.edgeTargets = Arrays.copyOf(targets, noEdges);
+        this.edgeWeights = Arrays.copyOf(weights, noEdges);
+        this.edgeDirs = Arrays.copyOf(dirs, noEdges);
+    }
+
+    /**
+     * constructs a graph from nodes and edges found before
+     */
+    private JunctionGraph(GameEnv gameEnv, int[] nodeCells, int[] edgeStarts, int[] edgeTargets,
+                          int[] edgeWeights, byte[] edgeDirs) {
+        this.gameEnv = gameEnv;
+        GameState start = gameEnv.getInitState();
+        this.startCell = start.getRow() * gameEnv.getNoCols() + start.getCol();
+        this.exitCell = gameEnv.getExitRow() * gameEnv.getNoCols() + gameEnv.getExitCol();
+        this.nodeCells = nodeCells;
+        this.edgeStarts = edgeStarts;
+        this.edgeTargets = edgeTargets;
+        this.edgeWeights = edgeWeights;
+        this.edgeDirs = edgeDirs;
+    }
+
+    /**
+     * writes the graph in the form read by {@link #read(GameEnv, ByteBuffer)}: the
+     * number of nodes and edges, the cell of every node, the first edge of every
+     * node and the target, weight and direction of every edge
+     * @param out the output to write to
+     * @throws IOException if the output cannot be written
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(this.nodeCells.length);
+        out.writeInt(this.edgeTargets.length);
+        for (int[] values : new int[][] {this.nodeCells, this.edgeStarts, this.edgeTargets, this.edgeWeights}) {
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        }
+        out.write(this.edgeDirs);
+    }
+
+    /**
+     * reads a graph written by {@link #write(DataOutput)} for the maze of the given environment
+     * @param gameEnv the environment of the game the graph was built for
+     * @param in a buffer holding exactly the written graph
+     * @return the junction graph
+     * @throws IllegalArgumentException if the buffer does not hold a whole graph
+     */
+    public static JunctionGraph read(GameEnv gameEnv, ByteBuffer in) throws IllegalArgumentException {
+        ByteBuffer buffer = in.duplicate();
+        int noNodes = buffer.remaining() >= 8 ? buffer.getInt() : -1;
+        int noEdges = buffer.remaining() >= 4 ? buffer.getInt() : -1;
+        if (noNodes < 0 || noEdges < 0
+                || buffer.remaining() != 4L * (noNodes + noNodes + 1 + noEdges + noEdges) + noEdges) {
+            throw new IllegalArgumentException("the junction graph does not match its size");
+        }
+        int[][] values = {new int[noNodes], new int[noNodes + 1], new int[noEdges], new int[noEdges]};
+        for (int[] array : values) {
+            buffer.asIntBuffer().get(array);
+            buffer.position(buffer.position() + array.length * Integer.BYTES);
+        }
+        byte[] dirs = new byte[noEdges];
+        buffer.get(dirs);
+        return new JunctionGraph(gameEnv, values[0], values[1], values[2], values[3], dirs);
+    }
+
+    /**
+     * returns the number of nodes in the graph
+     * @return the number of nodes
+     */
+    public int getNoNodes() {
+        return this.nodeCells.length;
+    }
+
+    /**
+     * returns the number of directed edges in the graph.
+     * Every corridor is counted once from each of its ends.
+     * @return the number of edges
+     */
+    public int getNoEdges() {
+        return this.edgeTargets.length;
+    }
+
+    /**
+     * returns the packed cell index of the given node
+     * @param node the node
+     * @return the packed cell index (row * noCols + col)
+     */
+    public int cellOf(int node) {
+        return this.nodeCells[node];
+    }
+
+    /**
+     * returns the node at the given packed cell
+     * @param cell the packed cell index (row * noCols + col)
+     * @return the node at the cell, or -1 if the cell is not a node
+     */
+    public int nodeOf(int cell) {
+        int node = Arrays.binarySearch(this.nodeCells, cell);
+        return node < 0 ? -1 : node;
+    }
+
+    /**
+     * returns the index of the first edge of the given node.
+     * The edges of the node end just before the first edge of the next node.
+     * @param node the node
+     * @return the index of its first edge
+     */
+    public int edgeStart(int node) {
+        return this.edgeStarts[node];
+    }
+
+    /**
+     * returns the node the given edge leads to
+     * @param edge the index of the edge
+     * @return the target node
+     */
+    public int edgeTarget(int edge) {
+        return this.edgeTargets[edge];
+    }
+
+    /**
+     * returns the number of actions needed to walk along the given edge
+     * @param edge the index of the edge
+     * @return the weight of the edge
+     */
+    public int edgeWeight(int edge) {
+        return this.edgeWeights[edge];
+    }
+
+    /**
+     * returns the direction the given edge leaves its node in, in the order of GameEnv.ACTIONS
+     * @param edge the index of the edge
+     * @return the direction of the first step along the edge
+     */
+    public int edgeDir(int edge) {
+        return this.edgeDirs[edge];
+    }
+
+    /**
+     * walks from the given cell in the given direction and keeps following
+     * the corridor until a node is reached. The walk also stops if it comes
+     * back to the cell it started from, which only happens in a loop without any node.
+     * @param cell the packed cell index to start from
+     * @param dir the direction of the first step
+     * @param actions if not null, the action of every step is appended to it
+     * @return the number of steps taken in the upper 32 bits and the packed
+     *          cell index the walk stopped at in the lower 32 bits
+     */
+    long walk(int cell, int dir, List<Character> actions) {
+        int current = cell;
+        int steps = 0;
+        while (true) {
+            current = this.gameEnv.step(current, dir);
+            steps++;
+            if (actions != null) {
+                actions.add(Direction.of(dir).getAction());
+            }
+            if (current == cell || this.isNodeCell(current)) {
+                break;
+            }
+            // a corridor cell has exactly one way on besides the way back
+            int onward = this.neighbors(current) & ~(1 << (dir ^ 1));
+            dir = Integer.numberOfTrailingZeros(onward);
+        }
+        return ((long) steps << 32) | current;
+    }
+
+    /**
+     * returns the packed cell index a walk stopped at
+     * @param walked the result of walk
+     * @return the packed cell index
+     */
+    static int walkEnd(long walked) {
+        return (int) walked;
+    }
+
+    /**
+     * returns the number of steps taken by a walk
+     * @param walked the result of walk
+     * @return the number of steps
+     */
+    static int walkLength(long walked) {
+        return (int) (walked >>> 32);
+    }
+
+    /**
+     * returns whether the given open cell becomes a node of the graph,
+     * i.e. whether it is the start, the exit or does not have exactly two open neighbours
+     * @param cell the packed cell index
+     * @return true if the cell is a node
+     */
+    boolean isNodeCell(int cell) {
+        if (this.gameEnv.getWalls().isWall(cell)) {
+            return false;
+        }
+        if (cell == this.startCell || cell == this.exitCell) {
+            return true;
+        }
+        return Integer.bitCount(this.neighbors(cell)) != 2;
+    }
+
+    /**
+     * returns a mask of the open directions from the given cell, bit d for direction d
+     * @param cell the packed cell index
+     * @return the mask of open directions
+     */
+    int neighbors(int cell) {
+        return this.gameEnv.neighbors(cell);
+    }
+}
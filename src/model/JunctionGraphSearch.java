@@ -0,0 +1,128 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dijkstra's algorithm over the junction graph of the maze instead of its
+ * cells. Corridors are crossed in a single step, so in mazes made of 1-wide
+ * passages the search only touches a small fraction of the cells. The
+ * junction graph is built once per maze and shared by every search.
+ */
+public class JunctionGraphSearch extends GridSearch {
+    /**
+     * marks a node which was reached directly from the start instead of along an edge
+     */
+    private static final int SEED = -1;
+
+    /**
+     * constructs a new junction graph search for the given environment
+     * @param gameEnv the environment of the game to be solved
+     */
+    public JunctionGraphSearch(GameEnv gameEnv) {
+        super(gameEnv);
+    }
+
+    @Override
+    public List<Character> search(GameState initState) {
+        beginPhase("graph");
+        JunctionGraph graph = this.gameEnv.getJunctionGraph();
+        int start = cellOf(initState);
+        int goalNode = graph.nodeOf(exitCell());
+        resetCounters();
+        if (start == exitCell() || goalNode < 0 || !this.gameEnv.isValid(initState)) {
+            return new ArrayList<>();
+        }
+
+        int noNodes = graph.getNoNodes();
+        int[] distances = new int[noNodes];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        // the edge every node was reached along, or SEED
+        int[] parentEdges = new int[noNodes];
+        // the node every edge leaves from is needed to walk back along the path
+        int[] parentNodes = new int[noNodes];
+        // for seeds, the direction the start has to be left in to reach them
+        byte[] seedDirs = new byte[noNodes];
+        IndexedMinHeap open = new IndexedMinHeap(noNodes);
+
+        beginPhase("search");
+        int startNode = graph.nodeOf(start);
+        if (startNode >= 0) {
+            distances[startNode] = 0;
+            parentEdges[startNode] = SEED;
+            seedDirs[startNode] = NO_PARENT;
+            open.insertOrDecrease(startNode, 0);
+        } else {
+            // the start lies inside a corridor, so both of its ends are seeds
+            int mask = neighbors(start);
+            for (int dir = 0; dir < NO_DIRECTIONS; dir++) {
+                if ((mask & (1 << dir)) == 0) {
+                    continue;
+                }
+                long walked = graph.walk(start, dir, null);
+                int node = graph.nodeOf(JunctionGraph.walkEnd(walked));
+                int distance = JunctionGraph.walkLength(walked) * GameEnv.ACTION_COST;
+                if (node >= 0 && distance < distances[node]) {
+                    distances[node] = distance;
+                    parentEdges[node] = SEED;
+                    seedDirs[node] = (byte) dir;
+                    open.insertOrDecrease(node, distance);
+                }
+            }
+        }
+
+        while (!open.isEmpty()) {
+            int node = open.poll();
+            if (node == goalNode) {
+                beginPhase("expand");
+                return expandPath(graph, parentEdges, parentNodes, seedDirs, start, goalNode);
+            }
+            this.nodesExpanded++;
+            if (this.nodesExpanded % PROGRESS_INTERVAL == 0) {
+                reportProgress(open.size(), UNKNOWN_DISTANCE);
+            }
+            int end = graph.edgeStart(node + 1);
+            for (int edge = graph.edgeStart(node); edge < end; edge++) {
+                int target = graph.edgeTarget(edge);
+                int distance = distances[node] + graph.edgeWeight(edge);
+                if (distance < distances[target]) {
+                    distances[target] = distance;
+                    parentEdges[target] = edge;
+                    parentNodes[target] = node;
+                    open.insertOrDecrease(target, distance);
+                }
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * walks the edges of the path back from the goal and expands each of
+     * them into the single actions along its corridor
+     * @return the list of actions taken to reach the goal from the start
+     */
+    private List<Character> expandPath(JunctionGraph graph, int[] parentEdges, int[] parentNodes,
+                                       byte[] seedDirs, int start, int goalNode) {
+        List<List<Character>> segments = new ArrayList<>();
+        int node = goalNode;
+        while (parentEdges[node] != SEED) {
+            List<Character> segment = new ArrayList<>();
+            graph.walk(graph.cellOf(parentNodes[node]), graph.edgeDir(parentEdges[node]), segment);
+            segments.add(segment);
+            node = parentNodes[node];
+        }
+        if (seedDirs[node] != NO_PARENT) {
+            List<Character> segment = new ArrayList<>();
+            graph.walk(start, seedDirs[node], segment);
+            segments.add(segment);
+        }
+        Collections.reverse(segments);
+        List<Character> seq = new ArrayList<>();
+        for (List<Character> segment : segments) {
+            seq.addAll(segment);
+        }
+        return seq;
+    }
+}
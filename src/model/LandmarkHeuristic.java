@@ -0,0 +1,130 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * an ALT (A*, landmarks and the triangle inequality) heuristic.
+ * A few walkable cells are chosen as landmarks and the exact distance from
+ * every cell to every landmark is precomputed. For any landmark L the
+ * triangle inequality gives |d(L, goal) - d(L, cell)| &lt;= d(cell, goal),
+ * so the largest of these differences is an admissible and consistent
+ * estimate for any pair of cells, not just for the exit of the maze.
+ * In twisty mazes it is far closer to the true distance than a straight
+ * line estimate, so A* expands much fewer cells.
+ * <p>
+ * The distance tables are built once per maze, one breadth-first search per
+ * landmark, in parallel. The heuristic can then be reused for any number of
+ * queries with {@link GridAStar#setHeuristic(GridHeuristic)}.
+ * </p>
+ */
+public class LandmarkHeuristic implements GridHeuristic {
+    /**
+     * the distance from every cell to every landmark
+     */
+    private final DistanceField[] tables;
+    /**
+     * the Manhattan distance, used where no landmark gives a better bound
+     */
+    private final GridHeuristic manhattan;
+    /**
+     * the landmarks the tables were built for
+     */
+    private final List<GameState> landmarks;
+
+    /**
+     * constructs a landmark heuristic using k landmarks chosen by
+     * farthest-point selection on the walkable cells of the maze
+     * @param gameEnv the environment of the game
+     * @param k the number of landmarks to use
+     */
+    public LandmarkHeuristic(GameEnv gameEnv, int k) {
+        this(gameEnv, selectFarthestPoints(gameEnv, k));
+    }
+
+    /**
+     * constructs a landmark heuristic using the given landmarks.
+     * The distance tables of the landmarks are computed in parallel.
+     * @param gameEnv the environment of the game
+     * @param landmarks the walkable cells to use as landmarks
+     */
+    public LandmarkHeuristic(GameEnv gameEnv, List<GameState> landmarks) {
+        this.landmarks = new ArrayList<>(landmarks);
+        this.manhattan = GridHeuristic.manhattan(gameEnv.getNoCols());
+        this.tables = IntStream.range(0, landmarks.size())
+                .parallel()
+                .mapToObj(i -> new DistanceField(gameEnv, landmarks.get(i)))
+                .toArray(DistanceField[]::new);
+    }
+
+    /**
+     * returns the landmarks used by the heuristic
+     * @return a list of the landmark states
+     */
+    public List<GameState> getLandmarks() {
+        return new ArrayList<>(this.landmarks);
+    }
+
+    @Override
+    public int estimate(int cell, int goal) {
+        int best = this.manhattan.estimate(cell, goal);
+        for (DistanceField table : this.tables) {
+            int toCell = table.distanceAt(cell);
+            int toGoal = table.distanceAt(goal);
+            // a landmark in another part of the maze says nothing about this pair
+            if (toCell == DistanceField.UNREACHABLE || toGoal == DistanceField.UNREACHABLE) {
+                continue;
+            }
+            best = Math.max(best, Math.abs(toGoal - toCell));
+        }
+        return best;
+    }
+
+    /**
+     * chooses k walkable cells which are spread out over the maze. The first
+     * landmark is the walkable cell farthest from the start and every further
+     * landmark is the walkable cell farthest from all landmarks chosen so far.
+     * Distances are measured in a straight line (Manhattan) so the choice needs
+     * no searches and all distance tables can then be built at the same time.
+     * @param gameEnv the environment of the game
+     * @param k the number of landmarks to choose
+     * @return the chosen landmarks
+     */
+    public static List<GameState> selectFarthestPoints(GameEnv gameEnv, int k) {
+        WallStorage walls = gameEnv.getWalls();
+        int noRows = gameEnv.getNoRows();
+        int noCols = gameEnv.getNoCols();
+        GameState start = gameEnv.getInitState();
+        // the distance from every cell to the nearest chosen point, -1 for walls
+        int[] nearest = new int[noRows * noCols];
+        for (int i = 0; i < noRows; i++) {
+            for (int j = 0; j < noCols; j++) {
+                nearest[i * noCols + j] = walls.isWall(i, j) ? -1
+                        : Math.abs(i - start.getRow()) + Math.abs(j - start.getCol());
+            }
+        }
+        List<GameState> chosen = new ArrayList<>();
+        while (chosen.size() < k) {
+            int farthest = -1;
+            for (int cell = 0; cell < nearest.length; cell++) {
+                if (nearest[cell] > 0 && (farthest < 0 || nearest[cell] > nearest[farthest])) {
+                    farthest = cell;
+                }
+            }
+            if (farthest < 0) {
+                break;
+            }
+            int row = farthest / noCols;
+            int col = farthest % noCols;
+            chosen.add(gameEnv.stateAt(row, col));
+            for (int cell = 0; cell < nearest.length; cell++) {
+                if (nearest[cell] > 0) {
+                    int distance = Math.abs(cell / noCols - row) + Math.abs(cell % noCols - col);
+                    nearest[cell] = Math.min(nearest[cell], distance);
+                }
+            }
+        }
+        return chosen;
+    }
+}
@@ -0,0 +1,22 @@
+package model;
+
+/**
+ * a listener which is told whenever the maze of a GameEnv changes, so that
+ * anything derived from the maze can be repaired or discarded
+ */
+public interface MazeChangeListener {
+
+    /**
+     * called after a single cell of the maze has been changed with GameEnv.setCell
+     * @param row the row of the changed cell
+     * @param col the column of the changed cell
+     * @param oldTile the tile which was in the cell before
+     * @param newTile the tile which is in the cell now
+     */
+    void cellChanged(int row, int col, char oldTile, char newTile);
+
+    /**
+     * called after the whole maze has been replaced with GameEnv.setMazeRepr
+     */
+    void mazeReplaced();
+}
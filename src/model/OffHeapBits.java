@@ -0,0 +1,199 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * an array of bits stored outside the Java heap and indexed by long, so it
+ * can hold more than 2^31 bits and is never moved or scanned by the garbage
+ * collector. The bits are kept in direct buffers of up to 1 GiB each, as a
+ * single buffer cannot be larger than 2^31 bytes.
+ * <p>
+ * The memory is given back when the array is garbage collected. Direct
+ * memory is limited by the -XX:MaxDirectMemorySize option of the JVM, which
+ * defaults to the maximum heap size and has to be raised for huge mazes.
+ * </p>
+ */
+final class OffHeapBits {
+    /**
+     * the number of bits of a word index which select a word within a chunk
+     */
+    private static final int CHUNK_BITS = 27;
+    /**
+     * the number of long words in a full chunk, 1 GiB
+     */
+    private static final int CHUNK_WORDS = 1 << CHUNK_BITS;
+
+    /**
+     * the number of bits in the array
+     */
+    private final long noBits;
+    /**
+     * the chunks of words holding the bits, all full except the last
+     */
+    private final LongBuffer[] chunks;
+
+    /**
+     * allocates a new array in which every bit is clear
+     * @param noBits the number of bits in the array
+     * @throws IllegalArgumentException if the number of bits is negative
+     * @throws OutOfMemoryError if there is not enough direct memory
+     */
+    OffHeapBits(long noBits) throws IllegalArgumentException {
+        if (noBits < 0) {
+            throw new IllegalArgumentException("negative number of bits: " + noBits);
+        }
+        this.noBits = noBits;
+        long noWords = (noBits + 63) >>> 6;
+        this.chunks = new LongBuffer[(int) ((noWords + CHUNK_WORDS - 1) >>> CHUNK_BITS)];
+        for (int i = 0; i < this.chunks.length; i++) {
+            long words = Math.min(CHUNK_WORDS, noWords - ((long) i << CHUNK_BITS));
+            // direct buffers are zeroed when they are allocated
+            this.chunks[i] = ByteBuffer.allocateDirect((int) words * Long.BYTES)
+                    .order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+    }
+
+    /**
+     * constructs an array on chunks which were allocated or mapped before
+     */
+    private OffHeapBits(long noBits, LongBuffer[] chunks) {
+        this.noBits = noBits;
+        this.chunks = chunks;
+    }
+
+    /**
+     * maps bits stored in a file as big-endian longs, lowest bit first. Pages
+     * of the file are only read once they are used. The file is mapped read
+     * only, and a chunk is copied into direct memory the first time one of its
+     * bits is changed, so the file itself never changes.
+     * @param channel the channel of the file
+     * @param position the offset of the first word in the file
+     * @param noBits the number of bits in the array
+     * @return the mapped array
+     * @throws IOException if the file cannot be mapped
+     */
+    static OffHeapBits map(FileChannel channel, long position, long noBits) throws IOException {
+        long noWords = (noBits + 63) >>> 6;
+        LongBuffer[] chunks = new LongBuffer[(int) ((noWords + CHUNK_WORDS - 1) >>> CHUNK_BITS)];
+        for (int i = 0; i < chunks.length; i++) {
+            long first = (long) i << CHUNK_BITS;
+            long words = Math.min(CHUNK_WORDS, noWords - first);
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + first * Long.BYTES,
+                    words * Long.BYTES).asLongBuffer();
+        }
+        return new OffHeapBits(noBits, chunks);
+    }
+
+    /**
+     * returns the number of bits in the array
+     * @return the number of bits
+     */
+    long size() {
+        return noBits;
+    }
+
+    /**
+     * returns the given bit
+     * @param index the index of the bit
+     * @return true if the bit is set
+     */
+    boolean get(long index) {
+        long word = index >>> 6;
+        return (this.chunks[(int) (word >>> CHUNK_BITS)].get((int) word & (CHUNK_WORDS - 1)) & (1L << index)) != 0;
+    }
+
+    /**
+     * returns the 64 bits starting at bit 64 * index
+     * @param index the index of the word
+     * @return the word, the lowest bit being the first
+     */
+    long getWord(long index) {
+        return this.chunks[(int) (index >>> CHUNK_BITS)].get((int) index & (CHUNK_WORDS - 1));
+    }
+
+    /**
+     * sets or clears the given bit
+     * @param index the index of the bit
+     * @param value true to set the bit, false to clear it
+     */
+    void set(long index, boolean value) {
+        long word = index >>> 6;
+        LongBuffer chunk = this.chunks[(int) (word >>> CHUNK_BITS)];
+        if (chunk.isReadOnly()) {
+            chunk = this.copyChunk((int) (word >>> CHUNK_BITS));
+        }
+        int offset = (int) word & (CHUNK_WORDS - 1);
+        long bits = chunk.get(offset);
+        chunk.put(offset, value ? bits | (1L << index) : bits & ~(1L << index));
+    }
+
+    /**
+     * returns the given group of four bits, for arrays used as tables of nibbles
+     * @param index the index of the nibble, which is made of the bits 4 * index to 4 * index + 3
+     * @return the value of the nibble
+     */
+    int getNibble(long index) {
+        long word = index >>> 4;
+        long bits = this.chunks[(int) (word >>> CHUNK_BITS)].get((int) word & (CHUNK_WORDS - 1));
+        return (int) (bits >>> ((index & 15) << 2)) & 0xF;
+    }
+
+    /**
+     * sets the given group of four bits
+     * @param index the index of the nibble, which is made of the bits 4 * index to 4 * index + 3
+     * @param value the new value of the nibble, of which only the lowest four bits are used
+     */
+    void setNibble(long index, int value) {
+        long word = index >>> 4;
+        LongBuffer chunk = this.chunks[(int) (word >>> CHUNK_BITS)];
+        if (chunk.isReadOnly()) {
+            chunk = this.copyChunk((int) (word >>> CHUNK_BITS));
+        }
+        int offset = (int) word & (CHUNK_WORDS - 1);
+        int shift = (int) (index & 15) << 2;
+        chunk.put(offset, (chunk.get(offset) & ~(0xFL << shift)) | ((long) (value & 0xF) << shift));
+    }
+
+    /**
+     * replaces a chunk mapped read only from a file by a copy in direct memory which can be changed
+     * @return the copy
+     */
+    private LongBuffer copyChunk(int index) {
+        LongBuffer mapped = this.chunks[index];
+        LongBuffer copy = ByteBuffer.allocateDirect(mapped.capacity() * Long.BYTES)
+                .order(mapped.order()).asLongBuffer();
+        copy.put(0, mapped, 0, mapped.capacity());
+        this.chunks[index] = copy;
+        return copy;
+    }
+
+    /**
+     * returns the number of set bits
+     * @return the number of bits which are set
+     */
+    long cardinality() {
+        long count = 0;
+        for (LongBuffer chunk : this.chunks) {
+            for (int i = 0; i < chunk.capacity(); i++) {
+                count += Long.bitCount(chunk.get(i));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * returns the number of bytes of direct memory used by the array
+     * @return the size of the array in bytes
+     */
+    long sizeInBytes() {
+        long size = 0;
+        for (LongBuffer chunk : this.chunks) {
+            size += (long) chunk.capacity() * Long.BYTES;
+        }
+        return size;
+    }
+}
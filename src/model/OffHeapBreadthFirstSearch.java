@@ -0,0 +1,135 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * a breadth-first search for mazes of any size, which addresses cells by
+ * long and keeps its working memory outside the Java heap. Visited cells and
+ * the direction every cell was reached in take 3 bits per cell of direct
+ * memory, so a 100k x 100k maze with off-heap walls needs about 5 GB in total
+ * and leaves the heap with only the frontier and the path found.
+ * <p>
+ * It is slower per cell than BreadthFirstSearch, which reads the table of
+ * open directions and keeps its arrays on the heap, so it is only worth
+ * choosing for mazes too large for the int based strategies.
+ * </p>
+ */
+public class OffHeapBreadthFirstSearch implements SearchStrategy {
+    /**
+     * the environment of the maze to be solved
+     */
+    private final GameEnv gameEnv;
+    /**
+     * the number of nodes which were expanded by the last search
+     */
+    private long nodesExpanded;
+    /**
+     * told about the progress of every search, or null
+     */
+    private SearchMonitor monitor;
+
+    /**
+     * constructs a new off-heap breadth-first search for the given environment
+     * @param gameEnv the environment of the game to be solved
+     */
+    public OffHeapBreadthFirstSearch(GameEnv gameEnv) {
+        this.gameEnv = gameEnv;
+    }
+
+    @Override
+    public void setMonitor(SearchMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public List<Character> search(GameState initState) throws CancellationException {
+        this.nodesExpanded = 0;
+        int noCols = this.gameEnv.getNoCols();
+        long start = (long) initState.getRow() * noCols + initState.getCol();
+        long goal = (long) this.gameEnv.getExitRow() * noCols + this.gameEnv.getExitCol();
+        if (start == goal || !this.gameEnv.isValid(initState)) {
+            return new ArrayList<>();
+        }
+        long cells = this.gameEnv.getNoCells();
+        OffHeapBits visited = new OffHeapBits(cells);
+        // the direction every cell was reached in, split into its low and high bit
+        OffHeapBits lowDirs = new OffHeapBits(cells);
+        OffHeapBits highDirs = new OffHeapBits(cells);
+        long[] frontier = new long[1024];
+        long[] next = new long[1024];
+        int frontierSize = 0;
+        frontier[frontierSize++] = start;
+        visited.set(start, true);
+        while (frontierSize > 0) {
+            int nextSize = 0;
+            for (int i = 0; i < frontierSize; i++) {
+                long cell = frontier[i];
+                this.nodesExpanded++;
+                if (this.nodesExpanded % GridSearch.PROGRESS_INTERVAL == 0) {
+                    this.reportProgress(frontierSize - i + nextSize);
+                }
+                int mask = this.gameEnv.openDirections(cell);
+                for (int dir = 0; dir < GridSearch.NO_DIRECTIONS; dir++) {
+                    if ((mask & (1 << dir)) == 0) {
+                        continue;
+                    }
+                    long neighbour = this.gameEnv.step(cell, dir);
+                    if (visited.get(neighbour)) {
+                        continue;
+                    }
+                    visited.set(neighbour, true);
+                    lowDirs.set(neighbour, (dir & 1) != 0);
+                    highDirs.set(neighbour, (dir & 2) != 0);
+                    if (neighbour == goal) {
+                        return this.toActions(lowDirs, highDirs, start, goal);
+                    }
+                    if (nextSize == next.length) {
+                        next = Arrays.copyOf(next, nextSize * 2);
+                    }
+                    next[nextSize++] = neighbour;
+                }
+            }
+            long[] swap = frontier;
+            frontier = next;
+            next = swap;
+            frontierSize = nextSize;
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * tells the monitor about the progress of the search
+     * @throws CancellationException if the monitor asks for the search to stop
+     */
+    private void reportProgress(int frontierSize) throws CancellationException {
+        if (this.monitor != null
+                && !this.monitor.progress(this.getNodesExpanded(), frontierSize, Integer.MAX_VALUE)) {
+            throw new CancellationException("search stopped after " + this.nodesExpanded + " expansions");
+        }
+    }
+
+    @Override
+    public int getNodesExpanded() {
+        return (int) Math.min(Integer.MAX_VALUE, this.nodesExpanded);
+    }
+
+    /**
+     * walks the directions back from the goal to the start and collects the
+     * actions taken, in order from the start
+     */
+    private List<Character> toActions(OffHeapBits lowDirs, OffHeapBits highDirs, long start, long goal) {
+        List<Character> seq = new ArrayList<>();
+        long cell = goal;
+        while (cell != start) {
+            int dir = (lowDirs.get(cell) ? 1 : 0) | (highDirs.get(cell) ? 2 : 0);
+            seq.add(Direction.of(dir).getAction());
+            cell = this.gameEnv.step(cell, dir ^ 1);
+        }
+        Collections.reverse(seq);
+        return seq;
+    }
+}
@@ -0,0 +1,112 @@
+package model;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * a storage of the walls of a maze outside the Java heap, one bit per cell
+ * in direct memory. The walls of a huge maze then add nothing to the heap the
+ * garbage collector has to manage, and as cells are addressed by long the
+ * maze is not limited to 2^31 cells. A 100k x 100k maze needs 1.25 GB.
+ * <p>
+ * The JVM has to be started with a -XX:MaxDirectMemorySize large enough for
+ * the walls, and for the working memory of OffHeapBreadthFirstSearch if it is
+ * used. The search strategies which keep arrays indexed by int only accept
+ * mazes of fewer than 2^31 cells whichever storage holds the walls.
+ * </p>
+ */
+public class OffHeapWallBitmap implements WallStorage {
+    /**
+     * the number of rows in the maze
+     */
+    private final int noRows;
+    /**
+     * the number of columns in the maze
+     */
+    private final int noCols;
+    /**
+     * one bit for every cell, set if the cell is a wall
+     */
+    private final OffHeapBits bits;
+
+    /**
+     * allocates a new bitmap of the given size in which every cell is open
+     * @param noRows the number of rows in the maze
+     * @param noCols the number of columns in the maze
+     * @throws IllegalArgumentException if either size is not positive
+     * @throws OutOfMemoryError if there is not enough direct memory
+     */
+    public OffHeapWallBitmap(int noRows, int noCols) throws IllegalArgumentException {
+        if (noRows <= 0 || noCols <= 0) {
+            throw new IllegalArgumentException("maze size must be positive: " + noRows + "x" + noCols);
+        }
+        this.noRows = noRows;
+        this.noCols = noCols;
+        this.bits = new OffHeapBits((long) noRows * noCols);
+    }
+
+    /**
+     * constructs a bitmap on bits which were allocated or mapped before
+     */
+    private OffHeapWallBitmap(int noRows, int noCols, OffHeapBits bits) {
+        this.noRows = noRows;
+        this.noCols = noCols;
+        this.bits = bits;
+    }
+
+    /**
+     * maps the walls of a maze stored in a file as big-endian longs, one bit
+     * per cell row after row. No wall is read until it is asked for, and
+     * walls which are changed are not written back to the file.
+     * @param channel the channel of the file
+     * @param position the offset of the first word in the file
+     * @param noRows the number of rows in the maze
+     * @param noCols the number of columns in the maze
+     * @return the mapped bitmap
+     * @throws IOException if the file cannot be mapped
+     */
+    public static OffHeapWallBitmap map(FileChannel channel, long position, int noRows, int noCols)
+            throws IOException {
+        return new OffHeapWallBitmap(noRows, noCols, OffHeapBits.map(channel, position, (long) noRows * noCols));
+    }
+
+    @Override
+    public int getNoRows() {
+        return noRows;
+    }
+
+    @Override
+    public int getNoCols() {
+        return noCols;
+    }
+
+    @Override
+    public boolean isWall(long cell) {
+        return this.bits.get(cell);
+    }
+
+    @Override
+    public long getWord(long index) {
+        return this.bits.getWord(index);
+    }
+
+    @Override
+    public void setWall(long cell, boolean wall) {
+        this.bits.set(cell, wall);
+    }
+
+    @Override
+    public long countWalls() {
+        return this.bits.cardinality();
+    }
+
+    @Override
+    public boolean isOffHeap() {
+        return true;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return this.bits.sizeInBytes();
+    }
+}
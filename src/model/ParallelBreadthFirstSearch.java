@@ -0,0 +1,207 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * a level-synchronous breadth-first search which expands every frontier in
+ * parallel on a ForkJoinPool. The frontier is split into chunks and each
+ * chunk is expanded by one task. A cell is claimed by setting its bit in a
+ * shared visited bitmap with compare-and-set, so exactly one task records
+ * its parent direction and adds it to the next frontier. The path is
+ * rebuilt from the parent direction array once the exit has been claimed,
+ * so the result is the same kind of action list as every other strategy.
+ */
+public class ParallelBreadthFirstSearch extends GridSearch {
+    /**
+     * the number of frontier cells expanded by one task without splitting further
+     */
+    private static final int CHUNK_SIZE = 2048;
+
+    /**
+     * the pool the frontier chunks are expanded on
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * constructs a new parallel breadth-first search which runs on the common pool
+     * @param gameEnv the environment of the game to be solved
+     */
+    public ParallelBreadthFirstSearch(GameEnv gameEnv) {
+        this(gameEnv, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * constructs a new parallel breadth-first search which runs on the given pool
+     * @param gameEnv the environment of the game to be solved
+     * @param pool the pool the frontier chunks are expanded on
+     */
+    public ParallelBreadthFirstSearch(GameEnv gameEnv, ForkJoinPool pool) {
+        super(gameEnv);
+        this.pool = pool;
+    }
+
+    @Override
+    public List<Character> search(GameState initState) {
+        int start = cellOf(initState);
+        int goal = exitCell();
+        resetCounters();
+        if (start == goal) {
+            return new ArrayList<>();
+        }
+        int cells = noCells();
+        Level level = new Level(goal, new byte[cells], new AtomicLongArray((cells + 63) >>> 6), new int[cells]);
+        Arrays.fill(level.parentDirs, NO_PARENT);
+        level.claim(start);
+        int[] frontier = new int[cells];
+        frontier[0] = start;
+        int size = 1;
+        while (size > 0 && !level.found) {
+            level.nextSize.set(0);
+            this.pool.invoke(new Expand(level, frontier, 0, size));
+            int expandedBefore = this.nodesExpanded;
+            this.nodesExpanded += size;
+            reportProgressAfter(expandedBefore, level.nextSize.get(), UNKNOWN_DISTANCE);
+            // swap the frontiers, the old one is overwritten on the next level
+            int[] expanded = frontier;
+            frontier = level.next;
+            level.next = expanded;
+            size = level.nextSize.get();
+        }
+        if (!level.found) {
+            return new ArrayList<>();
+        }
+        return toActions(level.parentDirs, start, goal);
+    }
+
+    /**
+     * the state shared by every task expanding one level of the search
+     */
+    private static class Level {
+        /**
+         * the packed cell index of the goal
+         */
+        private final int goal;
+        /**
+         * the direction every claimed cell was reached in
+         */
+        private final byte[] parentDirs;
+        /**
+         * one bit per cell, set once the cell has been claimed
+         */
+        private final AtomicLongArray visited;
+        /**
+         * the next frontier which every task appends its claimed cells to
+         */
+        private int[] next;
+        /**
+         * the number of cells in the next frontier
+         */
+        private final AtomicInteger nextSize = new AtomicInteger();
+        /**
+         * set once the goal has been claimed so remaining tasks can stop early
+         */
+        private volatile boolean found;
+
+        /**
+         * constructs the shared state of a search
+         */
+        Level(int goal, byte[] parentDirs, AtomicLongArray visited, int[] next) {
+            this.goal = goal;
+            this.parentDirs = parentDirs;
+            this.visited = visited;
+            this.next = next;
+        }
+
+        /**
+         * atomically sets the visited bit of the given cell
+         * @param cell the packed cell index
+         * @return true if this call set the bit, false if the cell was already claimed
+         */
+        boolean claim(int cell) {
+            int word = cell >>> 6;
+            long bit = 1L << cell;
+            long current = this.visited.get(word);
+            while ((current & bit) == 0) {
+                if (this.visited.compareAndSet(word, current, current | bit)) {
+                    return true;
+                }
+                current = this.visited.get(word);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * a task which expands a range of the current frontier, splitting it in
+     * half until the range is small enough to expand directly
+     */
+    private class Expand extends RecursiveAction {
+        /**
+         * the version of the serialized form, which tasks inherit from ForkJoinTask
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * the state shared by every task of this level
+         */
+        private final Level level;
+        /**
+         * the current frontier
+         */
+        private final int[] frontier;
+        /**
+         * the first index of the range to expand
+         */
+        private final int from;
+        /**
+         * one past the last index of the range to expand
+         */
+        private final int to;
+
+        /**
+         * constructs a task expanding the given range of the frontier
+         */
+        Expand(Level level, int[] frontier, int from, int to) {
+            this.level = level;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > CHUNK_SIZE) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new Expand(this.level, this.frontier, this.from, middle),
+                        new Expand(this.level, this.frontier, middle, this.to));
+                return;
+            }
+            int[] claimed = new int[(this.to - this.from) * NO_DIRECTIONS];
+            int noClaimed = 0;
+            for (int i = this.from; i < this.to && !this.level.found; i++) {
+                int cell = this.frontier[i];
+                int mask = neighbors(cell);
+                for (int dir = 0; dir < NO_DIRECTIONS; dir++) {
+                    if ((mask & (1 << dir)) == 0) {
+                        continue;
+                    }
+                    int next = step(cell, dir);
+                    if (this.level.claim(next)) {
+                        this.level.parentDirs[next] = (byte) dir;
+                        if (next == this.level.goal) {
+                            this.level.found = true;
+                        }
+                        claimed[noClaimed++] = next;
+                    }
+                }
+            }
+            int offset = this.level.nextSize.getAndAdd(noClaimed);
+            System.arraycopy(claimed, 0, this.level.next, offset, noClaimed);
+        }
+    }
+}
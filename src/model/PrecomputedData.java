@@ -0,0 +1,37 @@
+package model;
+
+/**
+ * a source of the data GameEnv derives from the walls of a maze, computed
+ * ahead of time and stored e.g. next to the maze in a binary file. GameEnv
+ * asks its source the first time it needs any of the data and only builds it
+ * itself if the source has none, so a source can read its data lazily.
+ * The source is dropped as soon as the maze changes.
+ */
+public interface PrecomputedData {
+    /**
+     * returns the connected components of the open cells of the maze
+     * @param gameEnv the environment asking for the index
+     * @return the index, or null if it was not precomputed
+     */
+    default ConnectivityIndex connectivityIndex(GameEnv gameEnv) {
+        return null;
+    }
+
+    /**
+     * returns the distance from every cell of the maze to its exit
+     * @param gameEnv the environment asking for the field
+     * @return the distance field, or null if it was not precomputed
+     */
+    default DistanceField distanceField(GameEnv gameEnv) {
+        return null;
+    }
+
+    /**
+     * returns the graph of the junctions of the maze
+     * @param gameEnv the environment asking for the graph
+     * @return the junction graph, or null if it was not precomputed
+     */
+    default JunctionGraph junctionGraph(GameEnv gameEnv) {
+        return null;
+    }
+}
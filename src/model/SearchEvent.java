@@ -0,0 +1,51 @@
+package model;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * a Flight Recorder event recorded for every search run through
+ * SearchStrategy.solve. It costs almost nothing unless a recording is running,
+ * e.g. one started with java -XX:StartFlightRecording.
+ */
+@Name("model.Search")
+@Label("Maze Search")
+@Category("Maze Game")
+@Description("A search for the solution of a maze")
+class SearchEvent extends Event {
+    /**
+     * the name of the strategy which did the search
+     */
+    @Label("Strategy")
+    String strategy;
+    /**
+     * the number of actions in the solution found
+     */
+    @Label("Solution Length")
+    int solutionLength;
+    /**
+     * the number of nodes expanded
+     */
+    @Label("Nodes Expanded")
+    long nodesExpanded;
+    /**
+     * the number of nodes added to the open set or frontier
+     */
+    @Label("Nodes Generated")
+    long nodesGenerated;
+    /**
+     * the largest number of nodes in the open set or frontier at any time
+     */
+    @Label("Peak Open Size")
+    long peakOpenSize;
+    /**
+     * the number of bytes allocated by the search on the calling thread
+     */
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
@@ -0,0 +1,18 @@
+package model;
+
+/**
+ * a callback which is told about the progress of a running search and can stop it.
+ * Every search strategy calls it about every GridSearch.PROGRESS_INTERVAL expansions.
+ */
+public interface SearchMonitor {
+
+    /**
+     * called periodically while a search is running
+     * @param nodesExpanded the number of nodes expanded so far
+     * @param frontierSize the number of nodes waiting to be expanded
+     * @param bestDistance the smallest estimated distance to the goal of any node expanded so far,
+     *                     or Integer.MAX_VALUE if the search does not estimate distances
+     * @return true to keep searching, false to stop the search
+     */
+    boolean progress(int nodesExpanded, int frontierSize, int bestDistance);
+}
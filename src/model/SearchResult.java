@@ -0,0 +1,43 @@
+package model;
+
+import java.util.List;
+
+/**
+ * the solution found by a search together with the statistics of the work it took
+ */
+public class SearchResult {
+    /**
+     * the actions which lead to the exit, empty if there is no solution
+     */
+    private final List<Character> actions;
+    /**
+     * the statistics of the search
+     */
+    private final SearchStats stats;
+
+    /**
+     * constructs a new result
+     * @param actions the actions which lead to the exit
+     * @param stats the statistics of the search
+     */
+    public SearchResult(List<Character> actions, SearchStats stats) {
+        this.actions = actions;
+        this.stats = stats;
+    }
+
+    /**
+     * returns the actions which lead to the exit
+     * @return the actions, empty if the maze is unsolvable
+     */
+    public List<Character> getActions() {
+        return actions;
+    }
+
+    /**
+     * returns the statistics of the search
+     * @return the statistics
+     */
+    public SearchStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,343 @@
+package model;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * a record of the work one search did, returned next to its solution by
+ * SearchStrategy.solve. Besides the nodes expanded it holds the counters a
+ * strategy keeps while searching, the time and memory the search took on
+ * the calling thread and the time of every phase the strategy reports, e.g.
+ * building a graph, searching it and expanding the path.
+ * <p>
+ * Counters a strategy does not keep stay at 0. CPU time and allocated bytes
+ * are read from the ThreadMXBean of the JVM and are -1 if it does not
+ * support them. While a Flight Recorder recording is running every search
+ * is also recorded as a model.Search event.
+ * </p>
+ */
+public class SearchStats {
+    /**
+     * the bean the CPU time and allocated bytes of the current thread are read from
+     */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * the name of the strategy which did the search
+     */
+    private final String strategy;
+    /**
+     * the number of actions in the solution found
+     */
+    private int solutionLength;
+    /**
+     * the number of nodes added to the open set or frontier
+     */
+    private long nodesGenerated;
+    /**
+     * the number of nodes expanded
+     */
+    private long nodesExpanded;
+    /**
+     * the number of nodes expanded again after their cost was found to be wrong
+     */
+    private long nodesReopened;
+    /**
+     * the largest number of nodes in the open set or frontier at any time
+     */
+    private long peakOpenSize;
+    /**
+     * the number of heuristic values found in a cache
+     */
+    private long heuristicHits;
+    /**
+     * the number of heuristic values which had to be computed
+     */
+    private long heuristicMisses;
+    /**
+     * the number of bytes allocated by the search on the calling thread, or -1
+     */
+    private long allocatedBytes = -1;
+    /**
+     * the elapsed time of the search in nanoseconds
+     */
+    private long wallNanos;
+    /**
+     * the CPU time of the search on the calling thread in nanoseconds, or -1
+     */
+    private long cpuNanos = -1;
+    /**
+     * the elapsed and CPU time of every phase in nanoseconds, in the order the phases ran
+     */
+    private final Map<String, long[]> phases = new LinkedHashMap<>();
+
+    /**
+     * the wall clock time the search or the current phase started at
+     */
+    private long startWall;
+    /**
+     * the CPU time the search or the current phase started at
+     */
+    private long startCpu;
+    /**
+     * the bytes allocated by the thread when the search started
+     */
+    private long startAllocated;
+    /**
+     * the name of the phase which is running, or null
+     */
+    private String currentPhase;
+    /**
+     * the wall clock time the current phase started at
+     */
+    private long phaseWall;
+    /**
+     * the CPU time the current phase started at
+     */
+    private long phaseCpu;
+    /**
+     * the Flight Recorder event of the search
+     */
+    private SearchEvent event;
+
+    /**
+     * constructs empty statistics for a search by the given strategy
+     * @param strategy the name of the strategy
+     */
+    public SearchStats(String strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * starts measuring the search. Called by SearchStrategy.solve
+     */
+    void start() {
+        this.event = new SearchEvent();
+        this.event.begin();
+        this.startAllocated = allocatedBytes();
+        this.startCpu = cpuTime();
+        this.startWall = System.nanoTime();
+    }
+
+    /**
+     * ends the phase which is running, if any, and starts a new one
+     * @param name the name of the new phase
+     */
+    void beginPhase(String name) {
+        this.endPhase();
+        this.currentPhase = name;
+        this.phaseCpu = cpuTime();
+        this.phaseWall = System.nanoTime();
+    }
+
+    /**
+     * adds the time since the current phase started to that phase
+     */
+    private void endPhase() {
+        if (this.currentPhase == null) {
+            return;
+        }
+        long[] times = this.phases.computeIfAbsent(this.currentPhase, name -> new long[2]);
+        times[0] += System.nanoTime() - this.phaseWall;
+        times[1] += this.phaseCpu < 0 ? 0 : cpuTime() - this.phaseCpu;
+        this.currentPhase = null;
+    }
+
+    /**
+     * stops measuring the search and records it as a Flight Recorder event
+     * @param solutionLength the number of actions in the solution found
+     */
+    void stop(int solutionLength) {
+        this.endPhase();
+        this.wallNanos = System.nanoTime() - this.startWall;
+        if (this.startCpu >= 0) {
+            this.cpuNanos = cpuTime() - this.startCpu;
+        }
+        if (this.startAllocated >= 0) {
+            this.allocatedBytes = allocatedBytes() - this.startAllocated;
+        }
+        this.solutionLength = solutionLength;
+        this.event.end();
+        if (this.event.shouldCommit()) {
+            this.event.strategy = this.strategy;
+            this.event.solutionLength = solutionLength;
+            this.event.nodesExpanded = this.nodesExpanded;
+            this.event.nodesGenerated = this.nodesGenerated;
+            this.event.peakOpenSize = this.peakOpenSize;
+            this.event.allocatedBytes = this.allocatedBytes;
+            this.event.commit();
+        }
+    }
+
+    /**
+     * sets the counters kept by the strategy
+     * @param nodesGenerated the number of nodes added to the open set or frontier
+     * @param nodesExpanded the number of nodes expanded
+     * @param nodesReopened the number of nodes expanded more than once
+     * @param peakOpenSize the largest size of the open set or frontier
+     */
+    void setCounters(long nodesGenerated, long nodesExpanded, long nodesReopened, long peakOpenSize) {
+        this.nodesGenerated = nodesGenerated;
+        this.nodesExpanded = nodesExpanded;
+        this.nodesReopened = nodesReopened;
+        this.peakOpenSize = peakOpenSize;
+    }
+
+    /**
+     * sets the counters of the heuristic cache
+     * @param heuristicHits the number of heuristic values found in the cache
+     * @param heuristicMisses the number of heuristic values which had to be computed
+     */
+    void setHeuristicCounters(long heuristicHits, long heuristicMisses) {
+        this.heuristicHits = heuristicHits;
+        this.heuristicMisses = heuristicMisses;
+    }
+
+    /**
+     * returns the name of the strategy which did the search
+     * @return the strategy name
+     */
+    public String getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * returns the number of actions in the solution found
+     * @return the solution length, 0 if there is no solution
+     */
+    public int getSolutionLength() {
+        return solutionLength;
+    }
+
+    /**
+     * returns the number of nodes added to the open set or frontier
+     * @return the number of generated nodes
+     */
+    public long getNodesGenerated() {
+        return nodesGenerated;
+    }
+
+    /**
+     * returns the number of nodes expanded
+     * @return the number of expanded nodes
+     */
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * returns the number of nodes expanded again after their cost was found to be wrong
+     * @return the number of reopened nodes
+     */
+    public long getNodesReopened() {
+        return nodesReopened;
+    }
+
+    /**
+     * returns the largest number of nodes in the open set or frontier at any time
+     * @return the peak open set size
+     */
+    public long getPeakOpenSize() {
+        return peakOpenSize;
+    }
+
+    /**
+     * returns the number of heuristic values found in a cache
+     * @return the number of cache hits
+     */
+    public long getHeuristicHits() {
+        return heuristicHits;
+    }
+
+    /**
+     * returns the number of heuristic values which had to be computed
+     * @return the number of cache misses
+     */
+    public long getHeuristicMisses() {
+        return heuristicMisses;
+    }
+
+    /**
+     * returns the number of bytes allocated by the search on the calling thread
+     * @return the allocated bytes, or -1 if the JVM cannot measure them
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * returns the elapsed time of the search
+     * @return the wall clock time in nanoseconds
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * returns the CPU time the search took on the calling thread
+     * @return the CPU time in nanoseconds, or -1 if the JVM cannot measure it
+     */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    /**
+     * returns the elapsed time of every phase the strategy reported, in the order they ran
+     * @return a map from phase names to wall clock times in nanoseconds
+     */
+    public Map<String, Long> getPhaseWallNanos() {
+        Map<String, Long> times = new LinkedHashMap<>();
+        this.phases.forEach((name, phase) -> times.put(name, phase[0]));
+        return times;
+    }
+
+    /**
+     * returns the statistics as a single line of JSON for log pipelines
+     * @return a JSON object on one line
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"strategy\":\"").append(this.strategy).append('"');
+        json.append(",\"solutionLength\":").append(this.solutionLength);
+        json.append(",\"nodesGenerated\":").append(this.nodesGenerated);
+        json.append(",\"nodesExpanded\":").append(this.nodesExpanded);
+        json.append(",\"nodesReopened\":").append(this.nodesReopened);
+        json.append(",\"peakOpenSize\":").append(this.peakOpenSize);
+        json.append(",\"heuristicHits\":").append(this.heuristicHits);
+        json.append(",\"heuristicMisses\":").append(this.heuristicMisses);
+        json.append(",\"allocatedBytes\":").append(this.allocatedBytes);
+        json.append(",\"wallNanos\":").append(this.wallNanos);
+        json.append(",\"cpuNanos\":").append(this.cpuNanos);
+        json.append(",\"phases\":{");
+        String separator = "";
+        for (Map.Entry<String, long[]> phase : this.phases.entrySet()) {
+            json.append(separator).append('"').append(phase.getKey()).append("\":{\"wallNanos\":")
+                    .append(phase.getValue()[0]).append(",\"cpuNanos\":").append(phase.getValue()[1]).append('}');
+            separator = ",";
+        }
+        return json.append("}}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.toJson();
+    }
+
+    /**
+     * returns the CPU time of the current thread, or -1 if it cannot be measured
+     */
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * returns the bytes allocated by the current thread so far, or -1 if they cannot be measured
+     */
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemorySupported()) {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,66 @@
+package model;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * an interface for the algorithms which can be used to programmatically
+ * generate solutions to mazes. Every strategy is constructed for one
+ * GameEnv and can be asked to solve it from any state.
+ */
+public interface SearchStrategy {
+
+    /**
+     * searches for a list of actions which lead from the given state to the exit of the maze.
+     * Note: if the maze is unsolvable an empty list will be returned.
+     * @param initState the state from which to begin the search
+     * @return a list containing action characters which
+     *          when performed in the given order will reach the exit
+     */
+    List<Character> search(GameState initState);
+
+    /**
+     * searches for the actions which lead from the given state to the exit
+     * and hands them out one at a time. Strategies which can produce the
+     * first actions before the whole path is known override this so that
+     * a replay can start early. By default the whole path is found first.
+     * @param initState the state from which to begin the search
+     * @return an iterator over the actions which lead to the exit
+     */
+    default Iterator<Character> searchLazily(GameState initState) {
+        return this.search(initState).iterator();
+    }
+
+    /**
+     * searches for the actions which lead from the given state to the exit
+     * and measures the work the search takes. By default only the nodes
+     * expanded, the time and the memory are recorded, strategies which keep
+     * more counters override this.
+     * @param initState the state from which to begin the search
+     * @return the actions which reach the exit together with the statistics of the search
+     */
+    default SearchResult solve(GameState initState) {
+        SearchStats stats = new SearchStats(this.getClass().getSimpleName());
+        stats.start();
+        List<Character> actions = this.search(initState);
+        stats.setCounters(0, this.getNodesExpanded(), 0, 0);
+        stats.stop(actions.size());
+        return new SearchResult(actions, stats);
+    }
+
+    /**
+     * sets the monitor which is told about the progress of every search, about
+     * every GridSearch.PROGRESS_INTERVAL expansions, and can stop it, in which
+     * case the search throws a CancellationException
+     * @param monitor the monitor, or null to stop monitoring
+     */
+    void setMonitor(SearchMonitor monitor);
+
+    /**
+     * returns the number of nodes which were expanded by the last search.
+     * This can be used to compare the amount of work different strategies
+     * need for the same maze.
+     * @return the number of expanded nodes
+     */
+    int getNodesExpanded();
+}
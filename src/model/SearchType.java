@@ -0,0 +1,95 @@
+package model;
+
+/**
+ * the search strategies which can be chosen to solve a maze
+ */
+public enum SearchType {
+    /**
+     * breadth-first search, the fastest optimal strategy for unit action costs
+     */
+    BFS,
+    /**
+     * Dijkstra's algorithm
+     */
+    DIJKSTRA,
+    /**
+     * A* search with the Manhattan distance heuristic
+     */
+    ASTAR,
+    /**
+     * greedy best-first search, fast but not always optimal
+     */
+    GREEDY,
+    /**
+     * jump point search, which skips straight runs through open areas
+     */
+    JPS,
+    /**
+     * bidirectional breadth-first search which meets in the middle from the start and the exit
+     */
+    BIDIRECTIONAL,
+    /**
+     * Dijkstra's algorithm over the junction graph, where every corridor is a single edge
+     */
+    JUNCTION,
+    /**
+     * hierarchical path finding over cluster entrances, for huge mazes. Not always optimal
+     */
+    HIERARCHICAL,
+    /**
+     * breadth-first search which expands every frontier on all cores
+     */
+    PARALLEL_BFS,
+    /**
+     * breadth-first search which grows whole rows of 64 cells at a time as bitsets
+     */
+    BIT_BFS,
+    /**
+     * breadth-first search with long cell indices and its memory off the heap, for mazes over 2^31 cells
+     */
+    OFF_HEAP_BFS;
+
+    /**
+     * creates a new instance of this search strategy for the given environment
+     * @param gameEnv the environment of the game to be solved
+     * @return a search strategy which can solve the maze
+     */
+    public SearchStrategy create(GameEnv gameEnv) {
+        return switch (this) {
+            case BFS -> new BreadthFirstSearch(gameEnv);
+            case DIJKSTRA -> new DijkstraSearch(gameEnv);
+            case ASTAR -> new GridAStar(gameEnv);
+            case GREEDY -> new GreedySearch(gameEnv);
+            case JPS -> new JumpPointSearch(gameEnv);
+            case BIDIRECTIONAL -> new BidirectionalSearch(gameEnv);
+            case JUNCTION -> new JunctionGraphSearch(gameEnv);
+            case HIERARCHICAL -> new HierarchicalSearch(gameEnv);
+            case PARALLEL_BFS -> new ParallelBreadthFirstSearch(gameEnv);
+            case BIT_BFS -> new BitParallelSearch(gameEnv);
+            case OFF_HEAP_BFS -> new OffHeapBreadthFirstSearch(gameEnv);
+        };
+    }
+
+    /**
+     * returns whether this strategy always finds a shortest path
+     * @return true if the solutions found are always as short as possible
+     */
+    public boolean isOptimal() {
+        return this != GREEDY && this != HIERARCHICAL;
+    }
+
+    /**
+     * returns the search type with the given name, ignoring case
+     * @param name the name of the search type e.g. "bfs" or "astar"
+     * @return the matching search type
+     * @throws IllegalArgumentException if there is no search type with the given name
+     */
+    public static SearchType fromName(String name) throws IllegalArgumentException {
+        for (SearchType type : values()) {
+            if (type.name().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("unknown solver: " + name);
+    }
+}
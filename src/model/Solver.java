@@ -60,34 +60,15 @@ public class Solver {
      * performs an A* search beginning at the given gamestate position
      * to generate a solution to the maze. An A* search is an informed
      * search algorithm which looks for the shortest path to the exit.
+     * The search itself is carried out by the allocation-free
+     * {@link GridAStar} engine on packed cell indices.
      * Note: if the maze is unsolvable an empty list will be returned.
      * @param initState the state from which to begin the search
      * @return a list containing action characters which
      *          when performed in the given order will reach the exit
      */
     public List<Character> searchAStar(GameState initState) {
-        Node node = null;
-        Map<GameState, Double> visited = new HashMap<>();
-        PriorityQueue<Node> pq = new PriorityQueue<>(10, new NodeComparator());
-        pq.add(new Node(initState, null, ' ', this.compute_heuristic(initState)));
-        while (!pq.isEmpty()) {
-            node = pq.poll();
-            if (this.gameEnv.isSolved(node.getState())) {
-                break;
-            }
-            List<Node> children = this.generateChildren(node);
-            for (Node succ : children) {
-                if (!visited.containsKey(succ.getState())
-                        || succ.getPathCost() < visited.get(succ.getState())) {
-                    pq.add(succ);
-                    visited.put(succ.getState(), succ.getPathCost());
-                }
-            }
-        }
-        if (pq.isEmpty()) {
-            node = null;
-        }
-        return this.backtrackActions(node, visited);
+        return new GridAStar(this.gameEnv).search(initState);
     }
 
     /**
@@ -99,10 +80,14 @@ public class Solver {
      */
     public List<Node> generateChildren(Node node) {
         List<Node> children = new ArrayList<>();
-        for (char action : GameEnv.ACTIONS) {
+        GameState state = node.getState();
+        // the open directions of the cell, one bit per Direction
+        int mask = this.gameEnv.neighbors(this.gameEnv.cellOf(state.getRow(), state.getCol()));
+        for (Direction direction : Direction.values()) {
             // check if each action is valid
-            if (this.gameEnv.isValid(node.getState(), action)) {
-                GameState nextState = this.gameEnv.performAction(node.getState(), action);
+            if ((mask & (1 << direction.ordinal())) != 0) {
+                char action = direction.getAction();
+                GameState nextState = this.gameEnv.performAction(state, direction);
                 double heuristic = this.compute_heuristic(nextState);
                 children.add(new Node(nextState, node,  action,
                         node.getPathCost() + GameEnv.ACTION_COST + heuristic));
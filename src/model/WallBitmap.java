@@ -0,0 +1,119 @@
+package model;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * a compact representation of the walls of a maze on the Java heap which
+ * stores one bit per cell in a single long array, row after row. A char[][]
+ * maze costs two bytes per cell plus a header for every row, so the bitmap
+ * needs about a sixteenth of the memory and a whole row of 64 cells can be
+ * read with one access. The array limits the bitmap to 2^37 cells.
+ */
+public class WallBitmap implements WallStorage {
+    /**
+     * the number of rows in the maze
+     */
+    private final int noRows;
+    /**
+     * the number of columns in the maze
+     */
+    private final int noCols;
+    /**
+     * one bit for every cell, set if the cell is a wall
+     */
+    private final long[] words;
+
+    /**
+     * constructs a new bitmap of the given size in which every cell is open
+     * @param noRows the number of rows in the maze
+     * @param noCols the number of columns in the maze
+     * @throws IllegalArgumentException if either size is not positive or the maze is too large for one array
+     */
+    public WallBitmap(int noRows, int noCols) throws IllegalArgumentException {
+        if (noRows <= 0 || noCols <= 0) {
+            throw new IllegalArgumentException("maze size must be positive: " + noRows + "x" + noCols);
+        }
+        long noWords = ((long) noRows * noCols + 63) >>> 6;
+        if (noWords > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("maze is too large: " + noRows + "x" + noCols);
+        }
+        this.noRows = noRows;
+        this.noCols = noCols;
+        this.words = new long[(int) noWords];
+    }
+
+    /**
+     * builds the bitmap of the walls of a maze representation array
+     * @param mazeRepr a 2d char array representing a maze
+     * @return a bitmap with a bit set for every wall tile
+     */
+    public static WallBitmap of(char[][] mazeRepr) {
+        return (WallBitmap) WallStorage.of(mazeRepr, false);
+    }
+
+    /**
+     * reads the walls of a maze stored in a file as big-endian longs, one
+     * bit per cell row after row, copying them onto the heap
+     * @param channel the channel of the file
+     * @param position the offset of the first word in the file
+     * @param noRows the number of rows in the maze
+     * @param noCols the number of columns in the maze
+     * @return the bitmap read
+     * @throws IOException if the file cannot be read
+     */
+    public static WallBitmap read(FileChannel channel, long position, int noRows, int noCols) throws IOException {
+        WallBitmap walls = new WallBitmap(noRows, noCols);
+        // copy the words one window of the file at a time, a mapping holds at most 2^31 bytes
+        int windowWords = 1 << 27;
+        for (int first = 0; first < walls.words.length; first += windowWords) {
+            int words = Math.min(windowWords, walls.words.length - first);
+            channel.map(FileChannel.MapMode.READ_ONLY, position + (long) first * Long.BYTES, (long) words * Long.BYTES)
+                    .asLongBuffer().get(walls.words, first, words);
+        }
+        return walls;
+    }
+
+    @Override
+    public int getNoRows() {
+        return noRows;
+    }
+
+    @Override
+    public int getNoCols() {
+        return noCols;
+    }
+
+    @Override
+    public boolean isWall(long cell) {
+        return (this.words[(int) (cell >>> 6)] & (1L << cell)) != 0;
+    }
+
+    @Override
+    public long getWord(long index) {
+        return this.words[(int) index];
+    }
+
+    @Override
+    public void setWall(long cell, boolean wall) {
+        if (wall) {
+            this.words[(int) (cell >>> 6)] |= 1L << cell;
+        } else {
+            this.words[(int) (cell >>> 6)] &= ~(1L << cell);
+        }
+    }
+
+    @Override
+    public long countWalls() {
+        long count = 0;
+        for (long word : this.words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return (long) this.words.length * Long.BYTES;
+    }
+}
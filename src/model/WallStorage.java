@@ -0,0 +1,164 @@
+package model;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * an interface for the ways the walls of a maze can be stored, one bit per
+ * cell. Cells are addressed by their row and column or by their packed index
+ * row * noCols + col, which is a long so mazes of more than 2^31 cells can
+ * be stored. GameEnv and the search strategies only read the walls through
+ * this interface, so they work the same whichever storage is chosen.
+ * <p>
+ * The storage does not check bounds, callers such as GameEnv do so before
+ * asking for a cell. Cell c is kept in bit c % 64 of the 64 bit word c / 64,
+ * so threads which set the cells of different words do not disturb each
+ * other, as long as no thread reads the storage before they are done.
+ * </p>
+ */
+public interface WallStorage {
+    /**
+     * returns the number of rows in the maze
+     * @return the number of rows
+     */
+    int getNoRows();
+
+    /**
+     * returns the number of columns in the maze
+     * @return the number of columns
+     */
+    int getNoCols();
+
+    /**
+     * returns the number of cells in the maze
+     * @return the number of rows times the number of columns
+     */
+    default long getNoCells() {
+        return (long) this.getNoRows() * this.getNoCols();
+    }
+
+    /**
+     * checks whether the cell with the given packed index is a wall
+     * @param cell the packed index row * noCols + col
+     * @return true if the cell is a wall
+     */
+    boolean isWall(long cell);
+
+    /**
+     * checks whether the given cell is a wall
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return true if the cell is a wall
+     */
+    default boolean isWall(int row, int col) {
+        return this.isWall((long) row * this.getNoCols() + col);
+    }
+
+    /**
+     * returns the 64 cells starting at cell 64 * index as one word, cell c
+     * in bit c % 64. The bits past the last cell of the maze are clear.
+     * @param index the index of the word
+     * @return the bits of the cells of the word, set for walls
+     */
+    default long getWord(long index) {
+        long first = index << 6;
+        long cells = this.getNoCells();
+        long word = 0;
+        for (int bit = 0; bit < 64 && first + bit < cells; bit++) {
+            if (this.isWall(first + bit)) {
+                word |= 1L << bit;
+            }
+        }
+        return word;
+    }
+
+    /**
+     * makes the cell with the given packed index a wall or opens it
+     * @param cell the packed index row * noCols + col
+     * @param wall true to make the cell a wall, false to open it
+     */
+    void setWall(long cell, boolean wall);
+
+    /**
+     * makes the given cell a wall or opens it
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @param wall true to make the cell a wall, false to open it
+     */
+    default void setWall(int row, int col, boolean wall) {
+        this.setWall((long) row * this.getNoCols() + col, wall);
+    }
+
+    /**
+     * returns the number of walls in the maze
+     * @return the number of cells which are walls
+     */
+    long countWalls();
+
+    /**
+     * checks whether the walls are kept outside the Java heap, in which case
+     * GameEnv keeps the data it derives from them there as well, or does not build it
+     * @return true if the storage uses direct or mapped memory
+     */
+    default boolean isOffHeap() {
+        return false;
+    }
+
+    /**
+     * returns the number of bytes used by the bits of the storage
+     * @return the size of the storage in bytes, not counting the object headers
+     */
+    long sizeInBytes();
+
+    /**
+     * creates an empty storage of the given size in which every cell is open
+     * @param noRows the number of rows in the maze
+     * @param noCols the number of columns in the maze
+     * @param offHeap true to store the walls outside the Java heap
+     * @return the new storage
+     * @throws IllegalArgumentException if either size is not positive or the maze is too large
+     */
+    static WallStorage allocate(int noRows, int noCols, boolean offHeap) throws IllegalArgumentException {
+        return offHeap ? new OffHeapWallBitmap(noRows, noCols) : new WallBitmap(noRows, noCols);
+    }
+
+    /**
+     * loads the walls of a maze stored in a file as big-endian longs, one bit
+     * per cell row after row. Off the heap the file is mapped and read as the
+     * walls are used, on the heap the words are copied into a WallBitmap.
+     * @param channel the channel of the file
+     * @param position the offset of the first word in the file
+     * @param noRows the number of rows in the maze
+     * @param noCols the number of columns in the maze
+     * @param offHeap true to keep the walls outside the Java heap
+     * @return the storage of the walls
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if either size is not positive or the maze is too large
+     */
+    static WallStorage map(FileChannel channel, long position, int noRows, int noCols, boolean offHeap)
+            throws IOException, IllegalArgumentException {
+        if (noRows <= 0 || noCols <= 0) {
+            throw new IllegalArgumentException("maze size must be positive: " + noRows + "x" + noCols);
+        }
+        return offHeap ? OffHeapWallBitmap.map(channel, position, noRows, noCols)
+                : WallBitmap.read(channel, position, noRows, noCols);
+    }
+
+    /**
+     * copies the walls of a maze representation array into a new storage
+     * @param mazeRepr a 2d char array representing a maze
+     * @param offHeap true to store the walls outside the Java heap
+     * @return a storage with a bit set for every wall tile
+     */
+    static WallStorage of(char[][] mazeRepr, boolean offHeap) {
+        WallStorage walls = allocate(mazeRepr.length, mazeRepr[0].length, offHeap);
+        for (int i = 0; i < mazeRepr.length; i++) {
+            for (int j = 0; j < mazeRepr[i].length; j++) {
+                if (mazeRepr[i][j] == GameEnv.WALL) {
+                    walls.setWall(i, j, true);
+                }
+            }
+        }
+        return walls;
+    }
+}
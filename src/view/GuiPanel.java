@@ -1,7 +1,7 @@
 package view;
 
 import model.GameEnv;
-import model.GameState;
+import model.GameSession;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -22,9 +22,10 @@ public class GuiPanel extends JPanel implements KeyListener {
      */
     private GameEnv gameEnv;
     /**
-     * the current state of the game
+     * the state of the game and the marks left on the maze to be rendered,
+     * replaced by the game thread and read on the event thread
      */
-    private GameState gameState;
+    private volatile GameSession.Snapshot snapshot;
     /**
      * an image used to display the player
      */
@@ -67,12 +68,12 @@ public class GuiPanel extends JPanel implements KeyListener {
     }
 
     /**
-     * updates the current gamestate so it can be
+     * updates the snapshot of the game so it can be
      * accessed to be rendered
-     * @param gameState the new state
+     * @param snapshot the new snapshot of the game
      */
-    public void setGameState(GameState gameState) {
-        this.gameState = gameState;
+    public void setSnapshot(GameSession.Snapshot snapshot) {
+        this.snapshot = snapshot;
     }
 
     /**
@@ -83,7 +84,7 @@ public class GuiPanel extends JPanel implements KeyListener {
      */
     public GuiPanel(GameEnv gameEnv) {
         this.gameEnv = gameEnv;
-        this.gameState = gameEnv.getInitState();
+        this.snapshot = new GameSession(gameEnv).snapshot();
         try {
             /*
             reference:
@@ -114,24 +115,15 @@ public class GuiPanel extends JPanel implements KeyListener {
 
         int xPos = 0;
         int yPos = 0;
+        GameSession.Snapshot current = this.snapshot;
         for (int i = 0; i < this.gameEnv.getNoRows(); i++) {
             for (int j = 0; j < this.gameEnv.getNoCols(); j++) {
-                char tile = this.gameEnv.getMazeRepr()[i][j];
+                char tile = current.tileAt(i, j);
                 // if player at position
-                if (i == gameState.getRow() && j == gameState.getCol()) {
+                if (i == current.getState().getRow() && j == current.getState().getCol()) {
                     // display player
                     g.drawImage(this.image, xPos, yPos, tileDimensions, tileDimensions, this);
 
-                    char [][] currentMaze = this.gameEnv.getMazeRepr();
-                    if (tile == GameEnv.PATH1 || tile == GameEnv.PATH2) {
-                        // if player at empty space make it traversed
-                        currentMaze[i][j] = GameEnv.TRAVERSED;
-                        this.gameEnv.setMazeRepr(currentMaze);
-                    } else if (tile == GameEnv.BACKTRACKED) {
-                        currentMaze[i][j] = GameEnv.TRAVERSED;
-                        this.gameEnv.setMazeRepr(currentMaze);
-                    }
-
                 } else {
 
                     // path tiles not included in below as they are white space
@@ -1,7 +1,7 @@
 package view;
 
 import model.GameEnv;
-import model.GameState;
+import model.GameSession;
 
 import javax.swing.*;
 import java.awt.*;
@@ -67,12 +67,12 @@ public class GuiViewer extends  JFrame implements ActionListener {
     }
 
     /**
-     * renders the given state into the display by loading
+     * renders the given snapshot of a game into the display by loading
      * it into the panel and repainting it.
-     * @param gameState the state to be rendered to the display
+     * @param snapshot the snapshot of the game to be rendered to the display
      */
-    public void render(GameState gameState) {
-        this.mainPanel.setGameState(gameState);
+    public void render(GameSession.Snapshot snapshot) {
+        this.mainPanel.setSnapshot(snapshot);
         this.mainPanel.repaint();
     }
 
@@ -81,7 +81,7 @@ public class TextViewer {
     public void render(GameState gameState) {
         for (int i = 0; i < this.gameEnv.getNoRows(); i++) {
             for (int j = 0; j < this.gameEnv.getNoCols(); j++) {
-                char tile = this.gameEnv.getMazeRepr()[i][j];
+                char tile = this.gameEnv.getTile(i, j);
                 // if player is at the position
                 if (i == gameState.getRow() && j == gameState.getCol()) {
                     // player representation takes priority over STARTPOINT and ENDPOINT
@@ -108,13 +108,13 @@ public class TextViewer {
      */
     public void printCharFormat(GameState gameState) {
         // \/\/  check maze by outputting (delete later)
-        for (int i = 0; i < this.gameEnv.getMazeRepr().length; i++) {
-            for (int j = 0; j < this.gameEnv.getMazeRepr()[i].length; j++) {
+        for (int i = 0; i < this.gameEnv.getNoRows(); i++) {
+            for (int j = 0; j < this.gameEnv.getNoCols(); j++) {
                 // if player at position
                 if (i == gameState.getRow() && j == gameState.getCol()) {
                     System.out.print(GameEnv.SIR_WOBBLETON);
                 } else {
-                    System.out.print(this.gameEnv.getMazeRepr()[i][j]);
+                    System.out.print(this.gameEnv.getTile(i, j));
                 }
             }
             System.out.println();
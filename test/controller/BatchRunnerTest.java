@@ -0,0 +1,59 @@
+package controller;
+
+import org.junit.*;
+
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * a class which tests the BatchRunner class
+ */
+public class BatchRunnerTest {
+    /**
+     * the directory of the example mazes
+     */
+    private static final String MAZES = "src/maze_text_files";
+
+    /**
+     * tests that every maze in a directory gets exactly one record with the right outcome
+     */
+    @Test
+    public void directoryTest() throws Exception {
+        List<Path> mazes = BatchRunner.findMazes(MAZES);
+        Assert.assertEquals(8, mazes.size());
+        StringWriter out = new StringWriter();
+        BatchRunner.Summary summary = new BatchRunner(new GameOptions(), 2).run(mazes, out, BatchRunner.Format.CSV);
+        String[] lines = out.toString().split("\n");
+        Assert.assertEquals(mazes.size() + 1, lines.length);
+        Assert.assertEquals(mazes.size(), summary.getNoMazes());
+        Assert.assertEquals(3, summary.getCount(BatchRunner.Status.SOLVED));
+        Assert.assertEquals(1, summary.getCount(BatchRunner.Status.UNSOLVABLE));
+        Assert.assertEquals(4, summary.getCount(BatchRunner.Status.ERROR)
+                + summary.getCount(BatchRunner.Status.INVALID));
+        Assert.assertTrue(summary.getLatencyPercentile(50) <= summary.getLatencyPercentile(99));
+        for (int i = 1; i < lines.length; i++) {
+            String[] values = lines[i].split(",", -1);
+            Assert.assertEquals(8, values.length);
+            Assert.assertEquals(values[0].contains("invalid"), values[1].equals("ERROR") || values[1].equals("INVALID"));
+            Assert.assertEquals(values[1].equals("ERROR"), !values[7].isEmpty());
+        }
+    }
+
+    /**
+     * tests that a glob only finds the matching files and the records can be written as JSON
+     */
+    @Test
+    public void globTest() throws Exception {
+        List<Path> mazes = BatchRunner.findMazes(MAZES + "/maze00?.txt");
+        Assert.assertEquals(3, mazes.size());
+        StringWriter out = new StringWriter();
+        new BatchRunner(new GameOptions(), 1).run(mazes, out, BatchRunner.Format.JSONL);
+        String[] lines = out.toString().split("\n");
+        Assert.assertEquals(3, lines.length);
+        for (String line : lines) {
+            Assert.assertTrue(line.startsWith("{\"file\":"));
+            Assert.assertTrue(line.contains("\"status\":\"SOLVED\""));
+        }
+    }
+}
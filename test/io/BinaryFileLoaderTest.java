@@ -0,0 +1,93 @@
+package io;
+
+import exceptions.MazeMalformedException;
+import model.GameEnv;
+import model.GameState;
+import org.junit.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * a class which tests the BinaryFileLoader class and the conversions of MazeConverter
+ */
+public class BinaryFileLoaderTest {
+    /**
+     * a binary maze file
+     */
+    private Path binaryFile;
+    /**
+     * a maze text file converted back from the binary file
+     */
+    private Path textFile;
+
+    /**
+     * run before every test to choose the temporary files
+     */
+    @Before
+    public void setUp() throws Exception {
+        this.binaryFile = Files.createTempFile("maze", BinaryFileLoader.EXTENSION);
+        this.textFile = Files.createTempFile("maze", ".txt");
+    }
+
+    /**
+     * run after every test to delete the temporary files
+     */
+    @After
+    public void tearDown() throws Exception {
+        Files.delete(this.binaryFile);
+        Files.delete(this.textFile);
+    }
+
+    /**
+     * tests that a maze converted to binary and back is the same as the original
+     */
+    @Test
+    public void roundTripTest() throws Exception {
+        String original = "src/maze_text_files/maze003.txt";
+        MazeConverter.convert(original, this.binaryFile.toString(), false);
+        MazeConverter.convert(this.binaryFile.toString(), this.textFile.toString(), false);
+        Assert.assertArrayEquals(new FileLoader().load(original), new FileLoader().load(this.textFile.toString()));
+        for (boolean offHeap : new boolean[]{false, true}) {
+            GameEnv gameEnv = new BinaryFileLoader().loadEnv(this.binaryFile.toString(), offHeap);
+            GameEnv expected = new GameEnv(new FileLoader().load(original));
+            Assert.assertEquals(expected.getInitState(), gameEnv.getInitState());
+            Assert.assertEquals(expected.getExitRow(), gameEnv.getExitRow());
+            Assert.assertEquals(expected.getExitCol(), gameEnv.getExitCol());
+            Assert.assertEquals(expected.getWalls().countWalls(), gameEnv.getWalls().countWalls());
+        }
+    }
+
+    /**
+     * tests that the precomputed sections are read and give the same answers as data built from the walls
+     */
+    @Test
+    public void indexesTest() throws Exception {
+        String original = "src/maze_text_files/maze002.txt";
+        MazeConverter.toBinary(original, this.binaryFile.toString(), true);
+        GameEnv gameEnv = new BinaryFileLoader().loadEnv(this.binaryFile.toString(), false);
+        GameEnv expected = new GameEnv(new FileLoader().load(original));
+        GameState start = gameEnv.getInitState();
+        Assert.assertEquals(expected.isSolvable(), gameEnv.isSolvable());
+        Assert.assertEquals(expected.getConnectivityIndex().getNoComponents(),
+                gameEnv.getConnectivityIndex().getNoComponents());
+        Assert.assertEquals(expected.getDistanceField().pathFrom(start), gameEnv.getDistanceField().pathFrom(start));
+        Assert.assertEquals(expected.getJunctionGraph().getNoNodes(), gameEnv.getJunctionGraph().getNoNodes());
+        Assert.assertEquals(expected.getJunctionGraph().getNoEdges(), gameEnv.getJunctionGraph().getNoEdges());
+    }
+
+    /**
+     * tests that a text file cannot be read as a binary maze
+     */
+    @Test
+    public void notBinaryTest() {
+        try {
+            new BinaryFileLoader().load("src/maze_text_files/maze001.txt");
+        } catch (MazeMalformedException e) {
+            return;
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        throw new AssertionError();
+    }
+}
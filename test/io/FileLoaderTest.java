@@ -6,6 +6,12 @@ import org.junit.*;
 
 
 import java.io.FileNotFoundException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * a class which tests the FileLoader class
@@ -148,4 +154,37 @@ public class FileLoaderTest {
         };
         Assert.assertEquals(maze, testArray);
     }
-}
\ No newline at end of file
+
+    /**
+     * tests that mazes compressed with gzip and zlib are loaded into the same
+     * array as the uncompressed file, whatever the name of the file
+     */
+    @Test
+    public void loadCompressedTest() throws Exception {
+        byte[] text = Files.readAllBytes(Path.of("src/maze_text_files/maze003.txt"));
+        char[][] expected = this.fl.load("src/maze_text_files/maze003.txt");
+        Path file = Files.createTempFile("maze", ".txt");
+        try {
+            for (boolean gzip : new boolean[]{true, false}) {
+                try (OutputStream out = gzip ? new GZIPOutputStream(Files.newOutputStream(file))
+                        : new DeflaterOutputStream(Files.newOutputStream(file))) {
+                    out.write(text);
+                }
+                Assert.assertArrayEquals(expected, this.fl.load(file.toString()));
+                Assert.assertArrayEquals(expected, new MappedFileLoader().load(file.toString()));
+                Assert.assertArrayEquals(expected, new ParallelFileLoader().load(file.toString()));
+            }
+            // cut the compressed maze short
+            byte[] compressed = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(compressed, compressed.length / 2));
+            try {
+                this.fl.load(file.toString());
+            } catch (MazeMalformedException e) {
+                return;
+            }
+            throw new AssertionError();
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io;
+
+import exceptions.MazeSizeMissmatchException;
+import org.junit.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * a class which tests the MappedFileLoader class against FileLoader
+ */
+public class MappedFileLoaderTest {
+    /**
+     * an instance of MappedFileLoader to test
+     */
+    private MappedFileLoader loader;
+
+    /**
+     * run before every test to initialise the MappedFileLoader
+     */
+    @Before
+    public void setUp() {
+        this.loader = new MappedFileLoader();
+    }
+
+    /**
+     * tests that every valid maze file is loaded into the same array as FileLoader loads it
+     */
+    @Test
+    public void sameMazeAsFileLoaderTest() throws Exception {
+        for (String name : new String[]{"maze001.txt", "maze002.txt", "maze003.txt", "unsolvableMaze1.txt"}) {
+            String filename = "src/maze_text_files/" + name;
+            Assert.assertArrayEquals(new FileLoader().load(filename), this.loader.load(filename));
+        }
+    }
+
+    /**
+     * tests that the invalid maze files throw the same exceptions as with FileLoader
+     */
+    @Test
+    public void sameExceptionsAsFileLoaderTest() {
+        for (String name : new String[]{"invalidMaze1.txt", "invalidMaze2.txt", "invalidMaze3.txt",
+                "invalidMaze4.txt", "bigScaryNonExistentMaze.txt"}) {
+            String filename = "src/maze_text_files/" + name;
+            Assert.assertEquals(name, this.exceptionOf(new FileLoader(), filename),
+                    this.exceptionOf(this.loader, filename));
+        }
+    }
+
+    /**
+     * tests that windows line breaks are accepted and that a row which is too
+     * long is reported before the illegal character on it
+     */
+    @Test
+    public void lineBreaksTest() throws Exception {
+        Path file = Files.createTempFile("maze", ".txt");
+        try {
+            Files.writeString(file, "3 3\r\n###\r\n#S#\r\n#E#");
+            Assert.assertArrayEquals(new char[][]{{'#', '#', '#'}, {'#', 'S', '#'}, {'#', 'E', '#'}},
+                    this.loader.load(file.toString()));
+            Files.writeString(file, "3 3\n###\n#Sx#\n#E#\n");
+            Assert.assertEquals(MazeSizeMissmatchException.class, this.exceptionOf(this.loader, file.toString()));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * returns the class of the exception thrown by loading the given file, or null if none is thrown
+     */
+    private Class<?> exceptionOf(FileInterface fileInterface, String filename) {
+        try {
+            fileInterface.load(filename);
+        } catch (Exception e) {
+            return e.getClass();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,110 @@
+package io;
+
+import exceptions.MazeSizeMissmatchException;
+import model.GameEnv;
+import org.junit.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * a class which tests the ParallelFileLoader class against FileLoader
+ */
+public class ParallelFileLoaderTest {
+    /**
+     * the pool the loader runs on, with several workers even on a single core
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    /**
+     * an instance of ParallelFileLoader to test
+     */
+    private ParallelFileLoader loader;
+    /**
+     * a temporary maze file
+     */
+    private Path file;
+
+    /**
+     * run before every test to initialise the ParallelFileLoader
+     */
+    @Before
+    public void setUp() throws Exception {
+        this.loader = new ParallelFileLoader(POOL);
+        this.file = Files.createTempFile("maze", ".txt");
+    }
+
+    /**
+     * run after every test to delete the temporary maze file
+     */
+    @After
+    public void tearDown() throws Exception {
+        Files.delete(this.file);
+    }
+
+    /**
+     * tests that every valid maze file is loaded into the same array as FileLoader loads it
+     */
+    @Test
+    public void sameMazeAsFileLoaderTest() throws Exception {
+        for (String name : new String[]{"maze001.txt", "maze002.txt", "maze003.txt", "unsolvableMaze1.txt"}) {
+            String filename = "src/maze_text_files/" + name;
+            Assert.assertArrayEquals(new FileLoader().load(filename), this.loader.load(filename));
+        }
+    }
+
+    /**
+     * tests that a maze large enough to be split between many tasks gets the
+     * same walls, start and exit as GameEnv finds in the array, on and off the heap
+     */
+    @Test
+    public void loadEnvTest() throws Exception {
+        Random random = new Random(7);
+        int rows = 1001;
+        int cols = 1501;
+        StringBuilder text = new StringBuilder(rows + " " + cols + "\r\n");
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                text.append(i == 3 && j == 5 ? 'S' : i == 997 && j == 1499 ? 'E' : random.nextBoolean() ? '#' : ' ');
+            }
+            text.append("\r\n");
+        }
+        Files.writeString(this.file, text);
+        GameEnv expected = new GameEnv(new FileLoader().load(this.file.toString()));
+        for (boolean offHeap : new boolean[]{false, true}) {
+            GameEnv gameEnv = this.loader.loadEnv(this.file.toString(), offHeap);
+            Assert.assertEquals(expected.getInitState(), gameEnv.getInitState());
+            Assert.assertEquals(expected.getExitRow(), gameEnv.getExitRow());
+            Assert.assertEquals(expected.getExitCol(), gameEnv.getExitCol());
+            Assert.assertEquals(expected.getWalls().countWalls(), gameEnv.getWalls().countWalls());
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    Assert.assertEquals(expected.isWall(i, j), gameEnv.isWall(i, j));
+                }
+            }
+        }
+    }
+
+    /**
+     * tests that an error is reported with its row and column
+     */
+    @Test
+    public void errorPositionTest() throws Exception {
+        Files.writeString(this.file, "3 3\n###\n#S#\n#E#x\n");
+        try {
+            this.loader.load(this.file.toString());
+        } catch (MazeSizeMissmatchException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().endsWith("at row 3, column 4."));
+            Files.writeString(this.file, "3 3\n###\n#Sx\n#E#\n");
+            try {
+                this.loader.load(this.file.toString());
+            } catch (IllegalArgumentException e2) {
+                Assert.assertEquals("illegal character at row 2, column 3", e2.getMessage());
+                return;
+            }
+        }
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,173 @@
+package io;
+
+import model.GameEnv;
+import model.GameState;
+import model.SearchType;
+import model.WallStorage;
+import org.junit.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * a class which tests the SolutionCache class
+ */
+public class SolutionCacheTest {
+    /**
+     * a small solvable maze
+     */
+    private static final char[][] MAZE = {
+            {'#', '#', '#', '#', '#'},
+            {'#', 'S', ' ', ' ', '#'},
+            {'#', '#', '#', 'E', '#'},
+            {'#', '#', '#', '#', '#'},
+    };
+    /**
+     * the solution of the maze
+     */
+    private static final List<Character> SOLUTION = Arrays.asList('r', 'r', 'd');
+
+    /**
+     * the directory the cache is stored in during a test
+     */
+    private Path directory;
+
+    /**
+     * run before every test to create an empty cache directory
+     */
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("solution-cache");
+    }
+
+    /**
+     * run after every test to delete the cache directory
+     */
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(this.directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(this.directory);
+    }
+
+    /**
+     * returns the key of the test maze solved from its start with A*
+     */
+    private static byte[] key(char[][] maze) {
+        return SolutionCache.keyOf(maze, new GameState(1, 1), SearchType.ASTAR);
+    }
+
+    /**
+     * checks that a stored solution is read back and that a missing one is a miss
+     */
+    @Test
+    public void putGetTest() {
+        SolutionCache cache = new SolutionCache(this.directory);
+        Assert.assertNull(cache.get(key(MAZE)));
+        cache.put(key(MAZE), SOLUTION);
+        Assert.assertEquals(SOLUTION, new SolutionCache(this.directory).get(key(MAZE)));
+    }
+
+    /**
+     * checks that the key only depends on the walls, exit, start and search type
+     */
+    @Test
+    public void keyOfTest() {
+        char[][] marked = new char[MAZE.length][];
+        for (int i = 0; i < MAZE.length; i++) {
+            marked[i] = MAZE[i].clone();
+        }
+        marked[1][2] = '.';
+        Assert.assertArrayEquals(key(MAZE), key(marked));
+        marked[1][2] = '#';
+        Assert.assertFalse(Arrays.equals(key(MAZE), key(marked)));
+        Assert.assertFalse(Arrays.equals(key(MAZE), SolutionCache.keyOf(MAZE, new GameState(1, 2), SearchType.ASTAR)));
+        Assert.assertFalse(Arrays.equals(key(MAZE), SolutionCache.keyOf(MAZE, new GameState(1, 1), SearchType.BFS)));
+        // a maze loaded from its walls alone has the same key as its array
+        GameEnv gameEnv = new GameEnv(WallStorage.of(MAZE, true), new GameState(1, 1), new GameState(2, 3));
+        Assert.assertArrayEquals(key(MAZE), SolutionCache.keyOf(gameEnv, new GameState(1, 1), SearchType.ASTAR));
+    }
+
+    /**
+     * checks that long solutions and empty solutions survive packing
+     */
+    @Test
+    public void encodeDecodeTest() {
+        List<Character> actions = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            actions.add("udlr".charAt(i * 7 % 4));
+        }
+        byte[] key = key(MAZE);
+        Assert.assertEquals(actions, SolutionCache.decode(SolutionCache.encode(key, actions), key));
+        Assert.assertEquals(Collections.emptyList(),
+                SolutionCache.decode(SolutionCache.encode(key, Collections.emptyList()), key));
+    }
+
+    /**
+     * checks that a damaged entry is treated as a miss
+     */
+    @Test
+    public void damagedEntryTest() throws IOException {
+        SolutionCache cache = new SolutionCache(this.directory);
+        cache.put(key(MAZE), SOLUTION);
+        try (Stream<Path> files = Files.list(this.directory)) {
+            Path entry = files.filter(file -> file.toString().endsWith(".sol")).findFirst().orElseThrow();
+            byte[] bytes = Files.readAllBytes(entry);
+            bytes[bytes.length - 9] ^= 1;
+            Files.write(entry, bytes);
+        }
+        Assert.assertNull(cache.get(key(MAZE)));
+    }
+
+    /**
+     * checks that the least recently used entries are removed once the cache is too large
+     */
+    @Test
+    public void evictionTest() throws InterruptedException {
+        byte[] first = key(MAZE);
+        byte[] second = SolutionCache.keyOf(MAZE, new GameState(1, 2), SearchType.ASTAR);
+        byte[] third = SolutionCache.keyOf(MAZE, new GameState(1, 3), SearchType.ASTAR);
+        int entrySize = SolutionCache.encode(first, SOLUTION).length;
+        SolutionCache cache = new SolutionCache(this.directory, entrySize * 2L);
+        cache.put(first, SOLUTION);
+        Thread.sleep(20);
+        cache.put(second, SOLUTION);
+        Thread.sleep(20);
+        Assert.assertNotNull(cache.get(first));
+        Thread.sleep(20);
+        cache.put(third, SOLUTION);
+        Assert.assertNotNull(cache.get(first));
+        Assert.assertNull(cache.get(second));
+        Assert.assertNotNull(cache.get(third));
+    }
+
+    /**
+     * checks that the total size of the entries is kept in the lock file and
+     * counted again from the directory when the lock file is lost
+     */
+    @Test
+    public void totalSizeTest() throws IOException {
+        byte[] first = key(MAZE);
+        byte[] second = SolutionCache.keyOf(MAZE, new GameState(1, 2), SearchType.ASTAR);
+        long entrySize = SolutionCache.encode(first, SOLUTION).length;
+        Path lockFile = this.directory.resolve("cache.lock");
+        SolutionCache cache = new SolutionCache(this.directory);
+        cache.put(first, SOLUTION);
+        Assert.assertEquals(entrySize, ByteBuffer.wrap(Files.readAllBytes(lockFile)).getLong());
+        cache.put(first, SOLUTION);
+        Assert.assertEquals(entrySize, ByteBuffer.wrap(Files.readAllBytes(lockFile)).getLong());
+        Files.delete(lockFile);
+        cache.put(second, SOLUTION);
+        Assert.assertEquals(entrySize * 2, ByteBuffer.wrap(Files.readAllBytes(lockFile)).getLong());
+    }
+}
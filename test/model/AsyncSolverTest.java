@@ -0,0 +1,124 @@
+package model;
+
+import io.FileLoader;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * a class which tests searching in the background with the AsyncSolver
+ */
+public class AsyncSolverTest {
+    /**
+     * builds a large open maze whose exit is walled in, so every search has to expand every cell
+     * @param size the number of rows and columns of the maze
+     * @return the environment of the maze
+     */
+    private static GameEnv walledInExitEnv(int size) {
+        char[][] maze = new char[size][size];
+        for (char[] row : maze) {
+            Arrays.fill(row, GameEnv.PATH1);
+        }
+        maze[0][0] = GameEnv.START_POINT;
+        maze[size - 1][size - 1] = GameEnv.END_POINT;
+        maze[size - 2][size - 1] = GameEnv.WALL;
+        maze[size - 1][size - 2] = GameEnv.WALL;
+        return new GameEnv(maze);
+    }
+
+    /**
+     * returns the exception a future completed with
+     */
+    private static Throwable failureOf(CompletableFuture<List<Character>> future) {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (CancellationException e) {
+            return e;
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        throw new AssertionError("the future completed normally");
+    }
+
+    /**
+     * checks that a background search finds the same solution length as
+     * breadth-first search and that the anytime search ends with a shortest path
+     */
+    @Test
+    public void solveTest() throws Exception {
+        GameEnv gameEnv = new GameEnv(new FileLoader().load("src/maze_text_files/maze003.txt"));
+        int shortest = new BreadthFirstSearch(gameEnv).search(gameEnv.getInitState()).size();
+        AsyncSolver solver = new AsyncSolver(gameEnv);
+        Assert.assertEquals(shortest, solver.solve(gameEnv.getInitState(), SearchType.ASTAR).get().size());
+        List<Integer> lengths = new ArrayList<>();
+        List<Character> best = solver.solveAnytime(gameEnv.getInitState(), path -> lengths.add(path.size())).get();
+        Assert.assertEquals(shortest, best.size());
+        Assert.assertEquals(shortest, (int) lengths.get(lengths.size() - 1));
+    }
+
+    /**
+     * checks that a search which runs past its time limit completes with a TimeoutException
+     */
+    @Test
+    public void timeLimitTest() {
+        GameEnv gameEnv = walledInExitEnv(1200);
+        AsyncSolver solver = new AsyncSolver(gameEnv);
+        solver.setTimeLimit(5);
+        Assert.assertTrue(failureOf(solver.solve(gameEnv.getInitState(), SearchType.ASTAR)) instanceof TimeoutException);
+    }
+
+    /**
+     * checks that the progress listener is called and can stop the search
+     */
+    @Test
+    public void progressListenerStopsSearchTest() {
+        GameEnv gameEnv = walledInExitEnv(300);
+        AsyncSolver solver = new AsyncSolver(gameEnv);
+        AtomicInteger calls = new AtomicInteger();
+        solver.setProgressListener((nodesExpanded, frontierSize, bestDistance) -> {
+            Assert.assertEquals(GridSearch.PROGRESS_INTERVAL * (calls.get() + 1), nodesExpanded);
+            return calls.incrementAndGet() < 3;
+        });
+        Assert.assertTrue(failureOf(solver.solve(gameEnv.getInitState(), SearchType.DIJKSTRA)) instanceof CancellationException);
+        Assert.assertEquals(3, calls.get());
+    }
+
+    /**
+     * checks that every search strategy calls the progress listener and stops when it asks to
+     */
+    @Test
+    public void everyStrategyStopsTest() {
+        GameEnv gameEnv = walledInExitEnv(300);
+        AsyncSolver solver = new AsyncSolver(gameEnv);
+        AtomicInteger calls = new AtomicInteger();
+        solver.setProgressListener((nodesExpanded, frontierSize, bestDistance) -> calls.incrementAndGet() < 0);
+        // jump point search and bidirectional search give up on this maze after a few hundred expansions
+        for (SearchType searchType : EnumSet.complementOf(EnumSet.of(SearchType.JPS, SearchType.BIDIRECTIONAL))) {
+            calls.set(0);
+            Throwable failure = failureOf(solver.solve(gameEnv.getInitState(), searchType));
+            Assert.assertTrue(searchType.name(), failure instanceof CancellationException);
+            Assert.assertEquals(searchType.name(), 1, calls.get());
+        }
+    }
+
+    /**
+     * checks that a cancelled search stops
+     */
+    @Test
+    public void cancelTest() {
+        GameEnv gameEnv = walledInExitEnv(1200);
+        CompletableFuture<List<Character>> future = new AsyncSolver(gameEnv).solveAnytime(gameEnv.getInitState(), null);
+        future.cancel(true);
+        Assert.assertTrue(failureOf(future) instanceof CancellationException);
+    }
+}
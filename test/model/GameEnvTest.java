@@ -2,6 +2,14 @@ package model;
 
 import org.junit.*;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 /**
  * a class which tests the GameEnv
  */
@@ -230,4 +238,259 @@ public class GameEnvTest {
     public void isSolvedFalseTest() {
         Assert.assertFalse(this.gameEnv.isSolved(new GameState(4, 5)));
     }
+
+    /**
+     * checks that the distance field gives the length of the
+     * shortest path from the start to the exit
+     */
+    @Test
+    public void distanceToExitTest() {
+        Assert.assertEquals(12, this.gameEnv.getDistanceField()
+                .distanceToExit(this.gameEnv.getInitState()));
+    }
+
+    /**
+     * checks that a wall cannot reach the exit according to the distance field
+     */
+    @Test
+    public void distanceToExitWallTest() {
+        Assert.assertEquals(DistanceField.UNREACHABLE,
+                this.gameEnv.getDistanceField().distanceToExit(new GameState(0, 0)));
+    }
+
+    /**
+     * checks that the best action from the start is to move down
+     */
+    @Test
+    public void bestActionTest() {
+        Assert.assertEquals(GameEnv.DOWN, this.gameEnv.getDistanceField()
+                .bestAction(this.gameEnv.getInitState()));
+    }
+
+    /**
+     * checks that following the path from the distance field solves the maze
+     */
+    @Test
+    public void pathFromTest() {
+        GameState state = new GameState(3, 3);
+        for (char action : this.gameEnv.getDistanceField().pathFrom(state)) {
+            state = this.gameEnv.performAction(state, action);
+        }
+        Assert.assertTrue(this.gameEnv.isSolved(state));
+    }
+
+    /**
+     * checks that replacing the maze rebuilds the distance field
+     */
+    @Test
+    public void distanceFieldRebuiltTest() {
+        DistanceField before = this.gameEnv.getDistanceField();
+        this.gameEnv.setMazeRepr(this.gameEnv.getMazeRepr());
+        Assert.assertNotSame(before, this.gameEnv.getDistanceField());
+    }
+
+    /**
+     * checks that opening a wall with setCell changes the maze and the distance to the exit
+     */
+    @Test
+    public void setCellTest() {
+        Assert.assertEquals(12, this.gameEnv.getDistanceField().distanceToExit(this.gameEnv.getInitState()));
+        this.gameEnv.setCell(1, 2, GameEnv.PATH1);
+        Assert.assertEquals(GameEnv.PATH1, this.gameEnv.getMazeRepr()[1][2]);
+        Assert.assertEquals(8, this.gameEnv.getDistanceField().distanceToExit(this.gameEnv.getInitState()));
+    }
+
+    /**
+     * checks that setCell tells registered listeners about the change
+     */
+    @Test
+    public void setCellListenerTest() {
+        StringBuilder changes = new StringBuilder();
+        this.gameEnv.addMazeChangeListener(new MazeChangeListener() {
+            @Override
+            public void cellChanged(int row, int col, char oldTile, char newTile) {
+                changes.append(row).append(col).append(oldTile).append(newTile);
+            }
+
+            @Override
+            public void mazeReplaced() {
+                changes.append("replaced");
+            }
+        });
+        this.gameEnv.setCell(3, 3, GameEnv.WALL);
+        Assert.assertEquals("33 #", changes.toString());
+    }
+
+    /**
+     * checks that setCell refuses to change the start
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void setCellStartTest() {
+        this.gameEnv.setCell(1, 1, GameEnv.WALL);
+    }
+
+    /**
+     * checks that the connected components of the maze are found and that it is solvable
+     */
+    @Test
+    public void connectivityIndexTest() {
+        ConnectivityIndex index = this.gameEnv.getConnectivityIndex();
+        Assert.assertEquals(1, index.getNoComponents());
+        Assert.assertEquals(17, index.componentSize(0));
+        Assert.assertTrue(this.gameEnv.isSolvable());
+        Assert.assertEquals(ConnectivityIndex.NO_COMPONENT, index.componentOf(new GameState(0, 0)));
+        Assert.assertFalse(index.isReachable(new GameState(0, 0), new GameState(0, 0)));
+    }
+
+    /**
+     * checks that walling off the exit makes the maze unsolvable and splits off its component
+     */
+    @Test
+    public void connectivityIndexUnsolvableTest() {
+        this.gameEnv.setCell(4, 5, GameEnv.WALL);
+        Assert.assertFalse(this.gameEnv.isSolvable());
+        ConnectivityIndex index = this.gameEnv.getConnectivityIndex();
+        Assert.assertEquals(2, index.getNoComponents());
+        Assert.assertEquals(1, index.componentSize(index.componentOf(new GameState(5, 5))));
+        Assert.assertEquals(15, index.largestComponentSize());
+    }
+
+    /**
+     * checks that an environment built from walls alone can be played and
+     * solved and builds the same char array view when asked for it
+     */
+    @Test
+    public void wallBitmapEnvTest() {
+        WallBitmap walls = WallBitmap.of(this.gameEnv.getMazeRepr());
+        Assert.assertEquals(8, walls.sizeInBytes());
+        GameEnv bitmapEnv = new GameEnv(walls, new GameState(1, 1), new GameState(5, 5));
+        Assert.assertFalse(bitmapEnv.isValid(new GameState(0, 0)));
+        Assert.assertTrue(bitmapEnv.isValid(new GameState(1, 3)));
+        Assert.assertTrue(bitmapEnv.isWall(-1, 3));
+        Assert.assertEquals(new GameState(2, 1), bitmapEnv.performAction(bitmapEnv.getInitState(), GameEnv.DOWN));
+        Assert.assertEquals(12, new BreadthFirstSearch(bitmapEnv).search(bitmapEnv.getInitState()).size());
+        char[][] view = bitmapEnv.getMazeRepr();
+        Assert.assertArrayEquals(this.gameEnv.getMazeRepr()[0], view[0]);
+        Assert.assertEquals(GameEnv.START_POINT, view[1][1]);
+        Assert.assertEquals(GameEnv.PATH1, view[2][1]);
+        Assert.assertEquals(GameEnv.END_POINT, view[5][5]);
+    }
+
+    /**
+     * checks that the array a maze is read from is not kept, and the view is rebuilt from the walls
+     */
+    @Test
+    public void viewRebuiltTest() {
+        char[][] maze = {
+                {'#', '#', '#', '#', '#'},
+                {'#', 'S', '.', ' ', '#'},
+                {'#', '#', '#', 'E', '#'},
+                {'#', '#', '#', '#', '#'},
+        };
+        GameEnv env = new GameEnv(maze);
+        char[][] view = env.getMazeRepr();
+        Assert.assertNotSame(maze, view);
+        Assert.assertSame(view, env.getMazeRepr());
+        Assert.assertEquals(GameEnv.PATH1, view[1][2]);
+        Assert.assertEquals(GameEnv.START_POINT, view[1][1]);
+        Assert.assertEquals(GameEnv.END_POINT, view[2][3]);
+        Assert.assertArrayEquals(maze[0], view[0]);
+    }
+
+    /**
+     * checks the table of open directions and that setCell keeps it up to date
+     */
+    @Test
+    public void neighborsTest() {
+        int start = this.gameEnv.cellOf(1, 1);
+        // only down is open from the start
+        Assert.assertEquals(2, this.gameEnv.neighbors(start));
+        Assert.assertEquals(this.gameEnv.cellOf(2, 1), this.gameEnv.step(start, 1));
+        Assert.assertEquals(0, this.gameEnv.neighbors(this.gameEnv.cellOf(0, 0)));
+        this.gameEnv.setCell(1, 2, GameEnv.PATH1);
+        Assert.assertEquals(2 | 8, this.gameEnv.neighbors(start));
+        Assert.assertTrue(this.gameEnv.isValid(this.gameEnv.getInitState(), GameEnv.RIGHT));
+        Assert.assertFalse(this.gameEnv.isValid(this.gameEnv.getInitState(), 'x'));
+        Assert.assertEquals(-1, GameEnv.directionOf('x'));
+    }
+
+    /**
+     * checks that moves hand out one shared state per cell and that
+     * states on the same anti-diagonal do not share a hash
+     */
+    @Test
+    public void stateAtTest() {
+        GameState down = this.gameEnv.performAction(this.gameEnv.getInitState(), Direction.DOWN);
+        Assert.assertSame(this.gameEnv.stateAt(2, 1), down);
+        Assert.assertSame(this.gameEnv.getInitState(), this.gameEnv.performAction(down, GameEnv.UP));
+        Assert.assertSame(down, this.gameEnv.performAction(down, Direction.LEFT));
+        Set<Integer> hashes = new HashSet<>();
+        for (int row = 0; row <= 100; row++) {
+            hashes.add(new GameState(row, 100 - row).hashCode());
+        }
+        Assert.assertEquals(101, hashes.size());
+    }
+
+    /**
+     * checks that threads asking for states and derived data at the same
+     * time are all handed the same instances
+     */
+    @Test
+    public void concurrentLazyInitTest() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.submit(() -> new Object[] {
+                        this.gameEnv.stateAt(3, 4), this.gameEnv.getMazeRepr(), this.gameEnv.getDistanceField(),
+                        this.gameEnv.getJunctionGraph(), this.gameEnv.getClusterGraph(),
+                        this.gameEnv.getConnectivityIndex()}));
+            }
+            Object[] first = futures.get(0).get();
+            for (Future<Object[]> future : futures) {
+                Object[] built = future.get();
+                for (int i = 0; i < first.length; i++) {
+                    Assert.assertSame(first[i], built[i]);
+                }
+            }
+            Assert.assertSame(first[0], this.gameEnv.stateAt(3, 4));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * checks the adapters between directions and action characters
+     */
+    @Test
+    public void directionTest() {
+        for (Direction direction : Direction.values()) {
+            Assert.assertEquals(direction, Direction.fromAction(direction.getAction()));
+            Assert.assertEquals(direction, direction.opposite().opposite());
+            Assert.assertEquals(0, direction.getRowStep() + direction.opposite().getRowStep());
+        }
+        Assert.assertEquals(Direction.RIGHT, Direction.of(GameEnv.directionOf(GameEnv.RIGHT)));
+    }
+
+    /**
+     * checks that a maze loaded with its walls off the heap is played and solved like one on the heap
+     */
+    @Test
+    public void offHeapLoadTest() {
+        GameEnv offHeapEnv = GameEnv.load(this.gameEnv.getMazeRepr(), true);
+        Assert.assertTrue(offHeapEnv.getWalls() instanceof OffHeapWallBitmap);
+        Assert.assertEquals(this.gameEnv.getWalls().countWalls(), offHeapEnv.getWalls().countWalls());
+        Assert.assertEquals(this.gameEnv.getInitState(), offHeapEnv.getInitState());
+        Assert.assertFalse(offHeapEnv.isValid(offHeapEnv.getInitState(), GameEnv.UP));
+        Assert.assertEquals(this.gameEnv.neighbors(this.gameEnv.cellOf(3, 3)), offHeapEnv.openDirections(3 * 7 + 3));
+        // the move table is kept off the heap too, and no connectivity index is built on the heap
+        Assert.assertTrue(offHeapEnv.hasMoveTable());
+        Assert.assertFalse(offHeapEnv.canCheckSolvable());
+        Assert.assertTrue(this.gameEnv.canCheckSolvable());
+        Assert.assertEquals(this.gameEnv.neighbors(this.gameEnv.cellOf(5, 5)), offHeapEnv.neighbors(5 * 7 + 5));
+        Assert.assertEquals(new GridAStar(this.gameEnv).search(this.gameEnv.getInitState()).size(),
+                new GridAStar(offHeapEnv).search(offHeapEnv.getInitState()).size());
+        Assert.assertEquals(new BreadthFirstSearch(this.gameEnv).search(this.gameEnv.getInitState()),
+                new OffHeapBreadthFirstSearch(offHeapEnv).search(offHeapEnv.getInitState()));
+    }
 }
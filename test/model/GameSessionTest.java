@@ -0,0 +1,168 @@
+package model;
+
+import org.junit.*;
+
+/**
+ * a class which tests the GameSession and the overlays it keeps its marks in
+ */
+public class GameSessionTest {
+    /**
+     * the environment shared by the sessions under test
+     */
+    private GameEnv gameEnv;
+
+    /**
+     * run before every test to initialise the GameEnv with a char array of maze001
+     */
+    @Before
+    public void setUp() {
+        char[][] testArray = {
+                {'#','#','#','#','#','#','#'},
+                {'#','S','#',' ',' ',' ','#'},
+                {'#',' ','#','#','#',' ','#'},
+                {'#',' ','#',' ',' ',' ','#'},
+                {'#',' ','#',' ','#',' ','#'},
+                {'#',' ',' ',' ','#','E','#'},
+                {'#','#','#','#','#','#','#'},
+        };
+        this.gameEnv = new GameEnv(testArray);
+    }
+
+    /**
+     * checks that moving marks the trail, walking back marks the cells left
+     * as backtracked and the maze itself is never written to
+     */
+    @Test
+    public void moveMarksTrailTest() {
+        GameSession session = new GameSession(this.gameEnv);
+        Assert.assertTrue(session.move(GameEnv.DOWN));
+        Assert.assertTrue(session.move(Direction.DOWN));
+        Assert.assertFalse(session.move(GameEnv.RIGHT));
+        Assert.assertTrue(session.move(GameEnv.UP));
+        GameSession.Snapshot snapshot = session.snapshot();
+        Assert.assertEquals(new GameState(2, 1), snapshot.getState());
+        Assert.assertEquals(GameEnv.START_POINT, snapshot.tileAt(1, 1));
+        Assert.assertEquals(GameEnv.TRAVERSED, snapshot.tileAt(2, 1));
+        Assert.assertEquals(GameEnv.BACKTRACKED, snapshot.tileAt(3, 1));
+        Assert.assertEquals(GameEnv.PATH1, snapshot.tileAt(4, 1));
+        Assert.assertEquals(GameEnv.PATH1, this.gameEnv.getMazeRepr()[2][1]);
+    }
+
+    /**
+     * checks that a snapshot does not change when its session goes on, and
+     * that two sessions on one environment do not see each other's marks
+     */
+    @Test
+    public void snapshotIsolationTest() {
+        GameSession first = new GameSession(this.gameEnv);
+        GameSession second = new GameSession(this.gameEnv);
+        first.move(GameEnv.DOWN);
+        GameSession.Snapshot before = first.snapshot();
+        first.move(GameEnv.DOWN);
+        Assert.assertEquals(GameEnv.PATH1, before.tileAt(3, 1));
+        Assert.assertEquals(GameEnv.TRAVERSED, first.snapshot().tileAt(3, 1));
+        Assert.assertEquals(GameEnv.PATH1, second.snapshot().tileAt(2, 1));
+        Assert.assertEquals(this.gameEnv.getInitState(), second.getState());
+    }
+
+    /**
+     * checks that overlays copy a page only when it changes after a snapshot
+     */
+    @Test
+    public void cellOverlayTest() {
+        CellOverlay overlay = new CellOverlay(200000);
+        overlay.set(5, true);
+        overlay.set(150000, true);
+        CellOverlay snapshot = overlay.snapshot();
+        overlay.set(5, false);
+        overlay.set(70000, true);
+        Assert.assertTrue(snapshot.get(5));
+        Assert.assertFalse(snapshot.get(70000));
+        Assert.assertTrue(snapshot.get(150000));
+        Assert.assertEquals(2, snapshot.cardinality());
+        Assert.assertFalse(overlay.get(5));
+        Assert.assertEquals(2, overlay.cardinality());
+        Assert.assertTrue(snapshot.isSnapshot());
+    }
+
+    /**
+     * checks that a session can be played on a maze of more than 2^31 cells,
+     * whose packed cell indices do not fit into an int
+     */
+    @Test
+    public void hugeMazeTest() {
+        int size = 50000;
+        GameEnv huge = new GameEnv(new OpenWalls(size, size), new GameState(size - 1, 0),
+                new GameState(size - 1, size - 1));
+        Assert.assertFalse(huge.hasMoveTable());
+        GameSession session = new GameSession(huge);
+        Assert.assertTrue(session.move(Direction.RIGHT));
+        Assert.assertTrue(session.move(Direction.RIGHT));
+        Assert.assertTrue(session.move(Direction.LEFT));
+        GameSession.Snapshot snapshot = session.snapshot();
+        Assert.assertEquals(new GameState(size - 1, 1), snapshot.getState());
+        Assert.assertEquals(GameEnv.TRAVERSED, snapshot.tileAt(size - 1, 1));
+        Assert.assertEquals(GameEnv.BACKTRACKED, snapshot.tileAt(size - 1, 2));
+        Assert.assertEquals(GameEnv.PATH1, snapshot.tileAt(size - 2, 1));
+    }
+
+    /**
+     * checks that a snapshot cannot be changed
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotReadOnlyTest() {
+        new CellOverlay(10).snapshot().set(1, true);
+    }
+
+    /**
+     * walls of any size in which every cell is open, which take no memory
+     */
+    private static final class OpenWalls implements WallStorage {
+        /**
+         * the number of rows in the maze
+         */
+        private final int noRows;
+        /**
+         * the number of columns in the maze
+         */
+        private final int noCols;
+
+        /**
+         * constructs open walls of the given size
+         */
+        OpenWalls(int noRows, int noCols) {
+            this.noRows = noRows;
+            this.noCols = noCols;
+        }
+
+        @Override
+        public int getNoRows() {
+            return noRows;
+        }
+
+        @Override
+        public int getNoCols() {
+            return noCols;
+        }
+
+        @Override
+        public boolean isWall(long cell) {
+            return false;
+        }
+
+        @Override
+        public void setWall(long cell, boolean wall) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long countWalls() {
+            return 0;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 0;
+        }
+    }
+}
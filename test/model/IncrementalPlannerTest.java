@@ -0,0 +1,102 @@
+package model;
+
+import io.FileLoader;
+import org.junit.*;
+
+import java.util.List;
+
+/**
+ * a class which tests that the IncrementalPlanner repairs its plan after the maze changes
+ */
+public class IncrementalPlannerTest {
+    /**
+     * the environment of maze003
+     */
+    private GameEnv gameEnv;
+    /**
+     * the planner being tested
+     */
+    private IncrementalPlanner planner;
+
+    /**
+     * run before every test to load maze003 and create a planner for it
+     */
+    @Before
+    public void setUp() {
+        try {
+            this.gameEnv = new GameEnv(new FileLoader().load("src/maze_text_files/maze003.txt"));
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        this.planner = new IncrementalPlanner(this.gameEnv);
+    }
+
+    /**
+     * checks that the plan has the same length as the shortest path found by breadth-first search
+     */
+    private void assertShortest(GameState from) {
+        List<Character> plan = this.planner.search(from);
+        Assert.assertEquals(new BreadthFirstSearch(this.gameEnv).search(from).size(), plan.size());
+        GameState state = from;
+        for (char action : plan) {
+            Assert.assertTrue(this.gameEnv.isValid(state, action));
+            state = this.gameEnv.performAction(state, action);
+        }
+        Assert.assertTrue(this.gameEnv.isSolved(state));
+    }
+
+    /**
+     * checks that the plan stays a shortest path when a wall next to it is
+     * opened and closed again and that replanning expands far fewer cells than the first search
+     */
+    @Test
+    public void replanAfterEditsTest() {
+        GameState start = this.gameEnv.getInitState();
+        List<Character> plan = this.planner.search(start);
+        int initial = this.planner.getNodesExpanded();
+        // find an inner wall beside the second half of the path
+        GameState state = start;
+        GameState wall = null;
+        for (int i = 0; i < plan.size() && wall == null; i++) {
+            state = this.gameEnv.performAction(state, plan.get(i));
+            int row = state.getRow();
+            int col = state.getCol() + 1;
+            if (i > plan.size() / 2 && col < this.gameEnv.getNoCols() - 1
+                    && this.gameEnv.getMazeRepr()[row][col] == GameEnv.WALL) {
+                wall = new GameState(row, col);
+            }
+        }
+        Assert.assertNotNull(wall);
+        this.gameEnv.setCell(wall.getRow(), wall.getCol(), GameEnv.PATH1);
+        this.assertShortest(start);
+        this.gameEnv.setCell(wall.getRow(), wall.getCol(), GameEnv.WALL);
+        this.assertShortest(start);
+        Assert.assertTrue(this.planner.getNodesExpanded() * 4 < initial);
+    }
+
+    /**
+     * checks that the plan is repaired when the player has moved before the maze changes
+     */
+    @Test
+    public void replanFromMovedStartTest() {
+        GameState state = this.gameEnv.getInitState();
+        List<Character> plan = this.planner.search(state);
+        for (int i = 0; i < 10; i++) {
+            state = this.gameEnv.performAction(state, plan.get(i));
+        }
+        this.gameEnv.setCell(1, 2, this.gameEnv.getMazeRepr()[1][2] == GameEnv.WALL ? GameEnv.PATH1 : GameEnv.WALL);
+        this.assertShortest(state);
+    }
+
+    /**
+     * checks that the planner no longer follows the maze once detached
+     */
+    @Test
+    public void detachTest() {
+        this.planner.search(this.gameEnv.getInitState());
+        this.planner.detach();
+        this.gameEnv.setMazeRepr(this.gameEnv.getMazeRepr());
+        this.planner.search(this.gameEnv.getInitState());
+        Assert.assertEquals(0, this.planner.getNodesExpanded());
+    }
+}
@@ -0,0 +1,78 @@
+package model;
+
+import io.FileLoader;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * a class which tests the LandmarkHeuristic and compares it against the Manhattan heuristic
+ */
+public class LandmarkHeuristicTest {
+    /**
+     * the environment of maze003
+     */
+    private GameEnv gameEnv;
+    /**
+     * every walkable cell of the maze
+     */
+    private List<GameState> walkable;
+
+    /**
+     * run before every test to load maze003 and collect its walkable cells
+     */
+    @Before
+    public void setUp() {
+        try {
+            this.gameEnv = new GameEnv(new FileLoader().load("src/maze_text_files/maze003.txt"));
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        this.walkable = new ArrayList<>();
+        for (int i = 0; i < this.gameEnv.getNoRows(); i++) {
+            for (int j = 0; j < this.gameEnv.getNoCols(); j++) {
+                if (this.gameEnv.getMazeRepr()[i][j] != GameEnv.WALL) {
+                    this.walkable.add(new GameState(i, j));
+                }
+            }
+        }
+    }
+
+    /**
+     * checks that the requested number of walkable landmarks is chosen
+     */
+    @Test
+    public void selectFarthestPointsTest() {
+        List<GameState> landmarks = LandmarkHeuristic.selectFarthestPoints(this.gameEnv, 6);
+        Assert.assertEquals(6, landmarks.size());
+        for (GameState landmark : landmarks) {
+            Assert.assertTrue(this.gameEnv.isValid(landmark));
+        }
+    }
+
+    /**
+     * runs A* between many random pairs of cells with both heuristics.
+     * The landmark heuristic must find paths of the same length while
+     * expanding fewer cells in total than the Manhattan heuristic.
+     */
+    @Test
+    public void fewerExpansionsThanManhattanTest() {
+        LandmarkHeuristic landmarks = new LandmarkHeuristic(this.gameEnv, 8);
+        Random random = new Random(7);
+        long manhattanExpanded = 0;
+        long landmarkExpanded = 0;
+        for (int i = 0; i < 100; i++) {
+            GameState from = this.walkable.get(random.nextInt(this.walkable.size()));
+            GameState to = this.walkable.get(random.nextInt(this.walkable.size()));
+            GridAStar manhattan = new GridAStar(this.gameEnv);
+            GridAStar alt = new GridAStar(this.gameEnv);
+            alt.setHeuristic(landmarks);
+            Assert.assertEquals(manhattan.search(from, to).size(), alt.search(from, to).size());
+            manhattanExpanded += manhattan.getNodesExpanded();
+            landmarkExpanded += alt.getNodesExpanded();
+        }
+        Assert.assertTrue(landmarkExpanded < manhattanExpanded);
+    }
+}
@@ -0,0 +1,80 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * a benchmark which measures how the parallel breadth-first search scales
+ * with the number of threads. It is not a unit test; run it with
+ * {@code java model.ParallelBfsBenchmark [size] [maxThreads]} on the test classpath.
+ * The maze is a large open grid with randomly scattered walls, which gives the
+ * wide frontiers the parallel search is meant for.
+ */
+public class ParallelBfsBenchmark {
+    /**
+     * the number of timed runs per thread count, after one warm up run
+     */
+    private static final int RUNS = 5;
+
+    /**
+     * runs the benchmark and prints the median time for 1, 2, 4 and so on
+     * threads, always ending with the largest number of threads
+     * @param args optionally the size of the maze and the largest number of threads
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 4001;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        GameEnv gameEnv = new GameEnv(randomMaze(size, 0.3, new Random(42)));
+        int expected = new BreadthFirstSearch(gameEnv).search(gameEnv.getInitState()).size();
+        System.out.println("maze " + size + "x" + size + ", shortest path " + expected);
+        double single = 0;
+        // doubling stops at maxThreads, so it is measured even when it is not a power of two
+        for (int threads = 1; threads <= maxThreads;
+                threads = threads == maxThreads ? maxThreads + 1 : Math.min(threads * 2, maxThreads)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            long[] times = new long[RUNS];
+            for (int run = -1; run < RUNS; run++) {
+                SearchStrategy search = new ParallelBreadthFirstSearch(gameEnv, pool);
+                long begin = System.nanoTime();
+                int length = search.search(gameEnv.getInitState()).size();
+                long elapsed = System.nanoTime() - begin;
+                if (length != expected) {
+                    throw new IllegalStateException("path length " + length + " expected " + expected);
+                }
+                if (run >= 0) {
+                    times[run] = elapsed;
+                }
+            }
+            pool.shutdown();
+            Arrays.sort(times);
+            double millis = times[RUNS / 2] / 1e6;
+            if (threads == 1) {
+                single = millis;
+            }
+            System.out.printf("threads %3d  %9.1f ms  speedup %5.2f%n", threads, millis, single / millis);
+        }
+    }
+
+    /**
+     * builds an open maze where every inner cell is a wall with the given probability,
+     * with the start in the top left corner and the exit in the bottom right corner
+     * @param size the number of rows and columns
+     * @param wallChance the probability of a cell being a wall
+     * @param random the source of randomness
+     * @return the maze as a 2d char array
+     */
+    static char[][] randomMaze(int size, double wallChance, Random random) {
+        char[][] maze = new char[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                boolean border = i == 0 || j == 0 || i == size - 1 || j == size - 1;
+                maze[i][j] = border || random.nextDouble() < wallChance ? GameEnv.WALL : GameEnv.PATH1;
+            }
+        }
+        maze[1][1] = GameEnv.START_POINT;
+        maze[size - 2][size - 2] = GameEnv.END_POINT;
+        return maze;
+    }
+}
@@ -0,0 +1,333 @@
+package model;
+
+import io.FileLoader;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * a class which tests every search strategy against the provided mazes
+ */
+public class SearchStrategyTest {
+    /**
+     * the solvable maze files used in the tests
+     */
+    private static final String[] MAZES = {
+            "src/maze_text_files/maze001.txt",
+            "src/maze_text_files/maze002.txt",
+            "src/maze_text_files/maze003.txt",
+    };
+
+    /**
+     * loads a maze text file into a GameEnv, failing the test if it cannot be loaded
+     * @param filename the path to the maze file
+     * @return the environment of the maze
+     */
+    private static GameEnv loadEnv(String filename) {
+        try {
+            return new GameEnv(new FileLoader().load(filename));
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * checks that the given actions are all valid and lead from the initial state to the exit
+     * @param gameEnv the environment the actions are performed in
+     * @param actions the actions to perform
+     */
+    private static void assertSolves(GameEnv gameEnv, List<Character> actions) {
+        GameState state = gameEnv.getInitState();
+        for (char action : actions) {
+            Assert.assertTrue(gameEnv.isValid(state, action));
+            state = gameEnv.performAction(state, action);
+        }
+        Assert.assertTrue(gameEnv.isSolved(state));
+    }
+
+    /**
+     * checks that every strategy solves every maze and that all optimal
+     * strategies find a path as short as breadth-first search
+     */
+    @Test
+    public void allStrategiesSolveMazesTest() {
+        for (String maze : MAZES) {
+            GameEnv gameEnv = loadEnv(maze);
+            int shortest = new BreadthFirstSearch(gameEnv).search(gameEnv.getInitState()).size();
+            for (SearchType type : SearchType.values()) {
+                SearchStrategy strategy = type.create(gameEnv);
+                List<Character> solution = strategy.search(gameEnv.getInitState());
+                assertSolves(gameEnv, solution);
+                Assert.assertTrue(strategy.getNodesExpanded() > 0);
+                if (type.isOptimal()) {
+                    Assert.assertEquals(type + " on " + maze, shortest, solution.size());
+                }
+            }
+        }
+    }
+
+    /**
+     * builds a maze made of two large open rooms joined by a gap in the wall between them
+     * @param size the number of rows and columns of the maze
+     * @return the environment of the maze
+     */
+    private static GameEnv openRoomsEnv(int size) {
+        char[][] maze = new char[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                boolean border = i == 0 || j == 0 || i == size - 1 || j == size - 1;
+                boolean divider = i == size / 2 && j < size - 3;
+                maze[i][j] = border || divider ? GameEnv.WALL : GameEnv.PATH1;
+            }
+        }
+        maze[1][1] = GameEnv.START_POINT;
+        maze[size - 2][1] = GameEnv.END_POINT;
+        return new GameEnv(maze);
+    }
+
+    /**
+     * checks that every optimal strategy finds a shortest path
+     * through open rooms and that jump point search expands fewer nodes than
+     * breadth-first search there
+     */
+    @Test
+    public void openRoomsTest() {
+        GameEnv gameEnv = openRoomsEnv(41);
+        SearchStrategy bfs = new BreadthFirstSearch(gameEnv);
+        int shortest = bfs.search(gameEnv.getInitState()).size();
+        for (SearchType type : SearchType.values()) {
+            List<Character> solution = type.create(gameEnv).search(gameEnv.getInitState());
+            assertSolves(gameEnv, solution);
+            if (type.isOptimal()) {
+                Assert.assertEquals(type.toString(), shortest, solution.size());
+            }
+        }
+        SearchStrategy jps = new JumpPointSearch(gameEnv);
+        jps.search(gameEnv.getInitState());
+        Assert.assertTrue(jps.getNodesExpanded() < bfs.getNodesExpanded());
+    }
+
+    /**
+     * builds a maze of a single straight corridor with the start at its left end
+     * @param length the number of moves from the start to the exit
+     * @param blocked whether a wall cuts the corridor between the start and the exit
+     * @return the environment of the maze
+     */
+    private static GameEnv corridorEnv(int length, boolean blocked) {
+        char[][] maze = new char[3][length + 3];
+        for (char[] row : maze) {
+            Arrays.fill(row, GameEnv.WALL);
+        }
+        for (int j = 1; j <= length + 1; j++) {
+            maze[1][j] = GameEnv.PATH1;
+        }
+        maze[1][1] = GameEnv.START_POINT;
+        maze[1][length + 1] = GameEnv.END_POINT;
+        if (blocked) {
+            maze[1][1 + (length + 1) / 2] = GameEnv.WALL;
+        }
+        return new GameEnv(maze);
+    }
+
+    /**
+     * builds a maze of one long corridor along the top with a dead end
+     * corridor hanging down from every other cell, the start at the left end
+     * of the long corridor and the exit at its right end
+     * @param teeth the number of dead end corridors
+     * @param depth the length of every dead end corridor
+     * @return the environment of the maze
+     */
+    private static GameEnv combEnv(int teeth, int depth) {
+        char[][] maze = new char[depth + 3][teeth * 2 + 3];
+        for (char[] row : maze) {
+            Arrays.fill(row, GameEnv.WALL);
+        }
+        for (int j = 1; j < maze[0].length - 1; j++) {
+            maze[1][j] = GameEnv.PATH1;
+        }
+        for (int tooth = 0; tooth < teeth; tooth++) {
+            for (int i = 2; i < depth + 2; i++) {
+                maze[i][tooth * 2 + 2] = GameEnv.PATH1;
+            }
+        }
+        maze[1][1] = GameEnv.START_POINT;
+        maze[1][maze[0].length - 2] = GameEnv.END_POINT;
+        return new GameEnv(maze);
+    }
+
+    /**
+     * checks that bidirectional search takes the single step to an exit next to the start
+     */
+    @Test
+    public void bidirectionalAdjacentExitTest() {
+        GameEnv gameEnv = corridorEnv(1, false);
+        Assert.assertEquals(List.of(GameEnv.RIGHT), new BidirectionalSearch(gameEnv).search(gameEnv.getInitState()));
+    }
+
+    /**
+     * checks that bidirectional search gives up on an exit which cannot be reached
+     */
+    @Test
+    public void bidirectionalUnreachableTest() {
+        for (int length = 2; length <= 5; length++) {
+            GameEnv gameEnv = corridorEnv(length, true);
+            Assert.assertTrue(new BidirectionalSearch(gameEnv).search(gameEnv.getInitState()).isEmpty());
+        }
+        GameEnv walledIn = loadEnv("src/maze_text_files/unsolvableMaze1.txt");
+        Assert.assertTrue(new BidirectionalSearch(walledIn).search(walledIn.getInitState()).isEmpty());
+    }
+
+    /**
+     * checks that bidirectional search finds the shortest path for odd and even
+     * path lengths, where the frontiers meet on a cell or between two cells
+     */
+    @Test
+    public void bidirectionalPathLengthsTest() {
+        for (int length = 2; length <= 9; length++) {
+            GameEnv gameEnv = corridorEnv(length, false);
+            List<Character> solution = new BidirectionalSearch(gameEnv).search(gameEnv.getInitState());
+            assertSolves(gameEnv, solution);
+            Assert.assertEquals(length, solution.size());
+        }
+        for (int size = 40; size <= 41; size++) {
+            GameEnv gameEnv = openRoomsEnv(size);
+            List<Character> solution = new BidirectionalSearch(gameEnv).search(gameEnv.getInitState());
+            assertSolves(gameEnv, solution);
+            Assert.assertEquals(new BreadthFirstSearch(gameEnv).search(gameEnv.getInitState()).size(), solution.size());
+        }
+    }
+
+    /**
+     * checks that bidirectional search finds a shortest path through a maze
+     * of dead end corridors while expanding fewer nodes than breadth-first search
+     */
+    @Test
+    public void bidirectionalFewerExpansionsTest() {
+        GameEnv gameEnv = combEnv(20, 30);
+        SearchStrategy bfs = new BreadthFirstSearch(gameEnv);
+        int shortest = bfs.search(gameEnv.getInitState()).size();
+        SearchStrategy bidirectional = new BidirectionalSearch(gameEnv);
+        List<Character> solution = bidirectional.search(gameEnv.getInitState());
+        assertSolves(gameEnv, solution);
+        Assert.assertEquals(shortest, solution.size());
+        Assert.assertTrue(bidirectional.getNodesExpanded() < bfs.getNodesExpanded());
+    }
+
+    /**
+     * checks that collapsing the corridors of maze002 leaves far fewer
+     * nodes in the junction graph than there are walkable cells
+     */
+    @Test
+    public void junctionGraphSmallerThanGridTest() {
+        GameEnv gameEnv = loadEnv("src/maze_text_files/maze002.txt");
+        int walkable = 0;
+        for (char[] row : gameEnv.getMazeRepr()) {
+            for (char tile : row) {
+                if (tile != GameEnv.WALL) {
+                    walkable++;
+                }
+            }
+        }
+        Assert.assertTrue(gameEnv.getJunctionGraph().getNoNodes() * 4 < walkable);
+    }
+
+    /**
+     * checks that handing out the actions lazily gives the same solution as
+     * searching for the whole path at once, for every strategy
+     */
+    @Test
+    public void searchLazilyMatchesSearchTest() {
+        GameEnv gameEnv = loadEnv("src/maze_text_files/maze003.txt");
+        for (SearchType type : SearchType.values()) {
+            List<Character> lazy = new ArrayList<>();
+            type.create(gameEnv).searchLazily(gameEnv.getInitState()).forEachRemaining(lazy::add);
+            Assert.assertEquals(type.toString(), type.create(gameEnv).search(gameEnv.getInitState()), lazy);
+        }
+    }
+
+    /**
+     * checks that every strategy returns an empty list for an unsolvable maze
+     */
+    @Test
+    public void allStrategiesUnsolvableTest() {
+        GameEnv gameEnv = loadEnv("src/maze_text_files/unsolvableMaze1.txt");
+        Assert.assertFalse(gameEnv.isSolvable());
+        for (SearchType type : SearchType.values()) {
+            Assert.assertTrue(type.create(gameEnv).search(gameEnv.getInitState()).isEmpty());
+        }
+    }
+
+    /**
+     * checks the bit-parallel search on rooms wider than two long words,
+     * so waves have to cross word boundaries in both directions
+     */
+    @Test
+    public void bitParallelWideRoomsTest() {
+        GameEnv gameEnv = openRoomsEnv(150);
+        BitParallelSearch search = new BitParallelSearch(gameEnv);
+        Assert.assertTrue(search.isSolvable(gameEnv.getInitState()));
+        List<Character> solution = search.search(gameEnv.getInitState());
+        assertSolves(gameEnv, solution);
+        Assert.assertEquals(new BreadthFirstSearch(gameEnv).search(gameEnv.getInitState()).size(), solution.size());
+        GameEnv unsolvable = loadEnv("src/maze_text_files/unsolvableMaze1.txt");
+        Assert.assertFalse(new BitParallelSearch(unsolvable).isSolvable(unsolvable.getInitState()));
+    }
+
+    /**
+     * checks that solve returns the same solution as search for every
+     * strategy, together with statistics of the work it took
+     */
+    @Test
+    public void solveStatsTest() {
+        GameEnv gameEnv = loadEnv("src/maze_text_files/maze003.txt");
+        for (SearchType type : SearchType.values()) {
+            SearchStrategy strategy = type.create(gameEnv);
+            SearchResult result = strategy.solve(gameEnv.getInitState());
+            SearchStats stats = result.getStats();
+            Assert.assertEquals(type.create(gameEnv).search(gameEnv.getInitState()), result.getActions());
+            Assert.assertEquals(result.getActions().size(), stats.getSolutionLength());
+            Assert.assertEquals(strategy.getNodesExpanded(), stats.getNodesExpanded());
+            Assert.assertTrue(stats.getWallNanos() > 0);
+            Assert.assertTrue(stats.toJson().startsWith("{\"strategy\":\"" + strategy.getClass().getSimpleName()));
+        }
+        SearchStats junction = new JunctionGraphSearch(gameEnv).solve(gameEnv.getInitState()).getStats();
+        Assert.assertEquals(List.of("graph", "search", "expand"), List.copyOf(junction.getPhaseWallNanos().keySet()));
+    }
+
+    /**
+     * checks the counters kept by A*, with and without a cache of heuristic values
+     */
+    @Test
+    public void aStarStatsTest() {
+        GameEnv gameEnv = loadEnv("src/maze_text_files/maze003.txt");
+        GridAStar search = new GridAStar(gameEnv);
+        SearchStats stats = search.solve(gameEnv.getInitState()).getStats();
+        Assert.assertTrue(stats.getNodesGenerated() >= stats.getNodesExpanded());
+        Assert.assertTrue(stats.getPeakOpenSize() > 0);
+        Assert.assertEquals(0, stats.getHeuristicHits());
+        Assert.assertEquals(stats.getNodesGenerated() + 1, stats.getHeuristicMisses());
+        search.setHeuristicCached(true);
+        SearchStats cached = search.solve(gameEnv.getInitState()).getStats();
+        Assert.assertEquals(stats.getNodesExpanded(), cached.getNodesExpanded());
+        Assert.assertEquals(stats.getHeuristicMisses(), cached.getHeuristicHits() + cached.getHeuristicMisses());
+    }
+
+    /**
+     * checks that search types can be looked up by name ignoring case
+     */
+    @Test
+    public void fromNameTest() {
+        Assert.assertEquals(SearchType.BFS, SearchType.fromName("bfs"));
+        Assert.assertEquals(SearchType.ASTAR, SearchType.fromName("AStar"));
+    }
+
+    /**
+     * checks that an unknown search type name is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void fromNameUnknownTest() {
+        SearchType.fromName("teleport");
+    }
+}
@@ -0,0 +1,69 @@
+package model;
+
+import io.FileLoader;
+import org.junit.*;
+
+import java.util.List;
+
+/**
+ * a class which tests the Solver
+ */
+public class SolverTest {
+    /**
+     * loads a maze text file into a GameEnv, failing the test if it cannot be loaded
+     * @param filename the path to the maze file
+     * @return the environment of the maze
+     */
+    private static GameEnv loadEnv(String filename) {
+        try {
+            return new GameEnv(new FileLoader().load(filename));
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * performs the given actions from the initial state and returns the final state
+     * @param gameEnv the environment the actions are performed in
+     * @param actions the actions to perform
+     * @return the state reached after all actions have been performed
+     */
+    private static GameState replay(GameEnv gameEnv, List<Character> actions) {
+        GameState state = gameEnv.getInitState();
+        for (char action : actions) {
+            Assert.assertTrue(gameEnv.isValid(state, action));
+            state = gameEnv.performAction(state, action);
+        }
+        return state;
+    }
+
+    /**
+     * checks that the A* search finds the shortest path through maze001
+     */
+    @Test
+    public void searchAStarShortestPathTest() {
+        GameEnv gameEnv = loadEnv("src/maze_text_files/maze001.txt");
+        List<Character> solution = new Solver(gameEnv).searchAStar(gameEnv.getInitState());
+        Assert.assertEquals(12, solution.size());
+        Assert.assertTrue(gameEnv.isSolved(replay(gameEnv, solution)));
+    }
+
+    /**
+     * checks that the A* search solves the large maze003
+     */
+    @Test
+    public void searchAStarLargeMazeTest() {
+        GameEnv gameEnv = loadEnv("src/maze_text_files/maze003.txt");
+        List<Character> solution = new Solver(gameEnv).searchAStar(gameEnv.getInitState());
+        Assert.assertTrue(gameEnv.isSolved(replay(gameEnv, solution)));
+    }
+
+    /**
+     * checks that an empty list is returned for a maze with no solution
+     */
+    @Test
+    public void searchAStarUnsolvableTest() {
+        GameEnv gameEnv = loadEnv("src/maze_text_files/unsolvableMaze1.txt");
+        Assert.assertTrue(new Solver(gameEnv).searchAStar(gameEnv.getInitState()).isEmpty());
+    }
+}